@@ -0,0 +1,77 @@
+package com.mchg.plugin;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+
+/**
+ * Immutable copy of the arena state bot brains need, taken on the main thread
+ * once per tick and read from worker threads. Players are only carried as
+ * handles to hand back in intents; workers never call methods on them.
+ * Positions and the cell index come from the {@link SpatialGrid}'s index for
+ * the tick, so bots search the same cells as every other nearest-tribute
+ * query.
+ */
+class ArenaSnapshot {
+    final long tick;
+    final int count;
+    final Player[] players;
+    final double[] xs;
+    final double[] ys;
+    final double[] zs;
+    final double[] health;
+    final double borderCenterX;
+    final double borderCenterZ;
+    final double borderSize;
+    final long[] chests;
+    private final TributeIndex tributes;
+    
+    private ArenaSnapshot(long tick, TributeIndex tributes, double[] health,
+                          double borderCenterX, double borderCenterZ, double borderSize, long[] chests) {
+        this.tick = tick;
+        this.tributes = tributes;
+        this.count = tributes.count;
+        this.players = tributes.players;
+        this.xs = tributes.xs;
+        this.ys = tributes.ys;
+        this.zs = tributes.zs;
+        this.health = health;
+        this.borderCenterX = borderCenterX;
+        this.borderCenterZ = borderCenterZ;
+        this.borderSize = borderSize;
+        this.chests = chests;
+    }
+    
+    /**
+     * Captures the alive tributes in the game world. Main thread only.
+     */
+    static ArenaSnapshot capture(HungerGames plugin, World world) {
+        TributeIndex tributes = plugin.getSpatialGrid().index();
+        double[] health = new double[tributes.count];
+        for (int i = 0; i < tributes.count; i++) {
+            health[i] = tributes.players[i].getHealth();
+        }
+        
+        WorldBorder border = world.getWorldBorder();
+        Location center = border.getCenter();
+        return new ArenaSnapshot(plugin.getTickMonitor().getTick(), tributes, health,
+            center.getX(), center.getZ(), border.getSize(), plugin.getWorldManager().getChestIndex().positions());
+    }
+    
+    /**
+     * Index of an alive tribute in the arrays, or -1 if they weren't alive in
+     * the arena when the snapshot was taken.
+     */
+    int indexOf(Player player) {
+        return tributes.indexOf(player);
+    }
+    
+    /**
+     * Index of the tribute nearest to a point within range, or -1 if there is
+     * none. Pass an index as excluded to leave that tribute out.
+     */
+    int nearest(double x, double z, int excluded, double range) {
+        return tributes.nearest(x, z, excluded, range * range);
+    }
+}
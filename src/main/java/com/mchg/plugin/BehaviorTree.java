@@ -0,0 +1,242 @@
+package com.mchg.plugin;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bot behaviour tree from bots.yml, compiled for one difficulty profile.
+ * Nodes are laid out depth first in flat arrays, so a node's children follow
+ * it up to {@link #ends}, and every argument is resolved to a number at
+ * compile time. Evaluating walks the arrays without allocating; the leaves
+ * themselves are run by {@link BotBrain}.
+ */
+class BehaviorTree {
+    /**
+     * Node types as written in bots.yml, lower case with dashes.
+     */
+    enum Node {
+        SELECTOR(Argument.NONE),
+        SEQUENCE(Argument.NONE),
+        SUCCEED(Argument.NONE),
+        CHANCE(Argument.NUMBER),
+        STATE(Argument.STATE),
+        SET_STATE(Argument.STATE),
+        TARGET_WITHIN(Argument.NUMBER),
+        ACQUIRE_TARGET(Argument.NUMBER),
+        ATTACK(Argument.NONE),
+        MOVE_TO_TARGET(Argument.NONE),
+        FIND_CHEST(Argument.NUMBER),
+        CHEST_WITHIN(Argument.NUMBER),
+        LOOT_CHEST(Argument.NONE),
+        MOVE_TO_CHEST(Argument.NONE),
+        EXPLORE(Argument.NUMBER);
+        
+        final Argument argument;
+        
+        Node(Argument argument) {
+            this.argument = argument;
+        }
+        
+        boolean isComposite() {
+            return this == SELECTOR || this == SEQUENCE;
+        }
+    }
+    
+    private enum Argument {
+        NONE, NUMBER, STATE
+    }
+    
+    final String profile;
+    private final Node[] nodes;
+    private final int[] ends; // One past the last node of each subtree
+    private final double[] params; // Numbers as given; states as their ordinal
+    private final String[] labels;
+    private final int[] depths;
+    private final LongAdder[] evaluations;
+    
+    private BehaviorTree(String profile, List<Node> nodes, List<Integer> ends, List<Double> params,
+                         List<String> labels, List<Integer> depths) {
+        int size = nodes.size();
+        this.profile = profile;
+        this.nodes = nodes.toArray(new Node[0]);
+        this.ends = new int[size];
+        this.params = new double[size];
+        this.depths = new int[size];
+        this.labels = labels.toArray(new String[0]);
+        this.evaluations = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            this.ends[i] = ends.get(i);
+            this.params[i] = params.get(i);
+            this.depths[i] = depths.get(i);
+            this.evaluations[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Compiles a tree definition, filling $name arguments from the profile's
+     * values.
+     *
+     * @throws IllegalArgumentException if a node or value is unknown
+     */
+    static BehaviorTree compile(String profile, Object root, Map<String, Object> values) {
+        Builder builder = new Builder(values);
+        builder.add(root, 0);
+        return new BehaviorTree(profile, builder.nodes, builder.ends, builder.params, builder.labels, builder.depths);
+    }
+    
+    /**
+     * Runs the tree from the root against a blackboard the caller has reset.
+     */
+    boolean evaluate(BotBrain.Blackboard board) {
+        return evaluate(0, board);
+    }
+    
+    private boolean evaluate(int node, BotBrain.Blackboard board) {
+        evaluations[node].increment();
+        switch (nodes[node]) {
+            case SELECTOR:
+                for (int child = node + 1; child < ends[node]; child = ends[child]) {
+                    if (evaluate(child, board)) return true;
+                }
+                return false;
+            case SEQUENCE:
+                for (int child = node + 1; child < ends[node]; child = ends[child]) {
+                    if (!evaluate(child, board)) return false;
+                }
+                return true;
+            default:
+                return BotBrain.run(nodes[node], params[node], board);
+        }
+    }
+    
+    int size() {
+        return nodes.length;
+    }
+    
+    String getLabel(int node) {
+        return labels[node];
+    }
+    
+    int getDepth(int node) {
+        return depths[node];
+    }
+    
+    long getEvaluations(int node) {
+        return evaluations[node].sum();
+    }
+    
+    long getTotalEvaluations() {
+        long total = 0;
+        for (LongAdder count : evaluations) {
+            total += count.sum();
+        }
+        return total;
+    }
+    
+    private static class Builder {
+        private final Map<String, Object> values;
+        private final List<Node> nodes = new ArrayList<>();
+        private final List<Integer> ends = new ArrayList<>();
+        private final List<Double> params = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<Integer> depths = new ArrayList<>();
+        
+        Builder(Map<String, Object> values) {
+            this.values = values;
+        }
+        
+        void add(Object spec, int depth) {
+            if (spec instanceof ConfigurationSection) {
+                spec = ((ConfigurationSection) spec).getValues(false);
+            }
+            
+            if (spec instanceof Map) {
+                // A composite: one key naming the type, holding the list of children
+                Map<?, ?> map = (Map<?, ?>) spec;
+                if (map.size() != 1) {
+                    throw new IllegalArgumentException("Composite nodes need exactly one key, got " + map.keySet());
+                }
+                Map.Entry<?, ?> entry = map.entrySet().iterator().next();
+                Node node = parseNode(String.valueOf(entry.getKey()));
+                if (!node.isComposite() || !(entry.getValue() instanceof List)) {
+                    throw new IllegalArgumentException(entry.getKey() + " does not take a list of children");
+                }
+                int index = push(node, 0, String.valueOf(entry.getKey()), depth);
+                for (Object child : (List<?>) entry.getValue()) {
+                    add(child, depth + 1);
+                }
+                ends.set(index, nodes.size());
+                return;
+            }
+            
+            String[] tokens = String.valueOf(spec).trim().split("\\s+");
+            Node node = parseNode(tokens[0]);
+            if (node.isComposite()) {
+                throw new IllegalArgumentException(tokens[0] + " needs a list of children");
+            }
+            if ((node.argument == Argument.NONE) != (tokens.length == 1) || tokens.length > 2) {
+                throw new IllegalArgumentException("Wrong arguments for " + spec);
+            }
+            
+            double param = 0;
+            String label = tokens[0];
+            if (node.argument != Argument.NONE) {
+                Object value = resolve(tokens[1]);
+                param = node.argument == Argument.STATE ? parseState(value).ordinal() : parseNumber(value);
+                label += " " + value;
+            }
+            int index = push(node, param, label, depth);
+            ends.set(index, nodes.size());
+        }
+        
+        private int push(Node node, double param, String label, int depth) {
+            nodes.add(node);
+            ends.add(0);
+            params.add(param);
+            labels.add(label);
+            depths.add(depth);
+            return nodes.size() - 1;
+        }
+        
+        private Object resolve(String token) {
+            if (!token.startsWith("$")) return token;
+            
+            Object value = values.get(token.substring(1));
+            if (value == null) {
+                throw new IllegalArgumentException("No value for " + token);
+            }
+            return value;
+        }
+        
+        private static Node parseNode(String name) {
+            try {
+                return Node.valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown node " + name);
+            }
+        }
+        
+        private static BotManager.BotState parseState(Object value) {
+            try {
+                return BotManager.BotState.valueOf(String.valueOf(value).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown state " + value);
+            }
+        }
+        
+        private static double parseNumber(Object value) {
+            if (value instanceof Number) return ((Number) value).doubleValue();
+            
+            try {
+                return Double.parseDouble(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + value);
+            }
+        }
+    }
+}
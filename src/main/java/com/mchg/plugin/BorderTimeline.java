@@ -0,0 +1,339 @@
+package com.mchg.plugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The border's schedule for a match, worked out once at game start from
+ * world.border in config.yml and the number of tributes. Phases shrink the
+ * border, hold it, or close it to the deathmatch size, one after another on
+ * the timeline's own clock. That clock moves 50ms per server tick, so a
+ * lagging server slows the match down instead of skipping ahead, and it
+ * runs faster as tributes die, so the
+ * {@link WorldBorder#setSize(double, long)} calls, the HUD and the warnings
+ * ahead of each shrink all follow the pace of the match.
+ */
+public class BorderTimeline {
+    public enum Type {
+        SHRINK, HOLD, DEATHMATCH
+    }
+    
+    private static final int[] WARNING_SECONDS = {60, 10};
+    private static final double SECONDS_PER_TICK = 0.05;
+    
+    private final HungerGames plugin;
+    private final List<Spec> specs = new ArrayList<>();
+    private final List<Phase> phases = new ArrayList<>();
+    private int startSize = 200;
+    private int maxStartSize = 400;
+    private int sizePerPlayer = 25;
+    private int endSize = 50;
+    private int deathmatchSize = 20;
+    private double maxSpeedup = 3.0;
+    
+    // Running timeline
+    private World world;
+    private boolean running = false;
+    private int current = -1;
+    private double clock; // Timeline seconds since the first phase began
+    private double speed = 1.0;
+    private int initialAlive;
+    private int nextWarning; // Index into WARNING_SECONDS for the coming phase
+    private long speedChanges = 0;
+    
+    public BorderTimeline(HungerGames plugin) {
+        this.plugin = plugin;
+        useDefaultPhases();
+    }
+    
+    /**
+     * Reads sizes and phases from the world.border section. A phase list that
+     * doesn't parse is replaced by the default shrink, hold, shrink,
+     * deathmatch schedule.
+     */
+    public void configure(ConfigurationSection border) {
+        if (border == null) return;
+        
+        startSize = border.getInt("start-size", 200);
+        maxStartSize = Math.max(startSize, border.getInt("max-start-size", 400));
+        sizePerPlayer = border.getInt("size-per-player", 25);
+        endSize = Math.min(startSize, border.getInt("end-size", 50));
+        deathmatchSize = Math.min(endSize, border.getInt("deathmatch-size", 20));
+        maxSpeedup = Math.max(1.0, border.getDouble("max-speedup", 3.0));
+        
+        List<Map<?, ?>> list = border.getMapList("phases");
+        if (list.isEmpty()) {
+            useDefaultPhases();
+            return;
+        }
+        try {
+            List<Spec> parsed = new ArrayList<>();
+            for (Map<?, ?> entry : list) {
+                Type type = Type.valueOf(String.valueOf(entry.get("type")).toUpperCase(Locale.ROOT));
+                double time = parseShare(entry.get("time"), "time");
+                double size = type == Type.SHRINK ? parseShare(entry.get("size"), "size") : 0;
+                parsed.add(new Spec(type, time, size));
+            }
+            specs.clear();
+            specs.addAll(parsed);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid world.border.phases, using the default timeline: " + e.getMessage());
+            useDefaultPhases();
+        }
+    }
+    
+    private void useDefaultPhases() {
+        specs.clear();
+        specs.add(new Spec(Type.SHRINK, 0.4, 0.6));
+        specs.add(new Spec(Type.HOLD, 0.2, 0));
+        specs.add(new Spec(Type.SHRINK, 0.4, 1.0));
+        specs.add(new Spec(Type.DEATHMATCH, 0.2, 0));
+    }
+    
+    private static double parseShare(Object value, String key) {
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("phase " + key + " must be a number, got " + value);
+        }
+        double share = ((Number) value).doubleValue();
+        if (share < 0) {
+            throw new IllegalArgumentException("phase " + key + " can't be negative");
+        }
+        return share;
+    }
+    
+    /**
+     * Lays out this match's phases for the given number of tributes, with
+     * phase times as shares of totalSeconds.
+     *
+     * @return the size the border starts at
+     */
+    public int plan(int players, int totalSeconds) {
+        stop();
+        phases.clear();
+        
+        int size = Math.max(startSize, Math.min(maxStartSize, players * sizePerPlayer));
+        double from = size;
+        double time = 0;
+        for (Spec spec : specs) {
+            double to;
+            switch (spec.type) {
+                case SHRINK:
+                    to = size + (endSize - size) * spec.size;
+                    break;
+                case DEATHMATCH:
+                    to = Math.min(from, deathmatchSize);
+                    break;
+                default:
+                    to = from;
+                    break;
+            }
+            double length = spec.time * totalSeconds;
+            phases.add(new Phase(spec.type, time, time + length, to));
+            time += length;
+            from = to;
+        }
+        return size;
+    }
+    
+    /**
+     * Starts the first phase in the arena world, pacing the rest against the
+     * number of tributes alive now.
+     */
+    public void start(World world, int alive) {
+        if (phases.isEmpty()) return;
+        
+        this.world = world;
+        this.running = true;
+        this.clock = 0;
+        this.speed = 1.0;
+        this.initialAlive = Math.max(1, alive);
+        this.current = -1;
+        enter(0);
+    }
+    
+    /**
+     * Advances the clock and moves into the next phase when the current one
+     * is over. Called once per tick.
+     */
+    public void tick() {
+        if (!running) return;
+        
+        try {
+            clock += SECONDS_PER_TICK * speed;
+            while (current < phases.size() - 1 && clock >= phases.get(current).end) {
+                enter(current + 1);
+            }
+            if (current == phases.size() - 1 && clock >= phases.get(current).end) {
+                // The last phase has run out; the border stays where it is for the rest of the match
+                running = false;
+                plugin.getHudManager().startPhase(HudManager.Phase.FINAL, 0);
+                return;
+            }
+            warn();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to update border timeline: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Speeds the timeline up as tributes die, up to max-speedup. The border
+     * is retargeted so a shrink in progress reaches its size on the new
+     * schedule.
+     */
+    public void onElimination(int alive) {
+        if (!running) return;
+        
+        double newSpeed = Math.max(1.0, Math.min(maxSpeedup, initialAlive / (double) Math.max(1, alive)));
+        if (Math.abs(newSpeed - speed) < 0.01) return;
+        
+        speed = newSpeed;
+        speedChanges++;
+        Phase phase = phases.get(current);
+        long remaining = realSecondsUntil(phase.end);
+        if (phase.type != Type.HOLD) {
+            resize(phase.size, remaining);
+        }
+        plugin.getHudManager().setPhaseRemaining(remaining);
+    }
+    
+    public void stop() {
+        running = false;
+        world = null;
+        current = -1;
+    }
+    
+    private void enter(int index) {
+        current = index;
+        nextWarning = 0;
+        Phase phase = phases.get(index);
+        long seconds = realSecondsUntil(phase.end);
+        
+        switch (phase.type) {
+            case SHRINK:
+                resize(phase.size, seconds);
+                plugin.getHudManager().startPhase(HudManager.Phase.SHRINKING, seconds);
+                announce(ChatColor.RED + "The border has started shrinking!", Sound.BLOCK_PORTAL_TRIGGER);
+                break;
+            case DEATHMATCH:
+                resize(phase.size, seconds);
+                plugin.getHudManager().startPhase(HudManager.Phase.DEATHMATCH, seconds);
+                announce(ChatColor.DARK_RED + "Deathmatch! The border is closing in!", Sound.ENTITY_WITHER_SPAWN);
+                break;
+            default:
+                plugin.getHudManager().startPhase(HudManager.Phase.HOLD, seconds);
+                announce(ChatColor.YELLOW + "The border has stopped for now.", Sound.BLOCK_NOTE_BLOCK_BELL);
+                break;
+        }
+    }
+    
+    /**
+     * Warns ahead of the next shrink or deathmatch, counting in real seconds
+     * so the warning still comes on time after the timeline speeds up.
+     */
+    private void warn() {
+        if (current >= phases.size() - 1) return;
+        
+        // Only a border that has stopped, or a coming deathmatch, needs a warning
+        Phase next = phases.get(current + 1);
+        if (next.type == Type.HOLD || (next.type == Type.SHRINK && phases.get(current).type != Type.HOLD)) return;
+        
+        long remaining = realSecondsUntil(next.start);
+        // Skip any warning the speed-up has already jumped past
+        while (nextWarning < WARNING_SECONDS.length - 1 && remaining <= WARNING_SECONDS[nextWarning + 1]) {
+            nextWarning++;
+        }
+        if (nextWarning < WARNING_SECONDS.length && remaining <= WARNING_SECONDS[nextWarning]) {
+            String what = next.type == Type.DEATHMATCH ? "Deathmatch begins" : "The border shrinks again";
+            announce(ChatColor.GOLD + what + " in " + remaining + " seconds!", Sound.BLOCK_NOTE_BLOCK_PLING);
+            nextWarning++;
+        }
+    }
+    
+    private void resize(double size, long seconds) {
+        if (world == null) return;
+        
+        world.getWorldBorder().setSize(size, Math.max(1, seconds));
+        plugin.getMatchHistoryManager().recordBorder(size, seconds);
+    }
+    
+    private void announce(String message, Sound sound) {
+        plugin.broadcast(message);
+        for (Player player : plugin.getPlayers()) {
+            if (player.isOnline()) {
+                player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
+            }
+        }
+    }
+    
+    private long realSecondsUntil(double time) {
+        return (long) Math.ceil(Math.max(0, time - clock) / speed);
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * The phase the border is in, or null before the first phase and after
+     * the last.
+     */
+    public Type getCurrentType() {
+        return running ? phases.get(current).type : null;
+    }
+    
+    /**
+     * The size the border is heading for in the current phase, or its final
+     * planned size once the timeline is over.
+     */
+    public double getTargetSize() {
+        if (phases.isEmpty()) return startSize;
+        return phases.get(Math.max(0, current)).size;
+    }
+    
+    public double getSpeed() {
+        return speed;
+    }
+    
+    public long getSpeedChanges() {
+        return speedChanges;
+    }
+    
+    public int getPhaseCount() {
+        return phases.size();
+    }
+    
+    private static class Spec {
+        final Type type;
+        final double time; // Share of the planned shrink time
+        final double size; // How far from start to end size a shrink closes
+        
+        Spec(Type type, double time, double size) {
+            this.type = type;
+            this.time = time;
+            this.size = size;
+        }
+    }
+    
+    private static class Phase {
+        final Type type;
+        final double start;
+        final double end;
+        final double size; // Border size when the phase is over
+        
+        Phase(Type type, double start, double end, double size) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.size = size;
+        }
+    }
+}
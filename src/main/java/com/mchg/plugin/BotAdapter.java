@@ -0,0 +1,83 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The server-version-specific half of bots: building full bot players, and
+ * the packets that draw practice bots and replay actors for clients. Everything else talks to
+ * bots through the Bukkit API, so supporting a new server version means
+ * adding one implementation here. The server's own tick timings live here
+ * too, being the one other thing the Bukkit API doesn't expose.
+ */
+public interface BotAdapter {
+    /**
+     * Creates a full server-side player for a tribute bot.
+     */
+    Player createPlayer(World world, UUID uuid, String name, String texture);
+    
+    /**
+     * Readies a tribute bot from an earlier match for a new arena world,
+     * bringing it back to life if it died.
+     */
+    void rebind(Player player, World world);
+    
+    /**
+     * Adds the bot to the viewers' clients at its current position, holding
+     * its weapon and wearing its armour.
+     */
+    void show(Collection<Player> viewers, PracticeBot bot);
+    
+    /**
+     * Sends the bot's current position and facing.
+     */
+    void move(Collection<Player> viewers, PracticeBot bot);
+    
+    /**
+     * Sends what the bot is holding and wearing now, empty slots included.
+     */
+    void equip(Collection<Player> viewers, PracticeBot bot);
+    
+    void swing(Collection<Player> viewers, PracticeBot bot);
+    
+    void hurt(Collection<Player> viewers, PracticeBot bot);
+    
+    void hide(Collection<Player> viewers, PracticeBot bot);
+    
+    /**
+     * How long the last finished server tick took, in nanoseconds, as the
+     * server timed it: the tick's work without the wait for the next one.
+     */
+    long lastTickNanos();
+    
+    /**
+     * The adapter for the running server, or null if there isn't one for its
+     * version or it can't link against the server's classes.
+     */
+    static BotAdapter forServer() {
+        try {
+            switch (serverVersion()) {
+                case "v1_20_R3":
+                    return new BotAdapter_v1_20_R3();
+                default:
+                    return null;
+            }
+        } catch (LinkageError e) {
+            // A jar that wasn't remapped to the server's mappings, or a server that isn't plain Spigot
+            Bukkit.getLogger().warning("[HungerGames] Bot adapter failed to load: " + e);
+            return null;
+        }
+    }
+    
+    /**
+     * The CraftBukkit package version, e.g. v1_20_R3 for 1.20.4.
+     */
+    static String serverVersion() {
+        String name = Bukkit.getServer().getClass().getPackage().getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.mchg.plugin;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundAddEntityPacket;
+import net.minecraft.network.protocol.game.ClientboundAnimatePacket;
+import net.minecraft.network.protocol.game.ClientboundHurtAnimationPacket;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoRemovePacket;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
+import net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket;
+import net.minecraft.network.protocol.game.ClientboundRotateHeadPacket;
+import net.minecraft.network.protocol.game.ClientboundSetEquipmentPacket;
+import net.minecraft.network.protocol.game.ClientboundTeleportEntityPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ClientInformation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.EquipmentSlot;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_20_R3.CraftServer;
+import org.bukkit.craftbukkit.v1_20_R3.CraftWorld;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_20_R3.inventory.CraftItemStack;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bots on 1.20.4. Practice bots are drawn with a detached ServerPlayer that
+ * is never added to a level, so it only exists to build packets from: it
+ * isn't ticked, tracked, or loading chunks.
+ */
+class BotAdapter_v1_20_R3 implements BotAdapter {
+    private static final EquipmentSlot[] ARMOR_SLOTS = {
+        EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+    
+    @Override
+    public Player createPlayer(World world, UUID uuid, String name, String texture) {
+        return createHandle(world, uuid, name, texture).getBukkitEntity();
+    }
+
+    @Override
+    public void rebind(Player player, World world) {
+        ServerPlayer handle = ((CraftPlayer) player).getHandle();
+        // Still flagged dead if it was killed last match
+        handle.unsetRemoved();
+        handle.deathTime = 0;
+        handle.setHealth(handle.getMaxHealth());
+        handle.setServerLevel(((CraftWorld) world).getHandle());
+    }
+    
+    @Override
+    public void show(Collection<Player> viewers, PracticeBot bot) {
+        if (viewers.isEmpty()) return;
+        
+        ServerPlayer handle = handle(bot);
+        // Added without UPDATE_LISTED, so the bot doesn't take a line in the tab list
+        send(viewers, new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER), List.of(handle)));
+        send(viewers, new ClientboundAddEntityPacket(handle));
+        send(viewers, new ClientboundRotateHeadPacket(handle, angle(bot.yaw)));
+        equip(viewers, bot);
+    }
+    
+    @Override
+    public void move(Collection<Player> viewers, PracticeBot bot) {
+        ServerPlayer handle = handle(bot);
+        send(viewers, new ClientboundTeleportEntityPacket(handle));
+        send(viewers, new ClientboundRotateHeadPacket(handle, angle(bot.yaw)));
+    }
+    
+    @Override
+    public void equip(Collection<Player> viewers, PracticeBot bot) {
+        if (viewers.isEmpty()) return;
+        
+        // asNMSCopy turns a missing item into the empty stack, which clears the slot
+        List<Pair<EquipmentSlot, net.minecraft.world.item.ItemStack>> equipment = new ArrayList<>();
+        equipment.add(Pair.of(EquipmentSlot.MAINHAND, CraftItemStack.asNMSCopy(bot.weapon)));
+        for (int i = 0; i < ARMOR_SLOTS.length; i++) {
+            equipment.add(Pair.of(ARMOR_SLOTS[i], CraftItemStack.asNMSCopy(bot.armor[i])));
+        }
+        send(viewers, new ClientboundSetEquipmentPacket(handle(bot).getId(), equipment));
+    }
+    
+    @Override
+    public void swing(Collection<Player> viewers, PracticeBot bot) {
+        send(viewers, new ClientboundAnimatePacket(handle(bot), ClientboundAnimatePacket.SWING_MAIN_HAND));
+    }
+    
+    @Override
+    public void hurt(Collection<Player> viewers, PracticeBot bot) {
+        send(viewers, new ClientboundHurtAnimationPacket(handle(bot)));
+    }
+    
+    @Override
+    public void hide(Collection<Player> viewers, PracticeBot bot) {
+        if (viewers.isEmpty() || bot.handle == null) return;
+        
+        send(viewers, new ClientboundRemoveEntitiesPacket(((ServerPlayer) bot.handle).getId()));
+        send(viewers, new ClientboundPlayerInfoRemovePacket(List.of(bot.uuid)));
+    }
+    
+    @Override
+    public long lastTickNanos() {
+        MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+        // The server stores a tick's time at index tickCount % 100 once the tick is over,
+        // and tickCount already counts the tick running now
+        long[] times = server.getTickTimesNanos();
+        return times[Math.floorMod(server.getTickCount() - 1, times.length)];
+    }
+    
+    private ServerPlayer handle(PracticeBot bot) {
+        if (bot.handle == null) {
+            bot.handle = createHandle(bot.world, bot.uuid, bot.name, bot.texture);
+        }
+        ServerPlayer handle = (ServerPlayer) bot.handle;
+        handle.setPos(bot.x, bot.y, bot.z);
+        handle.setYRot(bot.yaw);
+        handle.setXRot(bot.pitch);
+        handle.setYHeadRot(bot.yaw);
+        return handle;
+    }
+    
+    private ServerPlayer createHandle(World world, UUID uuid, String name, String texture) {
+        MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+        ServerLevel level = ((CraftWorld) world).getHandle();
+        GameProfile profile = new GameProfile(uuid, name);
+        profile.getProperties().put("textures", new Property("textures", texture));
+        return new ServerPlayer(server, level, profile, ClientInformation.createDefault());
+    }
+    
+    private static byte angle(float degrees) {
+        return (byte) (degrees * 256 / 360);
+    }
+    
+    private static void send(Collection<Player> viewers, Packet<?> packet) {
+        for (Player viewer : viewers) {
+            ((CraftPlayer) viewer).getHandle().connection.send(packet);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mchg.plugin;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads bots.yml and compiles one {@link BehaviorTree} per difficulty
+ * profile. Compiling happens once at load, so thinking never looks at the
+ * YAML again.
+ */
+public class BotBehaviors {
+    private final HungerGames plugin;
+    private Map<String, BehaviorTree> profiles = Collections.emptyMap();
+    private String defaultProfile = "normal";
+    
+    public BotBehaviors(HungerGames plugin) {
+        this.plugin = plugin;
+        loadProfiles();
+    }
+    
+    private void loadProfiles() {
+        File botsFile = new File(plugin.getDataFolder(), "bots.yml");
+        // onEnable has already copied the default over if there wasn't one
+        plugin.getIOManager().read(() -> {
+            return new String(Files.readAllBytes(botsFile.toPath()), StandardCharsets.UTF_8);
+        }, contents -> {
+            try {
+                YamlConfiguration config = new YamlConfiguration();
+                config.loadFromString(contents);
+                compile(config);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to load bots.yml, using the bundled trees: " + e.getMessage());
+                loadBundled();
+            }
+        });
+    }
+    
+    private void loadBundled() {
+        try (InputStream in = plugin.getResource("bots.yml")) {
+            compile(YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to load the bundled bots.yml: " + e.getMessage());
+        }
+    }
+    
+    private void compile(YamlConfiguration config) {
+        ConfigurationSection trees = config.getConfigurationSection("trees");
+        ConfigurationSection profileSection = config.getConfigurationSection("profiles");
+        if (trees == null || profileSection == null) {
+            throw new IllegalArgumentException("trees and profiles are both required");
+        }
+        
+        Map<String, BehaviorTree> compiled = new LinkedHashMap<>();
+        for (String name : profileSection.getKeys(false)) {
+            ConfigurationSection profile = profileSection.getConfigurationSection(name);
+            if (profile == null) continue;
+            
+            String treeName = profile.getString("tree");
+            Object tree = treeName != null ? trees.get(treeName) : null;
+            if (tree == null) {
+                throw new IllegalArgumentException("Profile " + name + " uses unknown tree " + treeName);
+            }
+            ConfigurationSection values = profile.getConfigurationSection("values");
+            try {
+                compiled.put(name, BehaviorTree.compile(name, tree,
+                    values != null ? values.getValues(false) : Collections.emptyMap()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Profile " + name + ": " + e.getMessage());
+            }
+        }
+        
+        String fallback = config.getString("default-profile", "normal");
+        if (!compiled.containsKey(fallback)) {
+            throw new IllegalArgumentException("Default profile " + fallback + " is not defined");
+        }
+        profiles = compiled;
+        defaultProfile = fallback;
+        plugin.getLogger().info("Loaded " + compiled.size() + " bot behaviour profiles");
+    }
+    
+    /**
+     * The named profile's tree, or the default profile's if the name is null
+     * or unknown. Null until bots.yml has loaded.
+     */
+    public BehaviorTree getProfile(String name) {
+        BehaviorTree tree = name != null ? profiles.get(name) : null;
+        return tree != null ? tree : profiles.get(defaultProfile);
+    }
+    
+    public boolean hasProfile(String name) {
+        return profiles.containsKey(name);
+    }
+    
+    public Set<String> getProfileNames() {
+        return profiles.keySet();
+    }
+    
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+    
+    public long getTotalEvaluations() {
+        long total = 0;
+        for (BehaviorTree tree : profiles.values()) {
+            total += tree.getTotalEvaluations();
+        }
+        return total;
+    }
+}
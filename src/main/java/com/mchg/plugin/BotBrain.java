@@ -0,0 +1,240 @@
+package com.mchg.plugin;
+
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bot decision making, kept free of the Bukkit API so it can run on worker
+ * threads. It evaluates the bot's {@link BehaviorTree} against one bot's
+ * {@link View} and an {@link ArenaSnapshot} and returns an {@link Intent};
+ * {@link BotManager} applies the intent on the main thread.
+ */
+class BotBrain {
+    static final long NO_CHEST = Long.MIN_VALUE;
+    private static final ThreadLocal<Blackboard> BOARDS = ThreadLocal.withInitial(Blackboard::new);
+    private static final BotManager.BotState[] STATES = BotManager.BotState.values(); // values() copies the array each call
+    
+    private BotBrain() {
+    }
+    
+    /**
+     * Evaluates the bot's behaviour tree. The intent starts out with no
+     * target; the tree has to keep or pick one.
+     */
+    static Intent think(View view, ArenaSnapshot arena, RandomGenerator random) {
+        Intent intent = new Intent(view);
+        if (view.tree == null) return intent;
+        
+        intent.target = null;
+        Blackboard board = BOARDS.get();
+        board.reset(view, arena, random, intent);
+        try {
+            view.tree.evaluate(board);
+        } finally {
+            board.reset(null, null, null, null);
+        }
+        return intent;
+    }
+    
+    /**
+     * Runs one leaf node.
+     *
+     * @return whether the leaf succeeded
+     */
+    static boolean run(BehaviorTree.Node node, double param, Blackboard board) {
+        View view = board.view;
+        ArenaSnapshot arena = board.arena;
+        Intent intent = board.intent;
+        switch (node) {
+            case SUCCEED:
+                return true;
+            case CHANCE:
+                return board.random.nextDouble() * 100 < param;
+            case STATE:
+                return intent.state.ordinal() == (int) param;
+            case SET_STATE:
+                intent.state = STATES[(int) param];
+                return true;
+            case TARGET_WITHIN: {
+                int index = board.targetIndex;
+                if (index < 0) return false;
+                
+                double dx = arena.xs[index] - view.x;
+                double dy = arena.ys[index] - view.y;
+                double dz = arena.zs[index] - view.z;
+                if (dx * dx + dy * dy + dz * dz > param * param) return false;
+                
+                intent.target = arena.players[index];
+                return true;
+            }
+            case ACQUIRE_TARGET: {
+                int index = nearestEnemy(view, arena, param);
+                if (index < 0) return false;
+                
+                board.targetIndex = index;
+                intent.target = arena.players[index];
+                return true;
+            }
+            case ATTACK:
+                if (intent.target == null) return false;
+                
+                intent.attack = true;
+                return true;
+            case MOVE_TO_TARGET:
+                if (intent.target == null) return false;
+                
+                intent.move = Move.TARGET;
+                return true;
+            case FIND_CHEST:
+                board.chest = nearestChest(view, arena, (int) param);
+                return board.chest != NO_CHEST;
+            case CHEST_WITHIN: {
+                if (board.chest == NO_CHEST) return false;
+                
+                double dx = ChestIndex.unpackX(board.chest) + 0.5 - view.x;
+                double dz = ChestIndex.unpackZ(board.chest) + 0.5 - view.z;
+                return dx * dx + dz * dz < param * param;
+            }
+            case LOOT_CHEST:
+                if (board.chest == NO_CHEST) return false;
+                
+                // Remembered, so the next think heads for another one
+                intent.visitedChest = board.chest;
+                return true;
+            case MOVE_TO_CHEST:
+                if (board.chest == NO_CHEST) return false;
+                
+                intent.move = Move.CHEST;
+                intent.chest = board.chest;
+                return true;
+            case EXPLORE:
+                explore(view, arena, board.random, intent, param);
+                return true;
+            default:
+                throw new IllegalStateException("Not a leaf: " + node);
+        }
+    }
+    
+    private static void explore(View view, ArenaSnapshot arena, RandomGenerator random, Intent intent, double reached) {
+        double dx = view.exploreX - view.x;
+        double dz = view.exploreZ - view.z;
+        if (Double.isNaN(view.exploreX) || dx * dx + dz * dz < reached * reached) {
+            // Pick a new random spot within the border
+            double half = arena.borderSize / 2;
+            intent.newExplore = true;
+            intent.exploreX = arena.borderCenterX + random.nextDouble() * half * 2 - half;
+            intent.exploreZ = arena.borderCenterZ + random.nextDouble() * half * 2 - half;
+        }
+        intent.move = Move.EXPLORE;
+    }
+    
+    private static int nearestEnemy(View view, ArenaSnapshot arena, double range) {
+        return arena.nearest(view.x, view.z, arena.indexOf(view.player), range);
+    }
+    
+    private static long nearestChest(View view, ArenaSnapshot arena, int radius) {
+        long nearest = NO_CHEST;
+        double best = Double.MAX_VALUE;
+        int x = (int) Math.floor(view.x);
+        int y = (int) Math.floor(view.y);
+        int z = (int) Math.floor(view.z);
+        for (long chest : arena.chests) {
+            int dx = ChestIndex.unpackX(chest) - x;
+            int dy = ChestIndex.unpackY(chest) - y;
+            int dz = ChestIndex.unpackZ(chest) - z;
+            if (Math.abs(dx) > radius || Math.abs(dy) > radius ||
+                Math.abs(dz) > radius || view.visitedChests.contains(chest)) continue;
+            
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < best) {
+                best = distance;
+                nearest = chest;
+            }
+        }
+        return nearest;
+    }
+    
+    enum Move {
+        NONE, CHEST, TARGET, EXPLORE
+    }
+    
+    /**
+     * Scratch state for one evaluation, shared by the leaves. Each brain
+     * thread reuses its own.
+     */
+    static class Blackboard {
+        View view;
+        ArenaSnapshot arena;
+        RandomGenerator random;
+        Intent intent;
+        int targetIndex; // The target being considered, in the snapshot arrays
+        long chest;
+        
+        void reset(View view, ArenaSnapshot arena, RandomGenerator random, Intent intent) {
+            this.view = view;
+            this.arena = arena;
+            this.random = random;
+            this.intent = intent;
+            this.targetIndex = view != null && view.target != null ? arena.indexOf(view.target) : -1;
+            this.chest = NO_CHEST;
+        }
+    }
+    
+    /**
+     * Everything a brain may know about its own bot, copied on the main thread.
+     */
+    static class View {
+        final BotManager.BotPlayer bot;
+        final Player player;
+        final int generation;
+        final double x, y, z;
+        final BotManager.BotState state;
+        final Player target;
+        final double exploreX, exploreZ; // NaN without an explore target
+        final Set<Long> visitedChests;
+        final BehaviorTree tree;
+        
+        View(BotManager.BotPlayer bot, Player player, int generation, double x, double y, double z,
+             BotManager.BotState state, Player target, double exploreX, double exploreZ, Set<Long> visitedChests,
+             BehaviorTree tree) {
+            this.bot = bot;
+            this.player = player;
+            this.generation = generation;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.state = state;
+            this.target = target;
+            this.exploreX = exploreX;
+            this.exploreZ = exploreZ;
+            this.visitedChests = visitedChests;
+            this.tree = tree;
+        }
+    }
+    
+    /**
+     * What a bot decided to do. Starts out as "carry on as before" and is
+     * filled in by the brain.
+     */
+    static class Intent {
+        final BotManager.BotPlayer bot;
+        final int generation;
+        BotManager.BotState state;
+        Player target;
+        Move move = Move.NONE;
+        long chest = NO_CHEST;
+        boolean attack;
+        boolean newExplore;
+        double exploreX, exploreZ;
+        long visitedChest = NO_CHEST;
+        
+        Intent(View view) {
+            this.bot = view.bot;
+            this.generation = view.generation;
+            this.state = view.state;
+            this.target = view.target;
+        }
+    }
+}
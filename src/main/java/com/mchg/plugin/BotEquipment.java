@@ -0,0 +1,144 @@
+package com.mchg.plugin;
+
+import com.google.common.collect.Multimap;
+import org.bukkit.Material;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * Keeps a bot holding its best weapon and wearing its best armour. The
+ * inventory is only looked at again after something changed it (a pickup, a
+ * looted chest, a broken item), not on every think. Items are scored from the
+ * attribute modifiers they actually apply plus their enchantments.
+ */
+class BotEquipment {
+    private boolean dirty = true;
+    
+    private static final EquipmentSlot[] ARMOR_SLOTS = {
+        EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+    private static final double BASE_ATTACK_DAMAGE = 1;
+    private static final double BASE_ATTACK_SPEED = 4;
+    
+    void markDirty() {
+        dirty = true;
+    }
+    
+    boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Re-equips from the current inventory. Main thread only.
+     */
+    void update(Player player) {
+        dirty = false;
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] contents = inventory.getStorageContents();
+        
+        for (EquipmentSlot slot : ARMOR_SLOTS) {
+            double bestScore = armorScore(inventory.getItem(slot), slot);
+            int bestIndex = -1;
+            for (int i = 0; i < contents.length; i++) {
+                ItemStack item = contents[i];
+                if (item == null || item.getType().getEquipmentSlot() != slot) continue;
+                
+                double score = armorScore(item, slot);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex >= 0) {
+                ItemStack worn = inventory.getItem(slot);
+                inventory.setItem(slot, contents[bestIndex]);
+                inventory.setItem(bestIndex, worn);
+                contents[bestIndex] = worn;
+            }
+        }
+        
+        int held = inventory.getHeldItemSlot();
+        double bestScore = weaponScore(contents[held]);
+        int bestIndex = held;
+        for (int i = 0; i < contents.length; i++) {
+            double score = weaponScore(contents[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+            }
+        }
+        if (bestIndex == held) return;
+        
+        if (bestIndex < 9) {
+            inventory.setHeldItemSlot(bestIndex);
+        } else {
+            // Not on the hotbar; swap it into the held slot
+            inventory.setItem(bestIndex, contents[held]);
+            inventory.setItem(held, contents[bestIndex]);
+        }
+    }
+    
+    /**
+     * Melee damage per second: attack damage (with sharpness) times attacks
+     * per second, as the item would set them in the main hand.
+     */
+    static double weaponScore(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return BASE_ATTACK_DAMAGE * BASE_ATTACK_SPEED;
+        }
+        
+        double speed = BASE_ATTACK_SPEED + sum(modifiers(item, EquipmentSlot.HAND), Attribute.GENERIC_ATTACK_SPEED);
+        return attackDamage(item) * Math.max(0.1, speed);
+    }
+    
+    /**
+     * Damage of one fully charged melee hit with the item, sharpness included.
+     */
+    static double attackDamage(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) return BASE_ATTACK_DAMAGE;
+        
+        double damage = BASE_ATTACK_DAMAGE + sum(modifiers(item, EquipmentSlot.HAND), Attribute.GENERIC_ATTACK_DAMAGE);
+        int sharpness = item.getEnchantmentLevel(Enchantment.DAMAGE_ALL);
+        if (sharpness > 0) {
+            damage += 0.5 * sharpness + 0.5;
+        }
+        return damage;
+    }
+    
+    /**
+     * Armour points plus toughness, with protection enchantments counted as one
+     * point a level. Zero for an empty slot.
+     */
+    static double armorScore(ItemStack item, EquipmentSlot slot) {
+        if (item == null || item.getType() == Material.AIR) return 0;
+        
+        Multimap<Attribute, AttributeModifier> modifiers = modifiers(item, slot);
+        return sum(modifiers, Attribute.GENERIC_ARMOR) + sum(modifiers, Attribute.GENERIC_ARMOR_TOUGHNESS) +
+            item.getEnchantmentLevel(Enchantment.PROTECTION_ENVIRONMENTAL);
+    }
+    
+    private static Multimap<Attribute, AttributeModifier> modifiers(ItemStack item, EquipmentSlot slot) {
+        // Modifiers set on the item replace the defaults entirely, as they do in game
+        ItemMeta meta = item.hasItemMeta() ? item.getItemMeta() : null;
+        if (meta != null && meta.hasAttributeModifiers()) {
+            return meta.getAttributeModifiers(slot);
+        }
+        return item.getType().getDefaultAttributeModifiers(slot);
+    }
+    
+    private static double sum(Multimap<Attribute, AttributeModifier> modifiers, Attribute attribute) {
+        double total = 0;
+        for (AttributeModifier modifier : modifiers.get(attribute)) {
+            if (modifier.getOperation() == AttributeModifier.Operation.ADD_NUMBER) {
+                total += modifier.getAmount();
+            }
+        }
+        return total;
+    }
+}
@@ -1,86 +1,193 @@
 package com.mchg.plugin;
 
 import org.bukkit.*;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
+import org.bukkit.block.Block;
+import org.bukkit.block.Chest;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import com.mojang.authlib.GameProfile;
-import net.minecraft.server.level.ServerPlayer;
-import org.bukkit.craftbukkit.v1_20_R1.CraftServer;
-import org.bukkit.craftbukkit.v1_20_R1.CraftWorld;
-import com.mojang.authlib.properties.Property;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerLevel;
-import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
-import net.minecraft.network.protocol.game.ClientboundAddPlayerPacket;
-import net.minecraft.network.protocol.game.ClientboundRotateHeadPacket;
+import org.bukkit.inventory.PlayerInventory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 
 public class BotManager {
     private final HungerGames plugin;
     private final Map<UUID, BotPlayer> bots;
-    private final Random random;
+    private final BotPool pool;
+    private final List<List<BotPlayer>> buckets = new ArrayList<>(THINK_INTERVAL_TICKS);
+    private final ArrayDeque<BotPlayer> runQueue = new ArrayDeque<>();
+    private final Queue<BotBrain.Intent> intents = new ConcurrentLinkedQueue<>();
+    private final ExecutorService brainPool;
+    private final int brainThreads;
+    private int generation = 0; // Bumped when the AI stops, so late intents from the last match are dropped
     private BukkitRunnable updateTask;
+    private long tickBudgetNanos = 2_000_000;
+    private long schedulerTick = 0;
+    private int nextBucket = 0;
     
-    private static final String[] BOT_NAMES = {
-        "Bot_Alpha", "Bot_Beta", "Bot_Charlie", "Bot_Delta", "Bot_Echo",
-        "Bot_Foxtrot", "Bot_Golf", "Bot_Hotel", "Bot_India", "Bot_Juliet"
-    };
+    private long thinks = 0;
+    private long deferrals = 0;
+    private double averageApplyNanos = 0;
+    private final AtomicLong brainThinks = new AtomicLong();
+    private final AtomicLong brainNanos = new AtomicLong();
+    private long lastTickNanos = 0;
+    private int maxQueueDepth = 0;
+    private long movementUpdates = 0;
+    private long coarseMoves = 0;
+    private long equipmentUpdates = 0;
+    private long statisticalExchanges = 0;
+    
+    // Level of detail
+    private boolean lodEnabled = true;
+    private double fullRangeSquared = 96 * 96;
+    private double reducedRangeSquared = 192 * 192;
+    private double[] viewerXs = new double[16];
+    private double[] viewerZs = new double[16];
+    private int viewerCount = 0;
+    private final Location scratch = new Location(null, 0, 0, 0);
+    
+    private static final int THINK_INTERVAL_TICKS = 5; // Each bot thinks about once per 1/4 second
+    private static final double THINK_COST_ALPHA = 0.2;
+    private static final int MAX_BRAIN_THREADS = 4;
+    private static final double ATTACK_REACH = 3.5;
+    private static final double DIRECT_RANGE = 8;
+    private static final int REPLAN_GOAL_SHIFT = 4;
+    private static final double WAYPOINT_REACHED_SQUARED = 1.0;
+    private static final float TURN_THRESHOLD_DEGREES = 10;
+    private static final double STUCK_PROGRESS = 0.25;
+    private static final int STUCK_THINKS = 4;
+    private static final double WALK_SPEED = 0.4;
+    private static final double JUMP_VELOCITY = 0.42;
+    private static final double HEADING_TOLERANCE = 0.97; // cos of about 15 degrees
+    private static final double WALK_BLOCKS_PER_TICK = 0.216;
+    private static final double STATISTICAL_HIT_CHANCE = 0.8;
+    private static final double STATISTICAL_SPREAD = 0.25;
     
     public BotManager(HungerGames plugin) {
         this.plugin = plugin;
         this.bots = new ConcurrentHashMap<>();
-        this.random = new Random();
+        this.pool = new BotPool(plugin);
+        this.brainThreads = Math.max(1, Math.min(MAX_BRAIN_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.brainPool = Executors.newFixedThreadPool(brainThreads, runnable -> {
+            Thread thread = new Thread(runnable, "HungerGames-BotBrain-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < THINK_INTERVAL_TICKS; i++) {
+            buckets.add(new ArrayList<>());
+        }
     }
     
-    public void addBot() {
-        String name = BOT_NAMES[bots.size() % BOT_NAMES.length];
-        UUID uuid = UUID.randomUUID();
-        
-        // Create NMS bot player
-        MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
-        ServerLevel level = ((CraftWorld) plugin.getGameWorld()).getHandle();
-        GameProfile profile = new GameProfile(uuid, name);
-        
-        // Add random skin
-        addRandomSkin(profile);
-        
-        ServerPlayer nmsPlayer = new ServerPlayer(server, level, profile);
-        Player botPlayer = nmsPlayer.getBukkitEntity();
-        
-        // Set initial location
-        Location spawn = plugin.getGameWorld().getSpawnLocation();
-        botPlayer.teleport(spawn);
-        
-        // Create bot instance
+    /**
+     * Sets how long bot AI may run per tick. Bots that don't fit are carried
+     * over to the next tick ahead of newly due bots.
+     */
+    public void setTickBudgetMicros(int micros) {
+        this.tickBudgetNanos = Math.max(100, micros) * 1000L;
+    }
+    
+    /**
+     * Configures level of detail. Bots within fullRange blocks of a real player
+     * get the full AI, bots within reducedRange think half as often, and bots
+     * beyond that a quarter as often. Outside full range, bots also move in
+     * hops and settle fights with each other statistically.
+     */
+    public void setLevelOfDetail(boolean enabled, int fullRange, int reducedRange) {
+        this.lodEnabled = enabled;
+        this.fullRangeSquared = (double) fullRange * fullRange;
+        this.reducedRangeSquared = (double) Math.max(fullRange, reducedRange) * Math.max(fullRange, reducedRange);
+    }
+    
+    /**
+     * Sets how many bots are kept for reuse after a match.
+     */
+    public void setPoolSize(int size) {
+        pool.setMaxIdle(size);
+    }
+    
+    public boolean addBot() {
+        return addBot(null);
+    }
+    
+    /**
+     * Adds a tribute bot to the game, playing the given bots.yml profile or
+     * the default one if that's null or unknown.
+     *
+     * @return false if this server version has no {@link BotAdapter}
+     */
+    public boolean addBot(String profile) {
+        MatchRandom matchRandom = plugin.getMatchRandom();
+        // Before a game the arena doesn't exist yet, so bots wait in the default world like players do
+        World world = plugin.getGameWorld() != null ? plugin.getGameWorld() : Bukkit.getWorlds().get(0);
+        Player botPlayer = pool.acquire(world, matchRandom.stream("bots"));
+        if (botPlayer == null) return false;
+        
+        String name = botPlayer.getName();
         BotPlayer bot = new BotPlayer(botPlayer);
-        bots.put(uuid, bot);
+        bot.random = matchRandom.stream("brains").split();
+        bot.tree = plugin.getBotBehaviors().getProfile(profile);
+        bots.put(botPlayer.getUniqueId(), bot);
+        
+        // Spread bots over the think interval so each tick gets a similar share
+        bot.bucket = nextBucket++ % THINK_INTERVAL_TICKS;
+        buckets.get(bot.bucket).add(bot);
         
         // Add to game
         plugin.addPlayer(botPlayer);
         
         // Broadcast join message
-        plugin.broadcast(ChatColor.YELLOW + name + " joined the game!");
+        plugin.broadcastFeed(ChatColor.YELLOW + name + " joined the game!");
+        return true;
     }
     
-    private void addRandomSkin(GameProfile profile) {
-        // Add a random steve/alex skin variant
+    /**
+     * A random steve/alex skin texture.
+     */
+    static String randomSkin(RandomGenerator random) {
         String[] textures = {
             "ewogICJ0aW1lc3RhbXAiIDogMTYxNzMyMjM3NjU4MywKICAicHJvZmlsZUlkIiA6ICIxNzU2NDNhNjUwNDg0YTQyOGI1ZTJiNjA4MzliZjNiMiIsCiAgInByb2ZpbGVOYW1lIiA6ICJTdGV2ZSIsCiAgInRleHR1cmVzIiA6IHsKICAgICJTS0lOIiA6IHsKICAgICAgInVybCIgOiAiaHR0cDovL3RleHR1cmVzLm1pbmVjcmFmdC5uZXQvdGV4dHVyZS8xYTRhZjcxODQ1NWQ0YWFiNTI4ZTdhNjFmODZmYTI1ZTZhMzY5ZDE3NjhkY2IxM2Y3ZGYzMTlhNzEzZWI4MTBiIgogICAgfQogIH0KfQ==",
             "ewogICJ0aW1lc3RhbXAiIDogMTYxNzMyMjM3NjU4MywKICAicHJvZmlsZUlkIiA6ICIxNzU2NDNhNjUwNDg0YTQyOGI1ZTJiNjA4MzliZjNiMiIsCiAgInByb2ZpbGVOYW1lIiA6ICJBbGV4IiwKICAidGV4dHVyZXMiIDogewogICAgIlNLSU4iIDogewogICAgICAidXJsIiA6ICJodHRwOi8vdGV4dHVyZXMubWluZWNyYWZ0Lm5ldC90ZXh0dXJlLzgzY2VlMjQyMmQyMjZiMWRkMmY2MzY4OTNiYWM3MWE5YTM4N2JmNzljMzgyY2VhZjY3YTQ5OWQ3MzJ"
         };
         
-        String texture = textures[random.nextInt(textures.length)];
-        profile.getProperties().put("textures", new Property("textures", texture));
+        return textures[random.nextInt(textures.length)];
+    }
+    
+    /**
+     * Moves bots that joined before the arena existed into it, so they can be
+     * teleported to their spawns like everyone else.
+     */
+    public void moveBotsTo(World world) {
+        BotAdapter adapter = plugin.getBotAdapter();
+        if (adapter == null) return;
+        
+        for (BotPlayer bot : bots.values()) {
+            Player player = bot.getPlayer();
+            if (!world.equals(player.getWorld())) {
+                adapter.rebind(player, world);
+            }
+        }
     }
     
     public void removeBot(UUID uuid) {
         BotPlayer bot = bots.remove(uuid);
         if (bot != null) {
+            buckets.get(bot.bucket).remove(bot);
+            runQueue.remove(bot);
             plugin.removePlayer(bot.getPlayer());
+            pool.release(bot.getPlayer());
         }
     }
     
@@ -93,187 +200,453 @@ public class BotManager {
             @Override
             public void run() {
                 if (plugin.getGameState() != GameState.ACTIVE) return;
-                
-                for (BotPlayer bot : bots.values()) {
-                    try {
-                        updateBot(bot);
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Error updating bot " + bot.getPlayer().getName() + ": " + e.getMessage());
-                    }
-                }
+                runScheduledBots();
             }
         };
         
-        updateTask.runTaskTimer(plugin, 0L, 5L); // Update every 1/4 second
+        updateTask.runTaskTimer(plugin, 0L, 1L);
     }
     
-    private void updateBot(BotPlayer bot) {
-        Player player = bot.getPlayer();
-        if (!player.isOnline() || player.isDead()) return;
-        
-        // Update state machine
-        switch (bot.getState()) {
-            case LOOTING:
-                updateLooting(bot);
-                break;
-            case FIGHTING:
-                updateFighting(bot);
-                break;
-            case EXPLORING:
-                updateExploring(bot);
-                break;
+    /**
+     * One scheduler tick. Intents the brain pool has finished are applied
+     * first, oldest first, as long as their measured cost still fits in the
+     * tick budget. The bots whose bucket is due then join the think queue
+     * behind any carried over from earlier ticks, and as many as the remaining
+     * budget allows are copied into views and handed to the pool against one
+     * arena snapshot. Whatever doesn't fit waits for the next tick; the first
+     * item of each half always goes through so neither can stall.
+     */
+    private void runScheduledBots() {
+        long start = System.nanoTime();
+        int deferred = applyIntents(start);
+        
+        List<BotPlayer> due = buckets.get((int) (schedulerTick++ % THINK_INTERVAL_TICKS));
+        if (!due.isEmpty()) {
+            collectViewers();
         }
-        
-        // Check for nearby players and switch to combat if needed
-        Player nearestPlayer = findNearestPlayer(player);
-        if (nearestPlayer != null && player.getLocation().distance(nearestPlayer.getLocation()) < 10) {
-            bot.setState(BotState.FIGHTING);
-            bot.setTarget(nearestPlayer);
+        for (BotPlayer bot : due) {
+            // The tier is re-checked every time the bucket comes round, so a bot is promoted within a few ticks
+            updateTier(bot);
+            if (bot.dueCount++ % bot.tier.interval != 0) continue;
+            
+            if (!bot.queued && !bot.thinking) {
+                bot.queued = true;
+                runQueue.addLast(bot);
+            }
         }
+        maxQueueDepth = Math.max(maxQueueDepth, runQueue.size());
+        submitThinks(start);
+        
+        deferrals += deferred + runQueue.size();
+        lastTickNanos = System.nanoTime() - start;
     }
     
-    private void updateLooting(BotPlayer bot) {
-        Player player = bot.getPlayer();
-        
-        // Simple looting behavior - look for nearby chests
-        Location target = findNearestChest(player);
-        if (target != null) {
-            moveTowards(player, target);
-        } else {
-            bot.setState(BotState.EXPLORING);
+    /**
+     * Applies finished intents until the budget runs out.
+     *
+     * @return how many intents were left for the next tick
+     */
+    private int applyIntents(long start) {
+        boolean first = true;
+        boolean budgeted = !plugin.getMatchRandom().isDeterministic();
+        BotBrain.Intent intent;
+        while ((intent = intents.peek()) != null) {
+            BotPlayer bot = intent.bot;
+            if (!first && budgeted && System.nanoTime() - start + bot.applyNanos > tickBudgetNanos) {
+                return intents.size();
+            }
+            intents.poll();
+            first = false;
+            
+            // Decided for a previous match, or for a bot that has since been removed
+            if (intent.generation != generation || bots.get(bot.getPlayer().getUniqueId()) != bot) continue;
+            bot.thinking = false;
+            
+            long applyStart = System.nanoTime();
+            try {
+                apply(bot, intent);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error updating bot " + bot.getPlayer().getName() + ": " + e.getMessage());
+            }
+            long cost = System.nanoTime() - applyStart;
+            bot.applyNanos = bot.applyNanos == 0 ? cost : (long) (bot.applyNanos + THINK_COST_ALPHA * (cost - bot.applyNanos));
+            averageApplyNanos = thinks == 0 ? cost : averageApplyNanos + THINK_COST_ALPHA * (cost - averageApplyNanos);
+            thinks++;
         }
+        return 0;
     }
     
-    private void updateFighting(BotPlayer bot) {
-        Player player = bot.getPlayer();
-        Player target = bot.getTarget();
+    private void submitThinks(long start) {
+        World world = plugin.getGameWorld();
+        if (runQueue.isEmpty() || world == null) return;
+        
+        ArenaSnapshot arena = ArenaSnapshot.capture(plugin, world);
+        boolean deterministic = plugin.getMatchRandom().isDeterministic();
+        List<BotBrain.View> batch = new ArrayList<>(runQueue.size());
+        while (!runQueue.isEmpty()) {
+            if (!batch.isEmpty() && !deterministic && System.nanoTime() - start > tickBudgetNanos) break;
+            
+            BotPlayer bot = runQueue.pollFirst();
+            bot.queued = false;
+            Player player = bot.getPlayer();
+            if (!player.isOnline() || player.isDead()) continue;
+            
+            batch.add(captureView(bot));
+            bot.thinking = true;
+        }
+        if (batch.isEmpty()) return;
         
-        if (target == null || !target.isOnline() || target.isDead() || 
-            plugin.getPlayerStates().get(target) == PlayerState.DEAD) {
-            bot.setState(BotState.EXPLORING);
+        if (deterministic) {
+            // Think right here, in queue order, so intents come back in the same order every run
+            think(batch, arena);
             return;
         }
         
-        // Combat behavior
-        double distance = player.getLocation().distance(target.getLocation());
-        
-        // Switch to best weapon
-        selectBestWeapon(player);
-        
-        if (distance > 15) {
-            // Too far, go back to exploring
-            bot.setState(BotState.EXPLORING);
-        } else if (distance > 3) {
-            // Chase target
-            moveTowards(player, target.getLocation());
-        } else {
-            // Attack
-            player.attack(target);
+        // One slice per brain thread; slices are contiguous so each worker walks its own range
+        int slices = Math.min(brainThreads, batch.size());
+        for (int i = 0; i < slices; i++) {
+            List<BotBrain.View> slice = batch.subList(i * batch.size() / slices, (i + 1) * batch.size() / slices);
+            try {
+                brainPool.execute(() -> think(slice, arena));
+            } catch (RejectedExecutionException e) {
+                for (BotBrain.View view : slice) {
+                    view.bot.thinking = false;
+                }
+            }
         }
     }
     
-    private void updateExploring(BotPlayer bot) {
+    /**
+     * Runs on a brain thread. Every view gets an intent back, even if its
+     * brain fails, so the bot is scheduled again.
+     */
+    private void think(List<BotBrain.View> views, ArenaSnapshot arena) {
+        for (BotBrain.View view : views) {
+            long thinkStart = System.nanoTime();
+            BotBrain.Intent intent;
+            try {
+                intent = BotBrain.think(view, arena, view.bot.random);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error thinking for bot " + view.bot.getPlayer().getName() + ": " + e.getMessage());
+                intent = new BotBrain.Intent(view);
+            }
+            brainNanos.addAndGet(System.nanoTime() - thinkStart);
+            brainThinks.incrementAndGet();
+            intents.add(intent);
+        }
+    }
+    
+    private BotBrain.View captureView(BotPlayer bot) {
         Player player = bot.getPlayer();
-        Location target = bot.getExploreTarget();
+        Location location = player.getLocation();
+        Location explore = bot.getExploreTarget();
+        return new BotBrain.View(bot, player, generation, location.getX(), location.getY(), location.getZ(),
+            bot.getState(), bot.getTarget(), explore != null ? explore.getX() : Double.NaN,
+            explore != null ? explore.getZ() : Double.NaN, Set.copyOf(bot.visitedChests), bot.tree);
+    }
+    
+    /**
+     * Carries out an intent. The snapshot it was decided on is a tick or two
+     * old, so anything that touches another player is checked again here.
+     */
+    private void apply(BotPlayer bot, BotBrain.Intent intent) {
+        Player player = bot.getPlayer();
+        if (!player.isOnline() || player.isDead()) return;
         
-        if (target == null || player.getLocation().distance(target) < 2) {
-            // Pick new random location within border
-            WorldBorder border = plugin.getGameWorld().getWorldBorder();
-            double size = border.getSize() / 2;
-            double x = random.nextDouble() * size * 2 - size;
-            double z = random.nextDouble() * size * 2 - size;
-            target = new Location(plugin.getGameWorld(), x, 
-                plugin.getGameWorld().getHighestBlockYAt((int)x, (int)z), z);
-            bot.setExploreTarget(target);
+        World world = player.getWorld();
+        bot.setState(intent.state);
+        bot.setTarget(intent.target);
+        if (intent.visitedChest != BotBrain.NO_CHEST && bot.visitedChests.add(intent.visitedChest)) {
+            lootChest(bot, world, intent.visitedChest);
+        }
+        if (intent.newExplore) {
+            bot.setExploreTarget(new Location(world, intent.exploreX, 
+                world.getHighestBlockYAt((int) intent.exploreX, (int) intent.exploreZ), intent.exploreZ));
+        }
+        if (bot.equipment.isDirty()) {
+            bot.equipment.update(player);
+            equipmentUpdates++;
         }
         
-        moveTowards(player, target);
+        Player target = intent.target;
+        switch (intent.move) {
+            case CHEST:
+                moveTowards(bot, new Location(world, ChestIndex.unpackX(intent.chest) + 0.5, 
+                    ChestIndex.unpackY(intent.chest), ChestIndex.unpackZ(intent.chest) + 0.5));
+                break;
+            case TARGET:
+                if (target != null && target.isOnline() && target.getWorld() == world) {
+                    moveTowards(bot, target.getLocation());
+                }
+                break;
+            case EXPLORE:
+                if (bot.getExploreTarget() != null) {
+                    moveTowards(bot, bot.getExploreTarget());
+                }
+                break;
+            default:
+                break;
+        }
         
-        // Occasionally switch to looting
-        if (random.nextInt(100) < 5) {
-            bot.setState(BotState.LOOTING);
+        if (intent.attack && target != null && target.isOnline() && !target.isDead() && target.getWorld() == world &&
+            target.getLocation().distanceSquared(player.getLocation()) <= ATTACK_REACH * ATTACK_REACH) {
+            BotPlayer targetBot = bots.get(target.getUniqueId());
+            if (bot.tier != LodTier.FULL && targetBot != null && targetBot.tier != LodTier.FULL) {
+                resolveExchange(bot);
+            } else {
+                player.attack(target);
+            }
         }
     }
     
-    private Player findNearestPlayer(Player bot) {
-        Player nearest = null;
-        double minDistance = Double.MAX_VALUE;
-        
-        for (Player player : plugin.getAlivePlayers()) {
-            if (player.equals(bot) || plugin.getPlayerStates().get(player) != PlayerState.ALIVE) continue;
+    /**
+     * Bot-on-bot combat out of sight. One think stands in for every swing
+     * until the next, so the target takes the damage those swings would have
+     * done on average, from the attacker's real attack damage and speed, with
+     * some spread. Armour and death still go through the normal damage path.
+     */
+    private void resolveExchange(BotPlayer bot) {
+        Player attacker = bot.getPlayer();
+        double damage = attributeValue(attacker, Attribute.GENERIC_ATTACK_DAMAGE, 1);
+        double swingsPerSecond = attributeValue(attacker, Attribute.GENERIC_ATTACK_SPEED, 4);
+        double seconds = THINK_INTERVAL_TICKS * bot.tier.interval / 20.0;
+        double expected = damage * swingsPerSecond * seconds * STATISTICAL_HIT_CHANCE;
+        double dealt = Math.max(0, expected * (1 + plugin.getMatchRandom().stream("exchanges").nextGaussian() * STATISTICAL_SPREAD));
+        bot.getTarget().damage(dealt, attacker);
+        statisticalExchanges++;
+    }
+    
+    private static double attributeValue(Player player, Attribute attribute, double fallback) {
+        AttributeInstance instance = player.getAttribute(attribute);
+        return instance != null ? instance.getValue() : fallback;
+    }
+    
+    /**
+     * Walks a bot towards a target. Beyond {@link #DIRECT_RANGE} the bot follows
+     * an A* path, asking for a new one only when the goal moves or the bot gets
+     * stuck; up close, or while no path is available, it heads straight there.
+     */
+    private void moveTowards(BotPlayer bot, Location target) {
+        Player player = bot.getPlayer();
+        Location location = player.getLocation();
+        double nextX = target.getX();
+        double nextY = target.getY();
+        double nextZ = target.getZ();
+        boolean far = horizontalDistanceSquared(location, nextX, nextZ) > DIRECT_RANGE * DIRECT_RANGE;
+        
+        if (far) {
+            int goalShift = Math.max(Math.abs(target.getBlockX() - bot.goalX), Math.abs(target.getBlockZ() - bot.goalZ));
+            if (!bot.pathPending && (bot.replan || goalShift > REPLAN_GOAL_SHIFT)) {
+                requestPath(bot, location, target);
+            }
             
-            double distance = bot.getLocation().distance(player.getLocation());
-            if (distance < minDistance) {
-                minDistance = distance;
-                nearest = player;
+            Pathfinder.Path path = bot.path;
+            if (path != null) {
+                while (bot.waypoint < path.size() && horizontalDistanceSquared(location, 
+                    path.getX(bot.waypoint) + 0.5, path.getZ(bot.waypoint) + 0.5) < WAYPOINT_REACHED_SQUARED) {
+                    bot.waypoint++;
+                }
+                if (bot.waypoint < path.size()) {
+                    nextX = path.getX(bot.waypoint) + 0.5;
+                    nextY = path.getY(bot.waypoint);
+                    nextZ = path.getZ(bot.waypoint) + 0.5;
+                }
             }
         }
         
-        return nearest;
+        if (bot.tier != LodTier.FULL) {
+            hop(bot, location, target, far ? bot.path : null);
+            return;
+        }
+        steer(bot, location, nextX, nextY, nextZ);
     }
     
-    private Location findNearestChest(Player player) {
-        Location nearest = null;
-        double minDistance = Double.MAX_VALUE;
-        
-        for (int x = -10; x <= 10; x++) {
-            for (int y = -10; y <= 10; y++) {
-                for (int z = -10; z <= 10; z++) {
-                    Location loc = player.getLocation().add(x, y, z);
-                    if (loc.getBlock().getType() == Material.CHEST) {
-                        double distance = player.getLocation().distance(loc);
-                        if (distance < minDistance) {
-                            minDistance = distance;
-                            nearest = loc;
-                        }
-                    }
-                }
+    /**
+     * Coarse movement for bots nobody can see: rather than being pushed every
+     * think, the bot is placed where it would have walked to by its next think,
+     * following its path's waypoints when it has one.
+     */
+    private void hop(BotPlayer bot, Location location, Location target, Pathfinder.Path path) {
+        double budget = WALK_BLOCKS_PER_TICK * THINK_INTERVAL_TICKS * bot.tier.interval;
+        double x = location.getX();
+        double z = location.getZ();
+        while (budget > 0) {
+            boolean onPath = path != null && bot.waypoint < path.size();
+            double nextX = onPath ? path.getX(bot.waypoint) + 0.5 : target.getX();
+            double nextZ = onPath ? path.getZ(bot.waypoint) + 0.5 : target.getZ();
+            double dx = nextX - x;
+            double dz = nextZ - z;
+            double distance = Math.sqrt(dx * dx + dz * dz);
+            if (distance > budget) {
+                x += dx / distance * budget;
+                z += dz / distance * budget;
+                break;
             }
+            x = nextX;
+            z = nextZ;
+            budget -= distance;
+            if (!onPath) break;
+            bot.waypoint++;
         }
         
-        return nearest;
+        double dx = x - location.getX();
+        double dz = z - location.getZ();
+        if (dx * dx + dz * dz < 0.01) return;
+        
+        World world = location.getWorld();
+        float yaw = (float) Math.toDegrees(Math.atan2(-dx, dz));
+        int y = world.getHighestBlockYAt((int) Math.floor(x), (int) Math.floor(z)) + 1;
+        bot.getPlayer().teleport(new Location(world, x, y, z, yaw, 0));
+        bot.lastYaw = yaw;
+        coarseMoves++;
     }
     
-    private void moveTowards(Player player, Location target) {
-        Location loc = player.getLocation();
-        Vector direction = target.toVector().subtract(loc.toVector()).normalize();
+    private void collectViewers() {
+        viewerCount = 0;
+        World world = plugin.getGameWorld();
+        if (world == null) return;
+        
+        for (Player player : world.getPlayers()) {
+            if (bots.containsKey(player.getUniqueId())) continue;
+            if (viewerCount == viewerXs.length) {
+                viewerXs = Arrays.copyOf(viewerXs, viewerCount * 2);
+                viewerZs = Arrays.copyOf(viewerZs, viewerCount * 2);
+            }
+            player.getLocation(scratch);
+            viewerXs[viewerCount] = scratch.getX();
+            viewerZs[viewerCount] = scratch.getZ();
+            viewerCount++;
+        }
+    }
+    
+    private void updateTier(BotPlayer bot) {
+        if (!lodEnabled) {
+            bot.tier = LodTier.FULL;
+            return;
+        }
         
-        // Look at target
-        loc.setDirection(direction);
-        player.teleport(loc);
+        bot.getPlayer().getLocation(scratch);
+        double nearest = Double.MAX_VALUE;
+        for (int i = 0; i < viewerCount; i++) {
+            double dx = viewerXs[i] - scratch.getX();
+            double dz = viewerZs[i] - scratch.getZ();
+            nearest = Math.min(nearest, dx * dx + dz * dz);
+        }
         
-        // Move towards target
-        player.setVelocity(direction.multiply(0.4));
+        LodTier tier = nearest <= fullRangeSquared ? LodTier.FULL : 
+            nearest <= reducedRangeSquared ? LodTier.REDUCED : LodTier.DISTANT;
+        if (tier != bot.tier) {
+            if (tier == LodTier.FULL) {
+                // Back in view: steer on from wherever the hops left off
+                bot.stuckThinks = 0;
+                bot.steerDistance = Double.MAX_VALUE;
+            }
+            bot.tier = tier;
+        }
     }
     
-    private void selectBestWeapon(Player player) {
-        ItemStack bestWeapon = null;
-        double bestDamage = 0;
+    private void requestPath(BotPlayer bot, Location from, Location target) {
+        bot.pathPending = true;
+        bot.replan = false;
+        bot.goalX = target.getBlockX();
+        bot.goalZ = target.getBlockZ();
+        plugin.getPathfinder().findPath(from.getWorld(), from, target, path -> {
+            bot.pathPending = false;
+            bot.path = path;
+            bot.waypoint = 0;
+            bot.stuckThinks = 0;
+        });
+    }
+    
+    /**
+     * Points the bot at a spot and pushes it there. Rotation is only sent when
+     * the heading turns noticeably, and velocity only when the bot has slowed
+     * down, needs a new heading or has to jump.
+     */
+    private void steer(BotPlayer bot, Location location, double x, double y, double z) {
+        Player player = bot.getPlayer();
+        double dx = x - location.getX();
+        double dz = z - location.getZ();
+        double length = Math.sqrt(dx * dx + dz * dz);
+        if (length < 0.01) return;
+        dx /= length;
+        dz /= length;
+        
+        float yaw = (float) Math.toDegrees(Math.atan2(-dx, dz));
+        float turn = ((yaw - bot.lastYaw) % 360 + 540) % 360 - 180;
+        if (Float.isNaN(bot.lastYaw) || Math.abs(turn) > TURN_THRESHOLD_DEGREES) {
+            player.setRotation(yaw, 0);
+            bot.lastYaw = yaw;
+        }
         
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item == null) continue;
-            
-            double damage = getWeaponDamage(item);
-            if (damage > bestDamage) {
-                bestDamage = damage;
-                bestWeapon = item;
-            }
+        // A bot that keeps heading for the same waypoint without closing in is blocked
+        if (x != bot.steerX || z != bot.steerZ) {
+            bot.steerX = x;
+            bot.steerZ = z;
+            bot.stuckThinks = 0;
+        } else if (bot.steerDistance - length < STUCK_PROGRESS) {
+            bot.stuckThinks++;
+        } else {
+            bot.stuckThinks = 0;
         }
+        bot.steerDistance = length;
         
-        if (bestWeapon != null) {
-            player.getInventory().setItemInMainHand(bestWeapon);
+        if (bot.path != null && bot.stuckThinks >= STUCK_THINKS) {
+            plugin.getPathfinder().evict(bot.path);
+            bot.path = null;
+            bot.replan = true;
+            bot.stuckThinks = 0;
         }
+        
+        Vector velocity = player.getVelocity();
+        boolean jump = player.isOnGround() && (y > location.getY() + 0.5 || bot.stuckThinks >= 2);
+        double speed = Math.sqrt(velocity.getX() * velocity.getX() + velocity.getZ() * velocity.getZ());
+        boolean onHeading = speed > 0 && (velocity.getX() * dx + velocity.getZ() * dz) / speed > HEADING_TOLERANCE;
+        if (!jump && speed >= WALK_SPEED * 0.5 && onHeading) return;
+        
+        player.setVelocity(new Vector(dx * WALK_SPEED, jump ? JUMP_VELOCITY : velocity.getY(), dz * WALK_SPEED));
+        movementUpdates++;
     }
     
-    private double getWeaponDamage(ItemStack item) {
-        switch (item.getType()) {
-            case DIAMOND_SWORD: return 7;
-            case IRON_SWORD: return 6;
-            case STONE_SWORD: return 5;
-            case WOODEN_SWORD: return 4;
-            case BOW: return 6;
-            default: return 1;
+    private static double horizontalDistanceSquared(Location location, double x, double z) {
+        double dx = x - location.getX();
+        double dz = z - location.getZ();
+        return dx * dx + dz * dz;
+    }
+    
+    /**
+     * Empties a chest the bot has reached into its inventory, leaving behind
+     * whatever doesn't fit.
+     */
+    private void lootChest(BotPlayer bot, World world, long chest) {
+        Block block = world.getBlockAt(ChestIndex.unpackX(chest), ChestIndex.unpackY(chest), ChestIndex.unpackZ(chest));
+        if (block.getType() != Material.CHEST) return;
+        
+        Inventory contents = ((Chest) block.getState()).getBlockInventory();
+        PlayerInventory inventory = bot.getPlayer().getInventory();
+        for (int i = 0; i < contents.getSize(); i++) {
+            ItemStack item = contents.getItem(i);
+            if (item == null) continue;
+            
+            Map<Integer, ItemStack> leftover = inventory.addItem(item);
+            contents.setItem(i, leftover.isEmpty() ? null : leftover.get(0));
         }
+        bot.equipment.markDirty();
+    }
+    
+    /**
+     * Flags a bot's equipment for a re-check on its next think. Call whenever a
+     * bot's inventory changes outside the AI. Does nothing for real players.
+     */
+    public void markEquipmentDirty(Player player) {
+        BotPlayer bot = bots.get(player.getUniqueId());
+        if (bot != null) {
+            bot.equipment.markDirty();
+        }
+    }
+    
+    public Set<UUID> getBotIds() {
+        return bots.keySet();
     }
     
     public void stopBotAI() {
@@ -281,6 +654,90 @@ public class BotManager {
             updateTask.cancel();
             updateTask = null;
         }
+        generation++;
+        for (BotPlayer bot : bots.values()) {
+            bot.queued = false;
+            bot.thinking = false;
+        }
+        runQueue.clear();
+        intents.clear();
+    }
+    
+    public void shutdown() {
+        stopBotAI();
+        brainPool.shutdownNow();
+    }
+    
+    public long getThinks() {
+        return thinks;
+    }
+    
+    public long getDeferrals() {
+        return deferrals;
+    }
+    
+    public double getAverageApplyMicros() {
+        return averageApplyNanos / 1000.0;
+    }
+    
+    public double getAverageBrainMicros() {
+        long count = brainThinks.get();
+        return count == 0 ? 0 : brainNanos.get() / (double) count / 1000.0;
+    }
+    
+    public int getBrainThreads() {
+        return brainThreads;
+    }
+    
+    public double getLastTickMicros() {
+        return lastTickNanos / 1000.0;
+    }
+    
+    public double getTickBudgetMicros() {
+        return tickBudgetNanos / 1000.0;
+    }
+    
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+    
+    public long getMovementUpdates() {
+        return movementUpdates;
+    }
+    
+    public int getPooledBots() {
+        return pool.getIdle();
+    }
+    
+    public long getBotsCreated() {
+        return pool.getCreated();
+    }
+    
+    public long getBotsReused() {
+        return pool.getReused();
+    }
+    
+    public long getEquipmentUpdates() {
+        return equipmentUpdates;
+    }
+    
+    public long getCoarseMoves() {
+        return coarseMoves;
+    }
+    
+    public long getStatisticalExchanges() {
+        return statisticalExchanges;
+    }
+    
+    /**
+     * Number of bots currently in each tier, indexed by {@link LodTier#ordinal()}.
+     */
+    public int[] getTierCounts() {
+        int[] counts = new int[LodTier.values().length];
+        for (BotPlayer bot : bots.values()) {
+            counts[bot.tier.ordinal()]++;
+        }
+        return counts;
     }
     
     public void clearBots() {
@@ -290,11 +747,34 @@ public class BotManager {
         bots.clear();
     }
     
-    private static class BotPlayer {
+    static class BotPlayer {
         private final Player player;
         private BotState state;
         private Player target;
         private Location exploreTarget;
+        private int bucket;
+        private boolean queued;
+        private volatile boolean thinking; // Handed to the brain pool, intent not applied yet
+        private long applyNanos; // Smoothed main-thread cost of one intent, used to decide whether it fits this tick
+        private final Set<Long> visitedChests = new HashSet<>();
+        private final BotEquipment equipment = new BotEquipment();
+        private BehaviorTree tree; // Null if bots.yml hadn't loaded, which leaves the bot idle
+        private RandomGenerator random; // The bot's own brain stream, so its choices don't depend on which thread thinks
+        
+        // Path following
+        private Pathfinder.Path path;
+        private int waypoint;
+        private boolean pathPending;
+        private boolean replan;
+        private int goalX = Integer.MIN_VALUE;
+        private int goalZ = Integer.MIN_VALUE;
+        private double steerX, steerZ, steerDistance;
+        private int stuckThinks;
+        private float lastYaw = Float.NaN;
+        
+        // Level of detail
+        private LodTier tier = LodTier.FULL;
+        private int dueCount;
         
         public BotPlayer(Player player) {
             this.player = player;
@@ -330,7 +810,19 @@ public class BotManager {
         }
     }
     
-    private enum BotState {
+    enum LodTier {
+        FULL(1),     // Within sight of a real player
+        REDUCED(2),  // Just out of sight
+        DISTANT(4);  // Far from everyone
+        
+        final int interval; // Thinks once every this many times its bucket comes round
+        
+        LodTier(int interval) {
+            this.interval = interval;
+        }
+    }
+    
+    enum BotState {
         LOOTING,
         FIGHTING,
         EXPLORING
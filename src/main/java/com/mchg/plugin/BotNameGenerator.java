@@ -0,0 +1,43 @@
+package com.mchg.plugin;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unique names for tribute bots, made from word pairs so there are a few
+ * hundred before any need a number. A name stays taken until it's released,
+ * and every name fits Minecraft's 16 character limit.
+ */
+class BotNameGenerator {
+    private static final String PREFIX = "Bot_";
+    private static final String[] FIRST = {
+        "Swift", "Quiet", "Brave", "Sly", "Iron", "Wild", "Lucky", "Grim",
+        "Bold", "Sharp", "Dusk", "Frost", "Ember", "Stone", "Storm", "Ash",
+        "Red", "Pale", "Dark", "Gold", "Rusty", "Misty", "Noble", "Rapid"
+    };
+    private static final String[] SECOND = {
+        "Fox", "Wolf", "Hawk", "Bear", "Viper", "Lynx", "Raven", "Otter",
+        "Stag", "Boar", "Crow", "Moth", "Pike", "Wren", "Hound", "Eagle",
+        "Adder", "Mole", "Finch", "Heron"
+    };
+    private static final int ATTEMPTS = 8;
+    
+    private final Set<String> taken = new HashSet<>();
+    
+    String next(RandomGenerator random) {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            String name = PREFIX + FIRST[random.nextInt(FIRST.length)] + SECOND[random.nextInt(SECOND.length)];
+            if (taken.add(name)) return name;
+        }
+        // Most pairs are taken; number the rest instead of searching
+        for (int number = 1; ; number++) {
+            String name = PREFIX + number;
+            if (taken.add(name)) return name;
+        }
+    }
+    
+    void release(String name) {
+        taken.remove(name);
+    }
+}
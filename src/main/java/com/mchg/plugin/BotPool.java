@@ -0,0 +1,115 @@
+package com.mchg.plugin;
+
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tribute bot players kept between matches. A new bot means a new server
+ * player, profile and skin property; a pooled one only has its state wiped
+ * and is moved into the new arena world. Deterministic matches don't pool:
+ * a reused bot keeps the id and name drawn in an earlier match, so the run
+ * would depend on what was played before it.
+ */
+class BotPool {
+    private final HungerGames plugin;
+    private final BotNameGenerator names = new BotNameGenerator();
+    private final ArrayDeque<Player> idle = new ArrayDeque<>();
+    private int maxIdle = 64;
+    
+    private long created = 0;
+    private long reused = 0;
+    
+    BotPool(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Caps how many released bots are kept. Bots released beyond it are let
+     * go, and their names freed.
+     */
+    void setMaxIdle(int maxIdle) {
+        this.maxIdle = Math.max(0, maxIdle);
+        trimIdle(this.maxIdle);
+    }
+    
+    private void trimIdle(int keep) {
+        while (idle.size() > keep) {
+            names.release(idle.pollLast().getName());
+        }
+    }
+    
+    /**
+     * A bot standing at the world's spawn with a fresh state, reused if one
+     * is idle. A new bot's id, name and skin are drawn from the given
+     * generator. Null if this server version has no {@link BotAdapter}, or
+     * there is no world to put the bot in.
+     */
+    Player acquire(World world, RandomGenerator random) {
+        BotAdapter adapter = plugin.getBotAdapter();
+        if (adapter == null || world == null) return null;
+        
+        if (plugin.getMatchRandom().isDeterministic()) {
+            // Idle bots still hold their names, which would change the names drawn below
+            trimIdle(0);
+        }
+        Player player = idle.pollFirst();
+        if (player != null) {
+            adapter.rebind(player, world);
+            reset(player);
+            reused++;
+        } else {
+            // A version 4 id, but from the match's random streams so seeded runs get the same ones
+            UUID uuid = new UUID((random.nextLong() & ~0xF000L) | 0x4000L, (random.nextLong() & ~(3L << 62)) | (2L << 62));
+            player = adapter.createPlayer(world, uuid, names.next(random), BotManager.randomSkin(random));
+            created++;
+        }
+        player.teleport(world.getSpawnLocation());
+        return player;
+    }
+    
+    void release(Player player) {
+        if (idle.size() < maxIdle && !plugin.getMatchRandom().isDeterministic()) {
+            idle.addLast(player);
+        } else {
+            names.release(player.getName());
+        }
+    }
+    
+    private void reset(Player player) {
+        player.getInventory().clear();
+        for (PotionEffect effect : player.getActivePotionEffects()) {
+            player.removePotionEffect(effect.getType());
+        }
+        AttributeInstance maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        player.setHealth(maxHealth != null ? maxHealth.getValue() : 20);
+        player.setFoodLevel(20);
+        player.setSaturation(5);
+        player.setFireTicks(0);
+        player.setFallDistance(0);
+        player.setVelocity(new Vector());
+        player.setLevel(0);
+        player.setExp(0);
+        player.setGameMode(GameMode.SURVIVAL);
+    }
+    
+    int getIdle() {
+        return idle.size();
+    }
+    
+    long getCreated() {
+        return created;
+    }
+    
+    long getReused() {
+        return reused;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mchg.plugin;
+
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the loot chests in the arena, so nothing has to scan blocks to
+ * find one. Positions are packed into longs, and the array is replaced rather
+ * than changed, so whatever {@link #positions()} returned can be read from any
+ * thread.
+ */
+public class ChestIndex {
+    private volatile long[] positions = new long[0];
+    
+    public void add(Block block) {
+        long position = pack(block.getX(), block.getY(), block.getZ());
+        for (long existing : positions) {
+            if (existing == position) return;
+        }
+        long[] grown = Arrays.copyOf(positions, positions.length + 1);
+        grown[positions.length] = position;
+        positions = grown;
+    }
+    
+    public void remove(Block block) {
+        long position = pack(block.getX(), block.getY(), block.getZ());
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == position) {
+                long[] shrunk = new long[positions.length - 1];
+                System.arraycopy(positions, 0, shrunk, 0, i);
+                System.arraycopy(positions, i + 1, shrunk, i, positions.length - i - 1);
+                positions = shrunk;
+                return;
+            }
+        }
+    }
+    
+    public void clear() {
+        positions = new long[0];
+    }
+    
+    /**
+     * Current chest positions. The array is replaced, never changed, when the
+     * index changes.
+     */
+    public long[] positions() {
+        return positions;
+    }
+    
+    public int size() {
+        return positions.length;
+    }
+    
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+    
+    static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+    
+    static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+    
+    static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+}
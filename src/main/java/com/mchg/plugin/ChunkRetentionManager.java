@@ -0,0 +1,213 @@
+package com.mchg.plugin;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the arena loaded only where the match can still happen. Plugin chunk
+ * tickets cover the square inside the border plus a margin: at game start
+ * they pregenerate exactly that area, and while the border timeline is
+ * shrinking, chunks the border has passed lose their tickets and any other
+ * hold the plugin put on them. Both loading and releasing are spread over
+ * ticks with a per-tick chunk budget, so a phase change never loads or
+ * unloads the whole ring at once.
+ */
+public class ChunkRetentionManager {
+    private static final int RESCAN_TICKS = 20;
+    private static final int SWEEP_TICKS = 100; // Catches chunks loaded by anything but our tickets
+    
+    private final HungerGames plugin;
+    private final Set<Long> ticketed = new HashSet<>();
+    private final Set<Long> queued = new HashSet<>();
+    private final ArrayDeque<Long> loadQueue = new ArrayDeque<>();
+    private final ArrayDeque<Long> releaseQueue = new ArrayDeque<>();
+    private int marginBlocks = 32;
+    private int chunksPerTick = 16;
+    
+    private World world;
+    private boolean dirty = false;
+    private long ticks = 0;
+    // Chunk square currently kept, inclusive
+    private int minX, minZ, maxX, maxZ;
+    
+    private long chunksLoaded = 0;
+    private long chunksReleased = 0;
+    
+    public ChunkRetentionManager(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    public void setLimits(int marginBlocks, int chunksPerTick) {
+        this.marginBlocks = Math.max(0, marginBlocks);
+        this.chunksPerTick = Math.max(1, chunksPerTick);
+    }
+    
+    /**
+     * Starts retaining the arena around its starting border. Call once the
+     * border has its starting size.
+     */
+    public void start(World world) {
+        stop();
+        this.world = world;
+        this.dirty = true;
+    }
+    
+    /**
+     * Rescans while the border is moving, then loads and releases up to the
+     * chunk budget. Called once per tick.
+     */
+    public void tick() {
+        if (world == null) return;
+        
+        try {
+            ticks++;
+            BorderTimeline.Type phase = plugin.getBorderTimeline().getCurrentType();
+            boolean moving = phase == BorderTimeline.Type.SHRINK || phase == BorderTimeline.Type.DEATHMATCH;
+            if (dirty || (moving && ticks % RESCAN_TICKS == 0)) {
+                rescan();
+            }
+            if (moving && ticks % SWEEP_TICKS == 0) {
+                sweep();
+            }
+            
+            int budget = chunksPerTick;
+            while (budget > 0 && !releaseQueue.isEmpty()) {
+                long key = releaseQueue.poll();
+                queued.remove(key);
+                int x = (int) (key >> 32);
+                int z = (int) key;
+                if (contains(x, z)) continue;
+                
+                if (ticketed.remove(key)) {
+                    world.removePluginChunkTicket(x, z, plugin);
+                }
+                // Drops the hold loadChunk leaves behind; chunks near a player stay until they leave
+                if (world.isChunkLoaded(x, z)) {
+                    world.unloadChunkRequest(x, z);
+                }
+                chunksReleased++;
+                budget--;
+            }
+            while (budget > 0 && !loadQueue.isEmpty()) {
+                long key = loadQueue.poll();
+                int x = (int) (key >> 32);
+                int z = (int) key;
+                if (!contains(x, z) || !ticketed.add(key)) continue;
+                
+                world.addPluginChunkTicket(x, z, plugin);
+                chunksLoaded++;
+                budget--;
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to update arena chunks: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Releases every ticket and forgets the world.
+     */
+    public void stop() {
+        if (world != null) {
+            try {
+                world.removePluginChunkTickets(plugin);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to release arena chunks: " + e.getMessage());
+            }
+        }
+        world = null;
+        ticketed.clear();
+        queued.clear();
+        loadQueue.clear();
+        releaseQueue.clear();
+        dirty = false;
+        ticks = 0;
+    }
+    
+    private void rescan() {
+        boolean first = dirty;
+        dirty = false;
+        WorldBorder border = world.getWorldBorder();
+        Location center = border.getCenter();
+        double reach = border.getSize() / 2 + marginBlocks;
+        int newMinX = (int) Math.floor(center.getX() - reach) >> 4;
+        int newMinZ = (int) Math.floor(center.getZ() - reach) >> 4;
+        int newMaxX = (int) Math.floor(center.getX() + reach) >> 4;
+        int newMaxZ = (int) Math.floor(center.getZ() + reach) >> 4;
+        if (!first && newMinX == minX && newMinZ == minZ && newMaxX == maxX && newMaxZ == maxZ) return;
+        
+        minX = newMinX;
+        minZ = newMinZ;
+        maxX = newMaxX;
+        maxZ = newMaxZ;
+        
+        for (long key : ticketed) {
+            if (!contains((int) (key >> 32), (int) key)) {
+                queueRelease(key);
+            }
+        }
+        
+        if (first) {
+            // Pregenerate from the centre outwards so spawns and the cornucopia come first
+            int centerX = (int) Math.floor(center.getX()) >> 4;
+            int centerZ = (int) Math.floor(center.getZ()) >> 4;
+            List<Long> keys = new ArrayList<>();
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    keys.add(chunkKey(x, z));
+                }
+            }
+            keys.sort((a, b) -> Integer.compare(ring(a, centerX, centerZ), ring(b, centerX, centerZ)));
+            loadQueue.addAll(keys);
+        }
+    }
+    
+    private void sweep() {
+        for (Chunk chunk : world.getLoadedChunks()) {
+            if (!contains(chunk.getX(), chunk.getZ())) {
+                queueRelease(chunkKey(chunk.getX(), chunk.getZ()));
+            }
+        }
+    }
+    
+    private void queueRelease(long key) {
+        if (queued.add(key)) {
+            releaseQueue.add(key);
+        }
+    }
+    
+    private boolean contains(int x, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+    }
+    
+    private static int ring(long key, int centerX, int centerZ) {
+        return Math.max(Math.abs((int) (key >> 32) - centerX), Math.abs((int) key - centerZ));
+    }
+    
+    private static long chunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+    
+    public int getTicketCount() {
+        return ticketed.size();
+    }
+    
+    public int getPendingCount() {
+        return loadQueue.size() + releaseQueue.size();
+    }
+    
+    public long getChunksLoaded() {
+        return chunksLoaded;
+    }
+    
+    public long getChunksReleased() {
+        return chunksReleased;
+    }
+}
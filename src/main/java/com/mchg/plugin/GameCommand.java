@@ -1,11 +1,18 @@
 package com.mchg.plugin;
 
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class GameCommand implements CommandExecutor {
     private final HungerGames plugin;
     
@@ -91,7 +98,14 @@ public class GameCommand implements CommandExecutor {
                     player.sendMessage(ChatColor.RED + "You don't have permission to add bots!");
                     return true;
                 }
-                plugin.getBotManager().addBot();
+                if (args.length >= 2 && !plugin.getBotBehaviors().hasProfile(args[1])) {
+                    player.sendMessage(ChatColor.RED + "Unknown bot profile! Profiles: " + 
+                        String.join(", ", plugin.getBotBehaviors().getProfileNames()));
+                    return true;
+                }
+                if (!plugin.getBotManager().addBot(args.length >= 2 ? args[1] : null)) {
+                    player.sendMessage(ChatColor.RED + "Bots aren't supported on this server version!");
+                }
                 break;
             case "addbots":
                 if (!player.hasPermission("hungergames.admin")) {
@@ -99,17 +113,26 @@ public class GameCommand implements CommandExecutor {
                     return true;
                 }
                 if (args.length < 2) {
-                    player.sendMessage(ChatColor.RED + "Usage: /hg addbots <count>");
+                    player.sendMessage(ChatColor.RED + "Usage: /hg addbots <count> [profile]");
+                    return true;
+                }
+                if (args.length >= 3 && !plugin.getBotBehaviors().hasProfile(args[2])) {
+                    player.sendMessage(ChatColor.RED + "Unknown bot profile! Profiles: " + 
+                        String.join(", ", plugin.getBotBehaviors().getProfileNames()));
                     return true;
                 }
                 try {
                     int count = Integer.parseInt(args[1]);
-                    if (count < 1 || count > 23) {
-                        player.sendMessage(ChatColor.RED + "Bot count must be between 1 and 23!");
+                    int maxBots = plugin.getGameManager().getMaxPlayersPerGame() - 1;
+                    if (count < 1 || count > maxBots) {
+                        player.sendMessage(ChatColor.RED + "Bot count must be between 1 and " + maxBots + "!");
                         return true;
                     }
                     for (int i = 0; i < count; i++) {
-                        plugin.getBotManager().addBot();
+                        if (!plugin.getBotManager().addBot(args.length >= 3 ? args[2] : null)) {
+                            player.sendMessage(ChatColor.RED + "Bots aren't supported on this server version!");
+                            break;
+                        }
                     }
                 } catch (NumberFormatException e) {
                     player.sendMessage(ChatColor.RED + "Invalid number format!");
@@ -123,6 +146,107 @@ public class GameCommand implements CommandExecutor {
                 plugin.getBotManager().clearBots();
                 player.sendMessage(ChatColor.GREEN + "All bots have been removed!");
                 break;
+            case "practice":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to add bots!");
+                    return true;
+                }
+                if (args.length < 2) {
+                    player.sendMessage(ChatColor.RED + "Usage: /hg practice <count|clear>");
+                    return true;
+                }
+                if (args[1].equalsIgnoreCase("clear")) {
+                    plugin.getPracticeBotManager().clear();
+                    player.sendMessage(ChatColor.GREEN + "All practice bots have been removed!");
+                    return true;
+                }
+                if (plugin.getBotAdapter() == null) {
+                    player.sendMessage(ChatColor.RED + "Bots aren't supported on this server version!");
+                    return true;
+                }
+                try {
+                    int count = Integer.parseInt(args[1]);
+                    if (count < 1) {
+                        player.sendMessage(ChatColor.RED + "Bot count must be at least 1!");
+                        return true;
+                    }
+                    int spawned = plugin.getPracticeBotManager().spawn(player.getLocation(), count);
+                    player.sendMessage(ChatColor.GREEN + "Spawned " + spawned + " practice bots" + 
+                        (spawned < count ? " (limit of " + plugin.getPracticeBotManager().getMaxBots() + " reached)" : "") + "!");
+                } catch (NumberFormatException e) {
+                    player.sendMessage(ChatColor.RED + "Invalid number format!");
+                }
+                break;
+            case "replay":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to watch replays!");
+                    return true;
+                }
+                handleReplay(player, args);
+                break;
+            case "history":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to view match history!");
+                    return true;
+                }
+                int days = 7;
+                if (args.length >= 2) {
+                    try {
+                        days = Math.max(1, Integer.parseInt(args[1]));
+                    } catch (NumberFormatException e) {
+                        player.sendMessage(ChatColor.RED + "Invalid number format!");
+                        return true;
+                    }
+                }
+                showHistory(player, days);
+                break;
+            case "metrics":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to view metrics!");
+                    return true;
+                }
+                showMetrics(player);
+                break;
+            case "behavior":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to view bot behaviour!");
+                    return true;
+                }
+                showBehavior(player, args.length >= 2 ? args[1] : null);
+                break;
+            case "loadtest":
+                if (!player.hasPermission("hungergames.admin")) {
+                    player.sendMessage(ChatColor.RED + "You don't have permission to run load tests!");
+                    return true;
+                }
+                if (args.length < 3) {
+                    player.sendMessage(ChatColor.RED + "Usage: /hg loadtest <bots> <minutes>");
+                    return true;
+                }
+                try {
+                    int count = Integer.parseInt(args[1]);
+                    int minutes = Integer.parseInt(args[2]);
+                    int minBots = Math.max(2, plugin.getGameManager().getMinPlayersToStart());
+                    int maxBots = plugin.getGameManager().getMaxPlayersPerGame();
+                    if (count < minBots || count > maxBots) {
+                        player.sendMessage(ChatColor.RED + "Bot count must be between " + minBots + " and " + maxBots + "!");
+                        return true;
+                    }
+                    if (minutes < 1) {
+                        player.sendMessage(ChatColor.RED + "The load test needs at least a minute!");
+                        return true;
+                    }
+                    String error = plugin.getLoadTestManager().start(player, count, minutes);
+                    if (error != null) {
+                        player.sendMessage(ChatColor.RED + error);
+                    } else {
+                        player.sendMessage(ChatColor.GREEN + "Load test started with " + count + " bots for up to " + 
+                            minutes + " minutes.");
+                    }
+                } catch (NumberFormatException e) {
+                    player.sendMessage(ChatColor.RED + "Invalid number format!");
+                }
+                break;
             default:
                 sendHelp(player);
                 break;
@@ -151,6 +275,222 @@ public class GameCommand implements CommandExecutor {
         }
     }
     
+    private void handleReplay(Player player, String[] args) {
+        ReplayManager replays = plugin.getReplayManager();
+        if (args.length < 2) {
+            player.sendMessage(ChatColor.RED + "Usage: /hg replay <id|list|pause|resume|speed|seek|stop>");
+            return;
+        }
+        
+        String action = args[1].toLowerCase();
+        if (action.equals("list")) {
+            replays.listReplays(player);
+            return;
+        }
+        
+        ReplaySession session = replays.getSession(player);
+        if (session == null) {
+            if (action.equals("pause") || action.equals("resume") || action.equals("speed") || 
+                action.equals("seek") || action.equals("stop")) {
+                player.sendMessage(ChatColor.RED + "You are not watching a replay!");
+            } else {
+                replays.startPlayback(player, args[1]);
+            }
+            return;
+        }
+        
+        try {
+            switch (action) {
+                case "pause":
+                    session.setPaused(true);
+                    break;
+                case "resume":
+                    session.setPaused(false);
+                    break;
+                case "speed":
+                    if (args.length < 3) {
+                        player.sendMessage(ChatColor.RED + "Usage: /hg replay speed <0.5-8>");
+                        return;
+                    }
+                    session.setSpeed(Double.parseDouble(args[2]));
+                    break;
+                case "seek":
+                    if (args.length < 3) {
+                        player.sendMessage(ChatColor.RED + "Usage: /hg replay seek <seconds|+seconds|-seconds>");
+                        return;
+                    }
+                    String value = args[2];
+                    if (value.startsWith("+") || value.startsWith("-")) {
+                        session.seek(session.getCurrentTick() + Integer.parseInt(value) * 20);
+                    } else {
+                        session.seek(Integer.parseInt(value) * 20);
+                    }
+                    break;
+                case "stop":
+                    replays.stopPlayback(player);
+                    player.sendMessage(ChatColor.GREEN + "Stopped watching the replay.");
+                    break;
+                default:
+                    player.sendMessage(ChatColor.RED + "You are already watching a replay! Use /hg replay stop first.");
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            player.sendMessage(ChatColor.RED + "Invalid number format!");
+        }
+    }
+    
+    private void showHistory(Player player, int days) {
+        File folder = plugin.getMatchHistoryManager().getHistoryFolder();
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1);
+        player.sendMessage(ChatColor.GOLD + "Aggregating match history for the last " + days + " days...");
+        
+        // Aggregation is CPU and disk heavy, keep it off the main thread and the I/O queue
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return MatchHistoryReader.aggregate(folder, from, to, Runtime.getRuntime().availableProcessors());
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((report, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (!player.isOnline()) return;
+            if (error != null) {
+                player.sendMessage(ChatColor.RED + "Failed to read match history: " + error.getMessage());
+                return;
+            }
+            
+            player.sendMessage(ChatColor.GOLD + "=== Match History (" + days + " days) ===");
+            player.sendMessage(ChatColor.YELLOW + "Matches: " + ChatColor.WHITE + report.matches + 
+                ChatColor.GRAY + " (" + report.botWins + " won by bots)");
+            player.sendMessage(ChatColor.YELLOW + "Avg Duration: " + ChatColor.WHITE + 
+                String.format("%.1f", report.getAverageDurationSeconds() / 60) + " min");
+            player.sendMessage(ChatColor.YELLOW + "Avg Players: " + ChatColor.WHITE + 
+                String.format("%.1f", report.getAverageParticipants()));
+            player.sendMessage(ChatColor.YELLOW + "Kills: " + ChatColor.WHITE + report.totalKills);
+            player.sendMessage(ChatColor.YELLOW + "Loot Opened: " + ChatColor.WHITE + report.lootOpened);
+            player.sendMessage(ChatColor.YELLOW + "Tick Time: " + ChatColor.WHITE + 
+                String.format("%.1f", report.getAverageTickMillis()) + "ms avg, " + 
+                String.format("%.1f", report.tickPeak) + "ms peak");
+            report.winsByName.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(5)
+                .forEach(entry -> player.sendMessage(ChatColor.YELLOW + "  " + entry.getKey() + ": " + 
+                    ChatColor.WHITE + entry.getValue() + " wins"));
+        }));
+    }
+    
+    /**
+     * Prints a profile's behaviour tree with how often each node has been
+     * evaluated.
+     */
+    private void showBehavior(Player player, String profile) {
+        BotBehaviors behaviors = plugin.getBotBehaviors();
+        if (profile != null && !behaviors.hasProfile(profile)) {
+            player.sendMessage(ChatColor.RED + "Unknown bot profile! Profiles: " + 
+                String.join(", ", behaviors.getProfileNames()));
+            return;
+        }
+        BehaviorTree tree = behaviors.getProfile(profile);
+        if (tree == null) {
+            player.sendMessage(ChatColor.RED + "Bot behaviours haven't loaded yet!");
+            return;
+        }
+        
+        player.sendMessage(ChatColor.GOLD + "=== Bot Behaviour: " + tree.profile + " ===");
+        for (int node = 0; node < tree.size(); node++) {
+            player.sendMessage(ChatColor.GRAY + "  ".repeat(tree.getDepth(node)) + ChatColor.YELLOW + 
+                tree.getLabel(node) + ChatColor.WHITE + " " + tree.getEvaluations(node));
+        }
+    }
+    
+    private void showMetrics(Player player) {
+        IOManager io = plugin.getIOManager();
+        
+        player.sendMessage(ChatColor.GOLD + "=== Plugin Metrics ===");
+        player.sendMessage(ChatColor.YELLOW + "I/O Queue: " + ChatColor.WHITE + io.getQueueDepth() + 
+            ChatColor.GRAY + " (" + io.getCompletedTasks() + " done, " + io.getCoalescedWrites() + " coalesced, " + 
+            io.getOverflowTasks() + " dropped, " + io.getFailedTasks() + " failed)");
+        player.sendMessage(ChatColor.YELLOW + "I/O Latency: " + ChatColor.WHITE + 
+            String.format("%.2f", io.getAverageLatencyMillis()) + "ms avg, " + 
+            String.format("%.2f", io.getMaxLatencyMillis()) + "ms max");
+        
+        ReplayManager replays = plugin.getReplayManager();
+        player.sendMessage(ChatColor.YELLOW + "Replay: " + ChatColor.WHITE + 
+            (replays.isRecording() ? "recording" : "idle") + ChatColor.GRAY + " (" + 
+            String.format("%.1f", replays.getSampleMicros()) + "us/tick, " + 
+            replays.getRecordingBytes() / 1024 + " KB buffered)");
+        
+        StatsCache stats = plugin.getGameManager().getStatsCache();
+        player.sendMessage(ChatColor.YELLOW + "Stats Cache: " + ChatColor.WHITE + stats.getSize() + "/" + 
+            stats.getCapacity() + ChatColor.GRAY + " (" + stats.getPinnedCount() + " pinned, " + 
+            String.format("%.1f", stats.getHitRate() * 100) + "% hits, " + stats.getEvictions() + " evicted, " + 
+            String.format("%.2f", stats.getAverageLoadMillis()) + "ms avg load, " + 
+            String.format("%.2f", stats.getMaxLoadMillis()) + "ms max)");
+        
+        MessageService messages = plugin.getMessageService();
+        player.sendMessage(ChatColor.YELLOW + "Chat: " + ChatColor.WHITE + messages.getMessagesSent() + "/" + 
+            messages.getMessagesQueued() + " sent in " + messages.getPacketsSent() + " packets" + ChatColor.GRAY + 
+            " (" + messages.getMessagesDropped() + " rate limited, " + 
+            String.format("%.1f", messages.getCacheHitRate() * 100) + "% cached)");
+        
+        SidebarManager sidebars = plugin.getSidebarManager();
+        player.sendMessage(ChatColor.YELLOW + "Sidebars: " + ChatColor.WHITE + sidebars.getViewerCount() + " viewers" + 
+            ChatColor.GRAY + " (" + sidebars.getRenders() + " renders, " + sidebars.getLineUpdates() + " line updates)");
+        
+        BotManager bots = plugin.getBotManager();
+        player.sendMessage(ChatColor.YELLOW + "Bot AI: " + ChatColor.WHITE + 
+            String.format("%.0f", bots.getLastTickMicros()) + "/" + String.format("%.0f", bots.getTickBudgetMicros()) + 
+            "us last tick" + ChatColor.GRAY + " (" + String.format("%.1f", bots.getAverageApplyMicros()) + "us/apply, " + 
+            String.format("%.1f", bots.getAverageBrainMicros()) + "us/think on " + bots.getBrainThreads() + " threads, " + 
+            bots.getThinks() + " thinks, " + bots.getDeferrals() + " deferred, " + bots.getMaxQueueDepth() + " max queued, " + 
+            bots.getEquipmentUpdates() + " equipment updates)");
+        MatchRandom matchRandom = plugin.getMatchRandom();
+        player.sendMessage(ChatColor.YELLOW + "Match Seed: " + ChatColor.WHITE + matchRandom.getSeed() + 
+            ChatColor.GRAY + (matchRandom.isDeterministic() ? " (deterministic)" : " (random)"));
+        BotBehaviors behaviors = plugin.getBotBehaviors();
+        player.sendMessage(ChatColor.YELLOW + "Bot Behaviour: " + ChatColor.WHITE + behaviors.getProfileNames().size() + 
+            " profiles" + ChatColor.GRAY + " (default " + behaviors.getDefaultProfile() + ", " + 
+            behaviors.getTotalEvaluations() + " node evaluations)");
+        player.sendMessage(ChatColor.YELLOW + "Bot Pool: " + ChatColor.WHITE + bots.getPooledBots() + " idle" + 
+            ChatColor.GRAY + " (" + bots.getBotsCreated() + " created, " + bots.getBotsReused() + " reused)");
+        
+        int[] tiers = bots.getTierCounts();
+        player.sendMessage(ChatColor.YELLOW + "Bot LOD: " + ChatColor.WHITE + tiers[0] + " full, " + tiers[1] + 
+            " reduced, " + tiers[2] + " distant" + ChatColor.GRAY + " (" + bots.getCoarseMoves() + " hops, " + 
+            bots.getStatisticalExchanges() + " statistical exchanges)");
+        
+        Pathfinder paths = plugin.getPathfinder();
+        player.sendMessage(ChatColor.YELLOW + "Pathfinding: " + ChatColor.WHITE + paths.getRequests() + " requests" + 
+            ChatColor.GRAY + " (" + paths.getCacheHits() + " cached, " + paths.getComputed() + " searched, " + 
+            paths.getFailed() + " failed, " + paths.getInvalidations() + " invalidated, " + 
+            String.format("%.2f", paths.getAverageSearchMillis()) + "ms avg, " + 
+            plugin.getBotManager().getMovementUpdates() + " movement updates)");
+        
+        PracticeBotManager practice = plugin.getPracticeBotManager();
+        player.sendMessage(ChatColor.YELLOW + "Practice Bots: " + ChatColor.WHITE + practice.getCount() + "/" + 
+            practice.getMaxBots() + ChatColor.GRAY + " (" + String.format("%.0f", practice.getLastTickMicros()) + 
+            "us last tick, " + practice.getViewerUpdates() + " viewer updates, " + practice.getHits() + " hits)");
+        
+        SpatialGrid grid = plugin.getSpatialGrid();
+        player.sendMessage(ChatColor.YELLOW + "Spatial Grid: " + ChatColor.WHITE + grid.getSize() + " tributes" + 
+            ChatColor.GRAY + " (" + grid.getRebuilds() + " rebuilds, " + grid.getQueries() + " queries)");
+        
+        BorderTimeline timeline = plugin.getBorderTimeline();
+        player.sendMessage(ChatColor.YELLOW + "Border: " + ChatColor.WHITE + 
+            (timeline.isRunning() ? timeline.getCurrentType().name().toLowerCase() : "idle") + ChatColor.GRAY + " (" + 
+            timeline.getPhaseCount() + " phases, " + String.format("%.2f", timeline.getSpeed()) + "x pace, " + 
+            timeline.getSpeedChanges() + " speed-ups)");
+        
+        ChunkRetentionManager chunks = plugin.getChunkRetention();
+        player.sendMessage(ChatColor.YELLOW + "Arena Chunks: " + ChatColor.WHITE + chunks.getTicketCount() + 
+            " retained" + ChatColor.GRAY + " (" + chunks.getPendingCount() + " pending, " + chunks.getChunksLoaded() + 
+            " loaded, " + chunks.getChunksReleased() + " released)");
+        
+        MatchHistoryManager history = plugin.getMatchHistoryManager();
+        player.sendMessage(ChatColor.YELLOW + "History: " + ChatColor.WHITE + history.getPendingRecords() + 
+            " pending" + ChatColor.GRAY + " (" + history.getDroppedRecords() + " dropped)");
+    }
+    
     private void sendHelp(Player player) {
         player.sendMessage(ChatColor.GOLD + "=== HungerGames Commands ===");
         player.sendMessage(ChatColor.YELLOW + "/hg join " + ChatColor.GRAY + "- Join the game");
@@ -165,12 +505,24 @@ public class GameCommand implements CommandExecutor {
                 "- Toggle auto-start");
             player.sendMessage(ChatColor.YELLOW + "/hg minplayers <count> " + ChatColor.GRAY + 
                 "- Set minimum players");
-            player.sendMessage(ChatColor.YELLOW + "/hg addbot " + ChatColor.GRAY + 
+            player.sendMessage(ChatColor.YELLOW + "/hg addbot [profile] " + ChatColor.GRAY + 
                 "- Add a single bot");
-            player.sendMessage(ChatColor.YELLOW + "/hg addbots <count> " + ChatColor.GRAY + 
+            player.sendMessage(ChatColor.YELLOW + "/hg addbots <count> [profile] " + ChatColor.GRAY + 
                 "- Add multiple bots");
             player.sendMessage(ChatColor.YELLOW + "/hg clearbots " + ChatColor.GRAY + 
                 "- Remove all bots");
+            player.sendMessage(ChatColor.YELLOW + "/hg practice <count|clear> " + ChatColor.GRAY + 
+                "- Spawn lightweight practice bots around you");
+            player.sendMessage(ChatColor.YELLOW + "/hg replay <id|list> " + ChatColor.GRAY + 
+                "- Watch a recorded match");
+            player.sendMessage(ChatColor.YELLOW + "/hg history [days] " + ChatColor.GRAY + 
+                "- Summarize recent matches");
+            player.sendMessage(ChatColor.YELLOW + "/hg metrics " + ChatColor.GRAY + 
+                "- Show plugin performance metrics");
+            player.sendMessage(ChatColor.YELLOW + "/hg behavior [profile] " + ChatColor.GRAY + 
+                "- Show how often each bot behaviour node runs");
+            player.sendMessage(ChatColor.YELLOW + "/hg loadtest <bots> <minutes> " + ChatColor.GRAY + 
+                "- Run a bot-only match and write a tick time report");
         }
     }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.mchg.plugin;
 
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -11,6 +12,10 @@ import org.bukkit.event.block.*;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.block.Chest;
+import org.bukkit.block.DoubleChest;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
 public class GameListener implements Listener {
@@ -57,9 +62,13 @@ public class GameListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         try {
             Player player = event.getPlayer();
+            plugin.getReplayManager().stopPlayback(player);
             if (plugin.getPlayers().contains(player)) {
                 plugin.removePlayer(player);
             }
+            plugin.getGameManager().getStatsCache().unpin(player.getUniqueId());
+            plugin.getMessageService().forget(player);
+            plugin.getSpectatorManager().invalidateTracking(player);
         } catch (Exception e) {
             plugin.getLogger().warning("Error handling player quit: " + e.getMessage());
         }
@@ -69,6 +78,8 @@ public class GameListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         try {
             Player player = event.getPlayer();
+            // Start loading stats now so they are warm by the time anything reads them
+            plugin.getGameManager().getStatsCache().pin(player.getUniqueId());
             if (plugin.getPlayerStates().containsKey(player) && 
                 plugin.getPlayerStates().get(player) == PlayerState.DEAD &&
                 plugin.getGameState() == GameState.ACTIVE) {
@@ -122,6 +133,48 @@ public class GameListener implements Listener {
         }
     }
     
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamageRecord(EntityDamageEvent event) {
+        try {
+            if (!(event.getEntity() instanceof Player)) return;
+            
+            Player attacker = null;
+            if (event instanceof EntityDamageByEntityEvent) {
+                EntityDamageByEntityEvent byEntity = (EntityDamageByEntityEvent) event;
+                if (byEntity.getDamager() instanceof Player) {
+                    attacker = (Player) byEntity.getDamager();
+                } else if (byEntity.getDamager() instanceof Projectile && 
+                    ((Projectile) byEntity.getDamager()).getShooter() instanceof Player) {
+                    attacker = (Player) ((Projectile) byEntity.getDamager()).getShooter();
+                }
+            }
+            plugin.getReplayManager().recordDamage((Player) event.getEntity(), attacker, 
+                event.getFinalDamage(), event.getCause());
+            plugin.getSpectatorManager().getMenu().markDirty((Player) event.getEntity());
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error recording damage: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChestOpen(InventoryOpenEvent event) {
+        try {
+            if (!(event.getPlayer() instanceof Player)) return;
+            InventoryHolder holder = event.getInventory().getHolder();
+            if (!(holder instanceof Chest) && !(holder instanceof DoubleChest)) return;
+            
+            Location location = event.getInventory().getLocation();
+            if (location != null) {
+                plugin.getReplayManager().recordChestOpen((Player) event.getPlayer(), 
+                    location.getBlockX(), location.getBlockY(), location.getBlockZ());
+                plugin.getMatchHistoryManager().recordChestOpen((Player) event.getPlayer(), 
+                    location.getBlockX(), location.getBlockZ());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error recording chest open: " + e.getMessage());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerMove(PlayerMoveEvent event) {
         try {
@@ -203,6 +256,22 @@ public class GameListener implements Listener {
         }
     }
     
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBroken(BlockBreakEvent event) {
+        plugin.getPathfinder().invalidate(event.getBlock());
+        if (event.getBlock().getType() == Material.CHEST && event.getBlock().getWorld() == plugin.getGameWorld()) {
+            plugin.getWorldManager().getChestIndex().remove(event.getBlock());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlaced(BlockPlaceEvent event) {
+        plugin.getPathfinder().invalidate(event.getBlock());
+        if (event.getBlock().getType() == Material.CHEST && event.getBlock().getWorld() == plugin.getGameWorld()) {
+            plugin.getWorldManager().getChestIndex().add(event.getBlock());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerPortal(PlayerPortalEvent event) {
         try {
@@ -223,7 +292,7 @@ public class GameListener implements Listener {
             if (plugin.getGameState() == GameState.ACTIVE && 
                 plugin.getPlayerStates().get(player) == PlayerState.ALIVE) {
                 plugin.eliminatePlayer(player);
-                plugin.broadcast(ChatColor.RED + player.getName() + " was eliminated for combat logging!");
+                plugin.broadcastFeed(ChatColor.RED + player.getName() + " was eliminated for combat logging!");
             }
         } catch (Exception e) {
             plugin.getLogger().warning("Error handling combat log: " + e.getMessage());
@@ -247,12 +316,52 @@ public class GameListener implements Listener {
         }
     }
     
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickedUp(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player) {
+            plugin.getBotManager().markEquipmentDirty((Player) event.getEntity());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        plugin.getBotManager().markEquipmentDirty(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerSwing(PlayerAnimationEvent event) {
+        try {
+            // Practice bots have no server entity, so hits on them are detected from the swing
+            if (event.getAnimationType() == PlayerAnimationType.ARM_SWING) {
+                plugin.getPracticeBotManager().handleSwing(event.getPlayer());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error handling player swing: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onRegainHealth(EntityRegainHealthEvent event) {
+        if (event.getEntity() instanceof Player) {
+            plugin.getSpectatorManager().getMenu().markDirty((Player) event.getEntity());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryClick(InventoryClickEvent event) {
         try {
             if (!(event.getWhoClicked() instanceof Player)) return;
             Player player = (Player) event.getWhoClicked();
             
+            if (event.getInventory().getHolder() instanceof SpectatorMenu.Page) {
+                event.setCancelled(true);
+                if (event.getClickedInventory() == event.getInventory()) {
+                    plugin.getSpectatorManager().getMenu().handleClick(player, 
+                        (SpectatorMenu.Page) event.getInventory().getHolder(), event.getSlot());
+                }
+                return;
+            }
+            
             // Prevent inventory manipulation during countdown and grace period
             if (plugin.getPlayers().contains(player) && 
                 (plugin.getGameState() == GameState.STARTING || 
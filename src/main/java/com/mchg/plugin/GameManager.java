@@ -5,83 +5,38 @@ import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scoreboard.*;
 import org.bukkit.entity.Firework;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.FireworkEffect;
 import org.bukkit.entity.FireworkMeta;
 import org.bukkit.Color;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 public class GameManager {
     private final HungerGames plugin;
-    private final Map<UUID, PlayerStats> playerStats;
-    private Scoreboard scoreboard;
+    private final StatsCache statsCache;
     private boolean autoStartEnabled = true;
     private int minPlayersToStart = 2;
     private int maxPlayersPerGame = 24;
     private int autoStartTimer = 60; // seconds
     private BukkitRunnable autoStartTask;
     
-    private final Object scoreboardLock = new Object();
     private final Object statsLock = new Object();
     
     private final Map<UUID, ItemStack[]> savedInventories = new HashMap<>();
     private final Map<UUID, ItemStack[]> savedArmorContents = new HashMap<>();
     private final Map<UUID, Location> savedLocations = new HashMap<>();
+    private final YamlConfiguration quitStates = new YamlConfiguration();
     
     public GameManager(HungerGames plugin) {
         this.plugin = plugin;
-        this.playerStats = new HashMap<>();
-        setupScoreboard();
-    }
-    
-    private void setupScoreboard() {
-        ScoreboardManager manager = Bukkit.getScoreboardManager();
-        scoreboard = manager.getNewScoreboard();
-        
-        Objective objective = scoreboard.registerNewObjective("hgStats", "dummy", 
-            ChatColor.GOLD + "Hunger Games");
-        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
-    }
-    
-    public void updateScoreboard() {
-        synchronized (scoreboardLock) {
-            try {
-                Objective objective = scoreboard.getObjective("hgStats");
-                if (objective != null) {
-                    objective.unregister();
-                }
-                objective = scoreboard.registerNewObjective("hgStats", "dummy", 
-                    ChatColor.GOLD + "Hunger Games");
-                objective.setDisplaySlot(DisplaySlot.SIDEBAR);
-                
-                int aliveCount = plugin.getAlivePlayers().size();
-                int totalPlayers = plugin.getPlayers().size();
-                
-                objective.getScore(ChatColor.GREEN + "Players Alive").setScore(aliveCount);
-                objective.getScore(ChatColor.RED + "Players Dead").setScore(totalPlayers - aliveCount);
-                
-                if (plugin.getGameState() == GameState.ACTIVE) {
-                    World gameWorld = plugin.getGameWorld();
-                    if (gameWorld != null) {
-                        WorldBorder border = gameWorld.getWorldBorder();
-                        objective.getScore(ChatColor.YELLOW + "Border: " + 
-                            (int)border.getSize()).setScore(0);
-                    }
-                }
-                
-                for (Player player : plugin.getPlayers()) {
-                    if (player.isOnline()) {
-                        player.setScoreboard(scoreboard);
-                    }
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to update scoreboard: " + e.getMessage());
-            }
-        }
+        this.statsCache = new StatsCache(plugin);
     }
     
     public void checkAutoStart() {
@@ -139,6 +94,7 @@ public class GameManager {
                 PlayerStats stats = getPlayerStats(winner);
                 stats.wins++;
                 stats.gamesPlayed++;
+                statsCache.markDirty(winner.getUniqueId());
                 
                 // Special effects for the winner
                 winner.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, 200, 1));
@@ -182,19 +138,21 @@ public class GameManager {
                 PlayerStats deadStats = getPlayerStats(player);
                 deadStats.deaths++;
                 deadStats.gamesPlayed++;
+                statsCache.markDirty(player.getUniqueId());
                 
                 if (killer != null && killer.isOnline()) {
                     PlayerStats killerStats = getPlayerStats(killer);
                     killerStats.kills++;
+                    statsCache.markDirty(killer.getUniqueId());
                     
                     // Kill rewards
                     killer.setHealth(Math.min(killer.getHealth() + 6.0, killer.getMaxHealth()));
                     killer.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, 100, 0));
                     
-                    plugin.broadcast(ChatColor.RED + player.getName() + " was eliminated by " + 
+                    plugin.broadcastFeed(ChatColor.RED + player.getName() + " was eliminated by " + 
                         killer.getName() + " (" + killerStats.kills + " kills)");
                 } else {
-                    plugin.broadcast(ChatColor.RED + player.getName() + " was eliminated");
+                    plugin.broadcastFeed(ChatColor.RED + player.getName() + " was eliminated");
                 }
                 
                 // Death effects
@@ -235,7 +193,11 @@ public class GameManager {
     }
     
     public PlayerStats getPlayerStats(Player player) {
-        return playerStats.computeIfAbsent(player.getUniqueId(), k -> new PlayerStats());
+        return statsCache.get(player.getUniqueId());
+    }
+    
+    public StatsCache getStatsCache() {
+        return statsCache;
     }
     
     public void setAutoStartEnabled(boolean enabled) {
@@ -257,6 +219,14 @@ public class GameManager {
         return minPlayersToStart;
     }
     
+    public void setMaxPlayersPerGame(int count) {
+        this.maxPlayersPerGame = count;
+    }
+    
+    public int getMaxPlayersPerGame() {
+        return maxPlayersPerGame;
+    }
+    
     public void savePlayerState(Player player) {
         UUID uuid = player.getUniqueId();
         savedInventories.put(uuid, player.getInventory().getContents());
@@ -283,12 +253,29 @@ public class GameManager {
             savedArmorContents.remove(uuid);
             savedLocations.remove(uuid);
         }
+        
+        // Once restored, a crash-recovery copy would only hand the items out a second time
+        String path = "saved_states." + uuid;
+        if (quitStates.contains(path)) {
+            quitStates.set(path, null);
+            writeQuitStates();
+        }
     }
     
     public void clearSavedStates() {
         savedInventories.clear();
         savedArmorContents.clear();
         savedLocations.clear();
+        if (quitStates.contains("saved_states")) {
+            quitStates.set("saved_states", null);
+            writeQuitStates();
+        }
+    }
+    
+    private void writeQuitStates() {
+        // Serialize here, write on the I/O thread; changes in the same tick collapse into one write
+        File stateFile = new File(plugin.getDataFolder(), "player_states.yml");
+        plugin.getIOManager().writeFile("player_states", stateFile, quitStates.saveToString());
     }
 
     public void handlePlayerQuit(Player player) {
@@ -296,17 +283,14 @@ public class GameManager {
         if (savedInventories.containsKey(uuid)) {
             // Save to config for crash recovery
             String path = "saved_states." + uuid;
-            YamlConfiguration config = new YamlConfiguration();
             
             try {
-                config.set(path + ".inventory", savedInventories.get(uuid));
-                config.set(path + ".armor", savedArmorContents.get(uuid));
+                quitStates.set(path + ".inventory", savedInventories.get(uuid));
+                quitStates.set(path + ".armor", savedArmorContents.get(uuid));
                 if (savedLocations.get(uuid) != null) {
-                    config.set(path + ".location", savedLocations.get(uuid));
+                    quitStates.set(path + ".location", savedLocations.get(uuid));
                 }
-                
-                File stateFile = new File(plugin.getDataFolder(), "player_states.yml");
-                config.save(stateFile);
+                writeQuitStates();
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to save player state for " + player.getName() + ": " + e.getMessage());
             }
@@ -315,27 +299,49 @@ public class GameManager {
 
     public void loadSavedStates() {
         File stateFile = new File(plugin.getDataFolder(), "player_states.yml");
-        if (stateFile.exists()) {
+        plugin.getIOManager().read(() -> {
+            if (!stateFile.exists()) return null;
+            return new String(Files.readAllBytes(stateFile.toPath()), StandardCharsets.UTF_8);
+        }, contents -> {
+            if (contents == null) return;
             try {
-                YamlConfiguration config = YamlConfiguration.loadConfiguration(stateFile);
+                YamlConfiguration config = new YamlConfiguration();
+                config.loadFromString(contents);
                 
-                for (String uuidStr : config.getConfigurationSection("saved_states").getKeys(false)) {
+                ConfigurationSection section = config.getConfigurationSection("saved_states");
+                if (section == null) return;
+                
+                for (String uuidStr : section.getKeys(false)) {
                     UUID uuid = UUID.fromString(uuidStr);
                     String path = "saved_states." + uuidStr;
                     
-                    savedInventories.put(uuid, (ItemStack[]) config.get(path + ".inventory"));
-                    savedArmorContents.put(uuid, (ItemStack[]) config.get(path + ".armor"));
+                    savedInventories.put(uuid, toItemArray(config.get(path + ".inventory")));
+                    savedArmorContents.put(uuid, toItemArray(config.get(path + ".armor")));
                     if (config.contains(path + ".location")) {
                         savedLocations.put(uuid, (Location) config.get(path + ".location"));
                     }
                 }
                 
-                // Delete the file after loading
-                stateFile.delete();
+                // Only drop the file once everything in it is in memory; a later quit's write under
+                // the same key replaces this delete if it hasn't run yet
+                plugin.getIOManager().write("player_states", () -> Files.deleteIfExists(stateFile.toPath()));
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to load saved player states: " + e.getMessage());
             }
+        });
+    }
+    
+    private ItemStack[] toItemArray(Object value) {
+        // Arrays come back from YAML as lists
+        if (value instanceof ItemStack[]) {
+            return (ItemStack[]) value;
+        }
+        if (value instanceof List) {
+            return ((List<?>) value).stream()
+                .map(item -> item instanceof ItemStack ? (ItemStack) item : null)
+                .toArray(ItemStack[]::new);
         }
+        return null;
     }
     
     public static class PlayerStats {
@@ -0,0 +1,231 @@
+package com.mchg.plugin;
+
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Arena HUD. A single boss bar shows the current phase; its title and progress
+ * are worked out once per tick and shared by every viewer. The action bar only
+ * carries what differs per player (distance to the border) and is only sent
+ * when that value changes or is about to fade.
+ */
+public class HudManager {
+    public enum Phase {
+        NONE, COUNTDOWN, GRACE, SHRINKING, HOLD, DEATHMATCH, FINAL;
+        
+        boolean isBorderPhase() {
+            return this == SHRINKING || this == HOLD || this == DEATHMATCH || this == FINAL;
+        }
+    }
+    
+    private final HungerGames plugin;
+    private final BossBar bossBar;
+    private final Set<UUID> bossBarViewers = new HashSet<>();
+    private final Map<UUID, ActionBarState> actionBars = new HashMap<>();
+    private Phase phase = Phase.NONE;
+    private long phaseStart;
+    private long phaseEnd;
+    private String lastTitle = "";
+    private double lastProgress = -1;
+    
+    private static final int VIEWER_SYNC_TICKS = 20;
+    private static final int ACTION_BAR_REFRESH_TICKS = 40; // Client fades the action bar after ~60 ticks
+    
+    public HudManager(HungerGames plugin) {
+        this.plugin = plugin;
+        this.bossBar = Bukkit.createBossBar("", BarColor.YELLOW, BarStyle.SOLID);
+        this.bossBar.setVisible(false);
+    }
+    
+    /**
+     * Starts a timed phase. Pass 0 for a phase with no end.
+     */
+    public void startPhase(Phase phase, long durationSeconds) {
+        this.phase = phase;
+        this.phaseStart = System.currentTimeMillis();
+        this.phaseEnd = phaseStart + durationSeconds * 1000;
+        
+        switch (phase) {
+            case COUNTDOWN:
+                bossBar.setColor(BarColor.GREEN);
+                break;
+            case GRACE:
+                bossBar.setColor(BarColor.BLUE);
+                break;
+            case SHRINKING:
+                bossBar.setColor(BarColor.RED);
+                break;
+            case HOLD:
+                bossBar.setColor(BarColor.YELLOW);
+                break;
+            case DEATHMATCH:
+                bossBar.setColor(BarColor.PINK);
+                break;
+            case FINAL:
+                bossBar.setColor(BarColor.PURPLE);
+                break;
+            default:
+                break;
+        }
+        bossBar.setVisible(phase != Phase.NONE);
+        syncViewers();
+    }
+    
+    /**
+     * Moves the end of the current phase, e.g. when the border timeline
+     * speeds up. The bar keeps its start, so progress jumps to match.
+     */
+    public void setPhaseRemaining(long remainingSeconds) {
+        if (phaseEnd <= phaseStart) return;
+        
+        phaseEnd = System.currentTimeMillis() + remainingSeconds * 1000;
+    }
+    
+    public void tick() {
+        if (phase == Phase.NONE) return;
+        
+        try {
+            long tick = plugin.getTickMonitor().getTick();
+            if (tick % VIEWER_SYNC_TICKS == 0) {
+                syncViewers();
+            }
+            
+            World world = plugin.getGameWorld();
+            WorldBorder border = world != null ? world.getWorldBorder() : null;
+            updateBossBar(border);
+            
+            if (border != null && phase.isBorderPhase()) {
+                updateActionBars(border, tick);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to update HUD: " + e.getMessage());
+        }
+    }
+    
+    private void updateBossBar(WorldBorder border) {
+        long now = System.currentTimeMillis();
+        long remaining = Math.max(0, phaseEnd - now);
+        double progress = phaseEnd > phaseStart ? remaining / (double) (phaseEnd - phaseStart) : 1.0;
+        int seconds = (int) ((remaining + 999) / 1000);
+        
+        String title;
+        switch (phase) {
+            case COUNTDOWN:
+                title = ChatColor.GREEN + "Game starts in " + seconds + "s";
+                break;
+            case GRACE:
+                title = ChatColor.AQUA + "Grace period: " + formatTime(seconds);
+                break;
+            case SHRINKING:
+                title = ChatColor.RED + "Border shrinking: " + (border != null ? (int) border.getSize() : 0) +
+                    " blocks " + ChatColor.GRAY + "(" + formatTime(seconds) + ")";
+                break;
+            case HOLD:
+                title = ChatColor.YELLOW + "Border holding: " + (border != null ? (int) border.getSize() : 0) +
+                    " blocks " + ChatColor.GRAY + "(shrinks in " + formatTime(seconds) + ")";
+                break;
+            case DEATHMATCH:
+                title = ChatColor.DARK_RED + "Deathmatch: " + (border != null ? (int) border.getSize() : 0) +
+                    " blocks " + ChatColor.GRAY + "(" + formatTime(seconds) + ")";
+                break;
+            default:
+                title = ChatColor.LIGHT_PURPLE + "Final border: " + (border != null ? (int) border.getSize() : 0) + " blocks";
+                break;
+        }
+        
+        // Only touch the bar when something visible moved
+        if (!title.equals(lastTitle)) {
+            bossBar.setTitle(title);
+            lastTitle = title;
+        }
+        if (Math.abs(progress - lastProgress) >= 0.005) {
+            bossBar.setProgress(Math.max(0.0, Math.min(1.0, progress)));
+            lastProgress = progress;
+        }
+    }
+    
+    private void updateActionBars(WorldBorder border, long tick) {
+        Location center = border.getCenter();
+        double centerX = center.getX();
+        double centerZ = center.getZ();
+        double halfSize = border.getSize() / 2;
+        
+        for (Player player : plugin.getAlivePlayers()) {
+            if (!player.isOnline() || !bossBarViewers.contains(player.getUniqueId())) continue;
+            
+            // The border is a square, so the distance to its edge is half the size minus the larger axis offset
+            Location location = player.getLocation();
+            double offset = Math.max(Math.abs(location.getX() - centerX), Math.abs(location.getZ() - centerZ));
+            int distance = (int) Math.floor(halfSize - offset);
+            
+            ActionBarState state = actionBars.computeIfAbsent(player.getUniqueId(), k -> new ActionBarState());
+            if (distance == state.lastDistance && tick - state.lastSentTick < ACTION_BAR_REFRESH_TICKS) continue;
+            
+            state.lastDistance = distance;
+            state.lastSentTick = tick;
+            String text = distance < 0 ?
+                ChatColor.DARK_RED + "Outside the border! " + (-distance) + " blocks" :
+                (distance <= 10 ? ChatColor.RED : ChatColor.YELLOW) + "Border: " + distance + " blocks away";
+            player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(text));
+        }
+    }
+    
+    private void syncViewers() {
+        Set<UUID> bots = plugin.getBotManager().getBotIds();
+        Set<UUID> current = new HashSet<>();
+        for (Player player : plugin.getPlayers()) {
+            if (!player.isOnline() || bots.contains(player.getUniqueId())) continue;
+            
+            current.add(player.getUniqueId());
+            if (bossBarViewers.add(player.getUniqueId())) {
+                bossBar.addPlayer(player);
+            }
+        }
+        
+        for (Player player : bossBar.getPlayers()) {
+            if (!current.contains(player.getUniqueId())) {
+                bossBar.removePlayer(player);
+            }
+        }
+        bossBarViewers.retainAll(current);
+        actionBars.keySet().retainAll(current);
+    }
+    
+    public void reset() {
+        phase = Phase.NONE;
+        bossBar.removeAll();
+        bossBar.setVisible(false);
+        bossBarViewers.clear();
+        actionBars.clear();
+        lastTitle = "";
+        lastProgress = -1;
+    }
+    
+    public Phase getPhase() {
+        return phase;
+    }
+    
+    private static String formatTime(int seconds) {
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+    
+    private static class ActionBarState {
+        int lastDistance = Integer.MIN_VALUE;
+        long lastSentTick = 0;
+    }
+}
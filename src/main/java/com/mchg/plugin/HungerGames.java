@@ -13,12 +13,16 @@ import org.bukkit.potion.PotionEffect;
 import org.bukkit.Sound;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 public class HungerGames extends JavaPlugin {
     private GameState gameState = GameState.WAITING;
@@ -33,22 +37,67 @@ public class HungerGames extends JavaPlugin {
     private LootManager lootManager;
     private SpectatorManager spectatorManager;
     private BotManager botManager;
+    private IOManager ioManager;
+    private ReplayManager replayManager;
+    private MatchHistoryManager matchHistoryManager;
+    private TickMonitor tickMonitor;
+    private LoadTestManager loadTestManager;
+    private BorderTimeline borderTimeline;
+    private ChunkRetentionManager chunkRetention;
+    private SidebarManager sidebarManager;
+    private MessageService messageService;
+    private HudManager hudManager;
+    private ItemRegistry itemRegistry;
+    private SpatialGrid spatialGrid;
+    private Pathfinder pathfinder;
+    private BotAdapter botAdapter;
+    private PracticeBotManager practiceBotManager;
+    private BotBehaviors botBehaviors;
+    private MatchRandom matchRandom;
     
     private final Object playerLock = new Object();
     private final Object gameStateLock = new Object();
     
     private static final int TELEPORT_RETRY_COUNT = 3;
     private static final int TELEPORT_RETRY_DELAY_TICKS = 10;
+    private static final long IO_SHUTDOWN_TIMEOUT_MILLIS = 5000;
     
     @Override
     public void onEnable() {
         saveDefaultConfig();
-        loadConfig();
+        // Copy the bundled defaults here on the main thread; the I/O thread only reads them
+        for (String resource : new String[] {"loot.yml", "bots.yml"}) {
+            if (!new File(getDataFolder(), resource).exists()) {
+                saveResource(resource, false);
+            }
+        }
+        ioManager = new IOManager(this);
+        matchRandom = new MatchRandom(this);
+        messageService = new MessageService(this);
+        itemRegistry = new ItemRegistry(this);
         worldManager = new WorldManager(this);
         gameManager = new GameManager(this);
         lootManager = new LootManager(this);
         spectatorManager = new SpectatorManager(this);
+        botAdapter = BotAdapter.forServer();
+        if (botAdapter == null) {
+            getLogger().warning("Bots are not supported on this server version (" + BotAdapter.serverVersion() + ")");
+        }
+        botBehaviors = new BotBehaviors(this);
         botManager = new BotManager(this);
+        practiceBotManager = new PracticeBotManager(this);
+        replayManager = new ReplayManager(this);
+        matchHistoryManager = new MatchHistoryManager(this);
+        tickMonitor = new TickMonitor(this);
+        loadTestManager = new LoadTestManager(this);
+        spatialGrid = new SpatialGrid(this);
+        pathfinder = new Pathfinder(this);
+        sidebarManager = new SidebarManager(this);
+        hudManager = new HudManager(this);
+        borderTimeline = new BorderTimeline(this);
+        chunkRetention = new ChunkRetentionManager(this);
+        loadConfig();
+        tickMonitor.start();
         setupSpawnLocation();
         getServer().getPluginManager().registerEvents(new GameListener(this), this);
         getCommand("hg").setExecutor(new GameCommand(this));
@@ -63,15 +112,16 @@ public class HungerGames extends JavaPlugin {
             }
         }
         
-        // Schedule periodic scoreboard updates
+        // Redraw the sidebar and HUD only when something on them has changed
         new BukkitRunnable() {
             @Override
             public void run() {
-                if (gameState != GameState.WAITING) {
-                    gameManager.updateScoreboard();
-                }
+                borderTimeline.tick();
+                chunkRetention.tick();
+                sidebarManager.tick();
+                hudManager.tick();
             }
-        }.runTaskTimer(this, 20L, 20L);
+        }.runTaskTimer(this, 1L, 1L);
         
         getLogger().info("HungerGames plugin has been enabled!");
     }
@@ -93,6 +143,32 @@ public class HungerGames extends JavaPlugin {
         }
         if (botManager != null) {
             botManager.clearBots();
+            botManager.shutdown();
+        }
+        if (practiceBotManager != null) {
+            practiceBotManager.clear();
+        }
+        if (replayManager != null) {
+            replayManager.closeAllSessions();
+        }
+        if (hudManager != null) {
+            hudManager.reset();
+        }
+        if (pathfinder != null) {
+            pathfinder.shutdown();
+        }
+        if (tickMonitor != null) {
+            tickMonitor.stop();
+        }
+        if (loadTestManager != null) {
+            loadTestManager.cancel();
+        }
+        if (gameManager != null) {
+            gameManager.getStatsCache().flush();
+        }
+        if (ioManager != null) {
+            // Flush queued writes and world deletions before the server goes away
+            ioManager.shutdown(IO_SHUTDOWN_TIMEOUT_MILLIS);
         }
         getLogger().info("HungerGames plugin has been disabled!");
     }
@@ -110,24 +186,40 @@ public class HungerGames extends JavaPlugin {
         borderShrinkMinutes = getConfig().getInt("game.border-shrink-minutes", 10);
         gameManager.setMinPlayersToStart(getConfig().getInt("game.min-players", 2));
         gameManager.setMaxPlayersPerGame(getConfig().getInt("game.max-players", 24));
+        gameManager.getStatsCache().setCapacity(getConfig().getInt("stats.cache-size", 500));
+        botManager.setTickBudgetMicros(getConfig().getInt("bots.tick-budget-micros", 2000));
+        botManager.setLevelOfDetail(getConfig().getBoolean("bots.lod.enabled", true),
+            getConfig().getInt("bots.lod.full-range", 96), getConfig().getInt("bots.lod.reduced-range", 192));
+        botManager.setPoolSize(getConfig().getInt("bots.pool-size", 64));
+        matchRandom.configure(getConfig().getBoolean("simulation.deterministic", false), 
+            getConfig().getLong("simulation.seed", 0));
+        practiceBotManager.setLimits(getConfig().getInt("bots.practice.max-bots", 200), 
+            getConfig().getInt("bots.practice.view-range", 48));
+        borderTimeline.configure(getConfig().getConfigurationSection("world.border"));
+        chunkRetention.setLimits(getConfig().getInt("world.chunk-retention.margin", 32), 
+            getConfig().getInt("world.chunk-retention.chunks-per-tick", 16));
         
         // Load saved game state if exists
         File stateFile = new File(getDataFolder(), "gamestate.dat");
-        if (stateFile.exists()) {
-            try {
-                YamlConfiguration state = YamlConfiguration.loadConfiguration(stateFile);
-                if (state.getBoolean("game-in-progress", false)) {
-                    getLogger().info("Detected interrupted game, cleaning up...");
-                    endGame();
+        ioManager.read(() -> stateFile.exists() ? new String(Files.readAllBytes(stateFile.toPath()), StandardCharsets.UTF_8) : null,
+            contents -> {
+                if (contents == null) return;
+                try {
+                    YamlConfiguration state = new YamlConfiguration();
+                    state.loadFromString(contents);
+                    if (state.getBoolean("game-in-progress", false)) {
+                        getLogger().info("Detected interrupted game, cleaning up...");
+                        endGame();
+                    }
+                } catch (Exception e) {
+                    getLogger().warning("Failed to load game state: " + e.getMessage());
                 }
-            } catch (Exception e) {
-                getLogger().warning("Failed to load game state: " + e.getMessage());
-            }
-        }
+            });
     }
     
     // Add grace period tracking
     private long graceEndTime = 0;
+    private int matchNumber = 0;
     
     public boolean isGracePeriod() {
         return gameState == GameState.ACTIVE && System.currentTimeMillis() < graceEndTime;
@@ -192,6 +284,7 @@ public class HungerGames extends JavaPlugin {
             
             try {
                 gameState = GameState.STARTING;
+                sidebarManager.markDirty();
                 saveGameState();
                 
                 synchronized (playerLock) {
@@ -216,26 +309,8 @@ public class HungerGames extends JavaPlugin {
                                 return;
                             }
                             
-                            // Pre-load spawn area
-                            broadcast(ChatColor.GOLD + "Generating spawn area...");
-                            int radius = 200; // Adjust based on border size
-                            int chunksLoaded = 0;
-                            int totalChunks = (radius * 2 / 16) * (radius * 2 / 16);
-                            
-                            for (int x = -radius; x <= radius; x += 16) {
-                                for (int z = -radius; z <= radius; z += 16) {
-                                    if (!gameWorld.loadChunk(x >> 4, z >> 4, true)) {
-                                        continue;
-                                    }
-                                    chunksLoaded++;
-                                    if (chunksLoaded % 25 == 0) {
-                                        int percentage = (chunksLoaded * 100) / totalChunks;
-                                        broadcast(ChatColor.GOLD + "Loading world: " + percentage + "%");
-                                    }
-                                }
-                            }
-                            
-                            // Switch back to main thread for game setup
+                            // Switch back to main thread for game setup, where chunk retention
+                            // pregenerates the arena once the border has its starting size
                             new BukkitRunnable() {
                                 @Override
                                 public void run() {
@@ -260,19 +335,23 @@ public class HungerGames extends JavaPlugin {
     
     private void startGameSetup(World gameWorld) {
         try {
-            broadcast(ChatColor.GOLD + "World ready! Game starting in " + countdownSeconds + " seconds!");
+            int countdownLength = loadTestManager.isRunning() ? LoadTestManager.COUNTDOWN_SECONDS : countdownSeconds;
+            broadcast(ChatColor.GOLD + "World ready! Game starting in " + countdownLength + " seconds!");
             
             // Start bot AI
             botManager.startBotAI();
             
             spawnLocation = new Location(gameWorld, 0, 66, 0);
             
-            // Setup world border with dynamic sizing based on player count
+            // Lay out the border phases for this many tributes; the start size grows with the lobby
             WorldBorder border = gameWorld.getWorldBorder();
             border.setCenter(0, 0);
-            int playerCount = players.size();
-            int borderSize = Math.max(200, Math.min(400, playerCount * 50));
-            border.setSize(borderSize);
+            int shrinkSeconds = borderShrinkMinutes * 60;
+            if (loadTestManager.isRunning()) {
+                shrinkSeconds = Math.min(shrinkSeconds, loadTestManager.getShrinkSeconds());
+            }
+            border.setSize(borderTimeline.plan(players.size(), shrinkSeconds));
+            chunkRetention.start(gameWorld);
             border.setDamageAmount(getConfig().getDouble("world.border.damage", 1.0));
             border.setDamageBuffer(0.0);
             border.setWarningDistance(10);
@@ -286,9 +365,11 @@ public class HungerGames extends JavaPlugin {
             }
             
             // Teleport and prepare all players with retry
+            botManager.moveBotsTo(gameWorld);
             List<Player> failedTeleports = new ArrayList<>();
             int index = 0;
             List<Player> activePlayers = new ArrayList<>(players);
+            MatchRandom.shuffle(activePlayers, matchRandom.stream("spawns"));
             
             for (Player player : activePlayers) {
                 if (!player.isOnline()) {
@@ -327,8 +408,9 @@ public class HungerGames extends JavaPlugin {
                 return;
             }
             
+            hudManager.startPhase(HudManager.Phase.COUNTDOWN, countdownLength);
             new BukkitRunnable() {
-                int countdown = countdownSeconds;
+                int countdown = countdownLength;
                 
                 @Override
                 public void run() {
@@ -370,14 +452,26 @@ public class HungerGames extends JavaPlugin {
     
     private void startMainGame() {
         gameState = GameState.ACTIVE;
-        graceEndTime = System.currentTimeMillis() + (gracePeriodSeconds * 1000);
-        broadcast(ChatColor.GREEN + "The game has begun! Grace period: " + gracePeriodSeconds + " seconds!");
+        sidebarManager.markDirty();
+        int grace = loadTestManager.isRunning() ? LoadTestManager.GRACE_SECONDS : gracePeriodSeconds;
+        graceEndTime = System.currentTimeMillis() + (grace * 1000);
+        hudManager.startPhase(HudManager.Phase.GRACE, grace);
+        broadcast(ChatColor.GREEN + "The game has begun! Grace period: " + grace + " seconds!");
         
         // Simply change gamemode for all players
         for (Player player : players) {
             player.setGameMode(GameMode.SURVIVAL);
         }
         
+        World gameWorld = worldManager.getGameWorld();
+        // The counter keeps two matches ending in the same second from sharing a replay or history id;
+        // a restart takes longer than that, so it doesn't need to survive one
+        String matchId = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "-" + (++matchNumber);
+        replayManager.startRecording(matchId, gameWorld, players);
+        matchHistoryManager.beginMatch(matchId, gameWorld, players, botManager.getBotIds());
+        matchHistoryManager.recordBorder(gameWorld.getWorldBorder().getSize(), 0);
+        spectatorManager.getMenu().build();
+        
         // Start grace period
         new BukkitRunnable() {
             @Override
@@ -392,56 +486,34 @@ public class HungerGames extends JavaPlugin {
                 }
                 startBorderShrink();
             }
-        }.runTaskLater(this, gracePeriodSeconds * 20L);
+        }.runTaskLater(this, grace * 20L);
     }
     
     private void startBorderShrink() {
         World world = worldManager.getGameWorld();
         if (world != null) {
-            WorldBorder border = world.getWorldBorder();
-            int playerCount = getAlivePlayers().size();
-            
-            // Dynamic border shrink based on player count
-            int startSize = border.getSize();
-            int endSize = Math.max(50, Math.min(100, playerCount * 25)); // 25 blocks per player, min 50, max 100
-            int shrinkTime = Math.max(300, Math.min(900, playerCount * 60)); // 1-15 minutes based on player count
-            
-            border.setSize(endSize, shrinkTime);
-            
-            broadcast(ChatColor.RED + "The border has started shrinking!");
-            for (Player player : players) {
-                player.playSound(player.getLocation(), Sound.BLOCK_PORTAL_TRIGGER, 1.0f, 1.0f);
-            }
-            
-            // Schedule periodic warnings
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (gameState != GameState.ACTIVE) {
-                        cancel();
-                        return;
-                    }
-                    
-                    double size = border.getSize();
-                    if (size <= endSize) {
-                        cancel();
-                        return;
-                    }
-                    
-                    broadcast(ChatColor.YELLOW + "Border size: " + (int)size + " blocks");
-                }
-            }.runTaskTimer(this, 1200L, 1200L); // Every minute
+            // The timeline takes it from here: shrinks, holds, warnings and the deathmatch
+            borderTimeline.start(world, getAlivePlayers().size());
         }
     }
     
     public void eliminatePlayer(Player player) {
         if (playerStates.containsKey(player)) {
             playerStates.put(player, PlayerState.DEAD);
+            sidebarManager.markDirty();
+            spectatorManager.invalidateTracking(player);
+            spectatorManager.getMenu().removeTribute(player);
             spectatorManager.setSpectator(player);
             
             Player killer = player.getKiller();
+            replayManager.recordDeath(player, killer);
+            matchHistoryManager.recordElimination(player, killer, getAlivePlayers().size() + 1);
+            if (killer != null) {
+                spectatorManager.getMenu().markDirty(killer);
+            }
             gameManager.handleDeath(player, killer);
             
+            borderTimeline.onElimination(getAlivePlayers().size());
             checkWinner();
         }
     }
@@ -450,6 +522,7 @@ public class HungerGames extends JavaPlugin {
         List<Player> alivePlayers = getAlivePlayers();
         if (alivePlayers.size() == 1) {
             Player winner = alivePlayers.get(0);
+            matchHistoryManager.recordWinner(winner);
             gameManager.handleWin(winner);
             endGame();
         }
@@ -463,10 +536,18 @@ public class HungerGames extends JavaPlugin {
             
             try {
                 gameState = GameState.WAITING;
+                sidebarManager.markDirty();
                 saveGameState();
                 
                 // Stop bot AI
                 botManager.stopBotAI();
+                replayManager.stopRecording();
+                matchHistoryManager.endMatch();
+                hudManager.reset();
+                borderTimeline.stop();
+                chunkRetention.stop();
+                spectatorManager.getMenu().clear();
+                pathfinder.clear();
                 
                 List<Player> gamePlayers = new ArrayList<>(players);
                 for (Player player : gamePlayers) {
@@ -486,7 +567,7 @@ public class HungerGames extends JavaPlugin {
                     worldManager.deleteGameWorld();
                 }
                 
-                broadcast(ChatColor.GOLD + "Game has ended! Use /hg join to play again!");
+                broadcast(MessageService.Audience.ALL, ChatColor.GOLD + "Game has ended! Use /hg join to play again!");
             } catch (Exception e) {
                 getLogger().severe("Error ending game: " + e.getMessage());
             } finally {
@@ -499,6 +580,7 @@ public class HungerGames extends JavaPlugin {
                 if (worldManager != null) {
                     worldManager.deleteGameWorld();
                 }
+                matchRandom.reset();
             }
         }
     }
@@ -510,7 +592,7 @@ public class HungerGames extends JavaPlugin {
             state.set("game-in-progress", gameState != GameState.WAITING);
             state.set("game-state", gameState.name());
             state.set("grace-end-time", graceEndTime);
-            state.save(stateFile);
+            ioManager.writeFile("gamestate", stateFile, state.saveToString());
         } catch (Exception e) {
             getLogger().warning("Failed to save game state: " + e.getMessage());
         }
@@ -529,8 +611,9 @@ public class HungerGames extends JavaPlugin {
                 gameManager.savePlayerState(player);
                 players.add(player);
                 playerStates.put(player, PlayerState.ALIVE);
+                sidebarManager.markDirty();
                 player.sendMessage(ChatColor.GREEN + "You have joined the game!");
-                broadcast(ChatColor.YELLOW + player.getName() + " has joined! (" + players.size() + " players)");
+                broadcastFeed(ChatColor.YELLOW + player.getName() + " has joined! (" + players.size() + " players)");
                 gameManager.checkAutoStart();
             }
         }
@@ -542,13 +625,15 @@ public class HungerGames extends JavaPlugin {
         synchronized (playerLock) {
             if (players.remove(player)) {
                 playerStates.remove(player);
+                spectatorManager.getMenu().removeTribute(player);
+                sidebarManager.markDirty();
                 if (player.isOnline()) {
                     gameManager.restorePlayerState(player);
                     player.sendMessage(ChatColor.GREEN + "You have left the game!");
                 } else {
                     gameManager.handlePlayerQuit(player);
                 }
-                broadcast(ChatColor.YELLOW + player.getName() + " has left! (" + players.size() + " players)");
+                broadcastFeed(ChatColor.YELLOW + player.getName() + " has left! (" + players.size() + " players)");
                 
                 if (gameState == GameState.ACTIVE) {
                     checkWinner();
@@ -569,10 +654,24 @@ public class HungerGames extends JavaPlugin {
         return alivePlayers;
     }
     
+    /**
+     * Sends a message to everyone in the arena. Use the {@link MessageService.Audience}
+     * overload for anything the rest of the server should see.
+     */
     public void broadcast(String message) {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.sendMessage(message);
-        }
+        messageService.send(MessageService.Audience.ARENA, message);
+    }
+    
+    public void broadcast(MessageService.Audience audience, String message) {
+        messageService.send(audience, message);
+    }
+    
+    /**
+     * Broadcasts a feed message, such as a join or an elimination, which may
+     * be dropped for players receiving too many.
+     */
+    public void broadcastFeed(String message) {
+        messageService.sendFeed(MessageService.Audience.ARENA, message);
     }
     
     public GameState getGameState() {
@@ -591,6 +690,10 @@ public class HungerGames extends JavaPlugin {
         return worldManager.getGameWorld();
     }
     
+    public WorldManager getWorldManager() {
+        return worldManager;
+    }
+    
     public GameManager getGameManager() {
         return gameManager;
     }
@@ -606,6 +709,78 @@ public class HungerGames extends JavaPlugin {
     public BotManager getBotManager() {
         return botManager;
     }
+    
+    public IOManager getIOManager() {
+        return ioManager;
+    }
+    
+    public ReplayManager getReplayManager() {
+        return replayManager;
+    }
+    
+    public MatchHistoryManager getMatchHistoryManager() {
+        return matchHistoryManager;
+    }
+    
+    public TickMonitor getTickMonitor() {
+        return tickMonitor;
+    }
+    
+    public LoadTestManager getLoadTestManager() {
+        return loadTestManager;
+    }
+    
+    public SidebarManager getSidebarManager() {
+        return sidebarManager;
+    }
+    
+    public MessageService getMessageService() {
+        return messageService;
+    }
+    
+    public BorderTimeline getBorderTimeline() {
+        return borderTimeline;
+    }
+    
+    public ChunkRetentionManager getChunkRetention() {
+        return chunkRetention;
+    }
+    
+    public HudManager getHudManager() {
+        return hudManager;
+    }
+    
+    public ItemRegistry getItemRegistry() {
+        return itemRegistry;
+    }
+    
+    public SpatialGrid getSpatialGrid() {
+        return spatialGrid;
+    }
+    
+    public Pathfinder getPathfinder() {
+        return pathfinder;
+    }
+    
+    /**
+     * The bot adapter for this server version, or null if bots aren't
+     * supported on it.
+     */
+    public BotAdapter getBotAdapter() {
+        return botAdapter;
+    }
+    
+    public PracticeBotManager getPracticeBotManager() {
+        return practiceBotManager;
+    }
+    
+    public BotBehaviors getBotBehaviors() {
+        return botBehaviors;
+    }
+    
+    public MatchRandom getMatchRandom() {
+        return matchRandom;
+    }
 }
 
 enum GameState {
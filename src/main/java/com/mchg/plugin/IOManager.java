@@ -0,0 +1,248 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class IOManager {
+    private final HungerGames plugin;
+    private final BlockingQueue<IOTask> queue;
+    private final Map<String, IOTask> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingUnkeyed = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong overflowTasks = new AtomicLong();
+    private final AtomicLong failedTasks = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private volatile long maxLatencyNanos = 0;
+
+    private static final int UNKEYED_CAPACITY = 1024;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    public IOManager(HungerGames plugin) {
+        this.plugin = plugin;
+        // Unbounded, but keyed writes are capped by coalescing to one per key, and the rest by pendingUnkeyed
+        this.queue = new LinkedBlockingQueue<>();
+        this.worker = new Thread(this::runWorker, "HungerGames-IO");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a write under the given key. A write that is still waiting in the
+     * queue is replaced rather than duplicated, so only the latest data for a key
+     * reaches the disk.
+     */
+    public void write(String key, IORunnable job) {
+        boolean[] enqueue = new boolean[1];
+        IOTask task = pendingWrites.compute(key, (k, existing) -> {
+            if (existing != null) {
+                existing.job = job;
+                coalescedWrites.incrementAndGet();
+                return existing;
+            }
+            enqueue[0] = true;
+            return new IOTask(key, job);
+        });
+        if (enqueue[0]) {
+            enqueue(task);
+        }
+    }
+
+    public void writeFile(String key, File file, String contents) {
+        write(key, () -> {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            File temp = new File(parent, file.getName() + ".tmp");
+            Files.write(temp.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        });
+    }
+
+    /**
+     * Queues un-keyed work. If too much is already waiting, the job is dropped
+     * straight away rather than making the caller wait.
+     *
+     * @return false if the job was dropped
+     */
+    public boolean submit(IORunnable job) {
+        return enqueue(new IOTask(null, job));
+    }
+
+    /**
+     * Runs the loader on the I/O thread and hands its result back to the main thread.
+     */
+    public <T> void read(Callable<T> loader, Consumer<T> callback) {
+        read(loader, callback, null);
+    }
+
+    /**
+     * Like {@link #read(Callable, Consumer)}, but if the loader throws, the
+     * failure, or the read being dropped from a full queue, is handed to
+     * onFailure on the main thread instead of the callback never running.
+     */
+    public <T> void read(Callable<T> loader, Consumer<T> callback, Consumer<Exception> onFailure) {
+        boolean queued = submit(() -> {
+            T result;
+            try {
+                result = loader.call();
+            } catch (Exception e) {
+                if (onFailure != null && plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, () -> onFailure.accept(e));
+                }
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(result));
+            }
+        });
+        if (!queued && onFailure != null && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> onFailure.accept(new IOException("I/O queue is full")));
+        }
+    }
+
+    private boolean enqueue(IOTask task) {
+        if (!running) {
+            // Shutting down - the worker may already be gone, so run on the caller rather than lose data
+            execute(task);
+            return true;
+        }
+        
+        // Keyed writes carry player data and are never dropped; only loose reads and jobs are
+        if (task.key == null && pendingUnkeyed.incrementAndGet() > UNKEYED_CAPACITY) {
+            pendingUnkeyed.decrementAndGet();
+            overflowTasks.incrementAndGet();
+            plugin.getLogger().warning("I/O queue is full, dropped a task");
+            return false;
+        }
+        queue.add(task);
+        return true;
+    }
+
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                IOTask task = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    execute(task);
+                    if (task.key == null) {
+                        pendingUnkeyed.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    private void execute(IOTask task) {
+        IORunnable job;
+        if (task.key != null) {
+            IORunnable[] latest = new IORunnable[1];
+            pendingWrites.computeIfPresent(task.key, (k, existing) -> {
+                if (existing == task) {
+                    latest[0] = task.job;
+                    return null;
+                }
+                return existing;
+            });
+            job = latest[0] != null ? latest[0] : task.job;
+        } else {
+            job = task.job;
+        }
+        
+        try {
+            job.run();
+        } catch (Exception e) {
+            failedTasks.incrementAndGet();
+            plugin.getLogger().warning("I/O task " + (task.key != null ? task.key + " " : "") + "failed: " + e.getMessage());
+        } finally {
+            long latency = System.nanoTime() - task.queuedAt;
+            totalLatencyNanos.addAndGet(latency);
+            completedTasks.incrementAndGet();
+            if (latency > maxLatencyNanos) {
+                maxLatencyNanos = latency;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting queued work and waits up to the deadline for pending writes to finish.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            plugin.getLogger().warning("I/O flush timed out after " + timeoutMillis + "ms, " + queue.size() + " tasks dropped");
+            worker.interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    public long getOverflowTasks() {
+        return overflowTasks.get();
+    }
+
+    public long getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long completed = completedTasks.get();
+        return completed == 0 ? 0 : totalLatencyNanos.get() / (double) completed / 1_000_000.0;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    public interface IORunnable {
+        void run() throws IOException;
+    }
+
+    private static class IOTask {
+        final String key;
+        final long queuedAt;
+        volatile IORunnable job;
+        
+        IOTask(String key, IORunnable job) {
+            this.key = key;
+            this.job = job;
+            this.queuedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mchg.plugin;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Identifies the plugin's own items by a one-byte tag in their persistent data
+ * instead of by display name, and dispatches uses of them to a handler. Lookup
+ * is an array index, and items of a material no plugin item uses are rejected
+ * before their meta is ever touched.
+ */
+public class ItemRegistry {
+    // Item ids, unique across the plugin
+    public static final byte SPECTATOR_TRACKER = 1;
+    public static final byte SPECTATOR_TELEPORTER = 2;
+    public static final byte SPECTATOR_NIGHT_VISION = 3;
+    public static final byte SPECTATOR_SPEED = 4;
+    
+    private final NamespacedKey key;
+    private final ItemHandler[] handlers = new ItemHandler[256];
+    private final boolean[] taggedMaterials = new boolean[Material.values().length];
+    
+    public ItemRegistry(HungerGames plugin) {
+        this.key = new NamespacedKey(plugin, "item");
+    }
+    
+    /**
+     * Registers a handler for the given id and returns a tagged template item.
+     * Hand out clones of the template.
+     */
+    public ItemStack register(byte id, Material material, String name, ItemHandler handler) {
+        if (handlers[id & 0xFF] != null) {
+            throw new IllegalArgumentException("Item id " + id + " is already registered");
+        }
+        handlers[id & 0xFF] = handler;
+        taggedMaterials[material.ordinal()] = true;
+        
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(name);
+            meta.getPersistentDataContainer().set(key, PersistentDataType.BYTE, id);
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+    
+    /**
+     * Runs the handler for a tagged item.
+     *
+     * @return whether the item was one of ours
+     */
+    public boolean dispatch(Player player, ItemStack item) {
+        if (item == null || !taggedMaterials[item.getType().ordinal()] || !item.hasItemMeta()) {
+            return false;
+        }
+        
+        Byte id = item.getItemMeta().getPersistentDataContainer().get(key, PersistentDataType.BYTE);
+        if (id == null) return false;
+        
+        ItemHandler handler = handlers[id & 0xFF];
+        if (handler == null) return false;
+        
+        handler.handle(player, item);
+        return true;
+    }
+    
+    @FunctionalInterface
+    public interface ItemHandler {
+        void handle(Player player, ItemStack item);
+    }
+}
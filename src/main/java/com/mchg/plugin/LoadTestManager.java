@@ -0,0 +1,282 @@
+package com.mchg.plugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs a bot-only match as fast as the game allows and measures what it costs
+ * the server: how long each tick took, every garbage collection seen by the
+ * collector MX beans, and the per-tick timings the bot, practice bot and
+ * replay subsystems already keep. Countdown, grace and border phases are
+ * shortened so the arena closes within the requested time. The report with
+ * p50/p95/p99/max for each series goes to the data folder when the match has
+ * a winner or runs out of time.
+ */
+public class LoadTestManager {
+    static final int COUNTDOWN_SECONDS = 5;
+    static final int GRACE_SECONDS = 10;
+    private static final int MIN_SHRINK_SECONDS = 60;
+    private static final long START_TIMEOUT_TICKS = 20L * 60; // World creation and countdown
+    
+    private final HungerGames plugin;
+    private BukkitRunnable task;
+    private UUID requester;
+    private int botCount;
+    private int minutes;
+    private long startedAt;
+    private long seed;
+    
+    private final Samples tickMillis = new Samples();
+    private final Samples gcPauseMillis = new Samples();
+    private final Samples botMicros = new Samples();
+    private final Samples practiceMicros = new Samples();
+    private final Samples replayMicros = new Samples();
+    private List<GarbageCollectorMXBean> collectors;
+    private long[] gcCounts;
+    private long[] gcTimes;
+    
+    public LoadTestManager(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Adds the bots and starts the match. Only one test runs at a time, and
+     * only while no match is in progress.
+     *
+     * @return an error to show the requester, or null once the test is running
+     */
+    public String start(Player requester, int bots, int minutes) {
+        if (isRunning()) {
+            return "A load test is already running!";
+        }
+        if (plugin.getGameState() != GameState.WAITING || !plugin.getPlayers().isEmpty()) {
+            return "The load test needs an empty lobby with no game running!";
+        }
+        
+        this.requester = requester.getUniqueId();
+        this.botCount = bots;
+        this.minutes = minutes;
+        for (int i = 0; i < bots; i++) {
+            if (!plugin.getBotManager().addBot()) {
+                plugin.getBotManager().clearBots();
+                return "Bots aren't supported on this server version!";
+            }
+        }
+        // The test starts the match itself, so the lobby timer the bots set off isn't needed
+        plugin.getGameManager().cancelAutoStart();
+        
+        resetSamples();
+        startedAt = System.currentTimeMillis();
+        seed = plugin.getMatchRandom().getSeed();
+        task = new BukkitRunnable() {
+            long ticks = 0;
+            boolean started = false;
+            
+            @Override
+            public void run() {
+                try {
+                    sample();
+                    ticks++;
+                    
+                    GameState state = plugin.getGameState();
+                    if (state != GameState.WAITING) {
+                        started = true;
+                    } else if (started || ticks > START_TIMEOUT_TICKS) {
+                        // A winner or /hg stop has already ended it, or it never got going
+                        finish(started ? "match ended" : "match failed to start");
+                        return;
+                    }
+                    
+                    if (System.currentTimeMillis() - startedAt >= minutes * 60_000L) {
+                        finish("time limit reached with " + plugin.getAlivePlayers().size() + " alive");
+                        plugin.endGame();
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error sampling load test: " + e.getMessage());
+                }
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+        plugin.startGame();
+        return null;
+    }
+    
+    /**
+     * Ends the running test without a report.
+     */
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    public boolean isRunning() {
+        return task != null;
+    }
+    
+    /**
+     * The border timeline's planned length during a test: half the time
+     * limit, so the final fight gets the other half.
+     */
+    int getShrinkSeconds() {
+        return Math.max(MIN_SHRINK_SECONDS, minutes * 30);
+    }
+    
+    private void resetSamples() {
+        tickMillis.clear();
+        gcPauseMillis.clear();
+        botMicros.clear();
+        practiceMicros.clear();
+        replayMicros.clear();
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        gcCounts = new long[collectors.size()];
+        gcTimes = new long[collectors.size()];
+        for (int i = 0; i < collectors.size(); i++) {
+            gcCounts[i] = collectors.get(i).getCollectionCount();
+            gcTimes[i] = collectors.get(i).getCollectionTime();
+        }
+    }
+    
+    private void sample() {
+        // The server's own timing of the last tick, not the ~50ms between scheduler runs
+        tickMillis.add(plugin.getTickMonitor().getLastTickMillis());
+        botMicros.add(plugin.getBotManager().getLastTickMicros());
+        practiceMicros.add(plugin.getPracticeBotManager().getLastTickMicros());
+        replayMicros.add(plugin.getReplayManager().getSampleMicros());
+        
+        // The beans only give running totals, so a tick with several collections
+        // is split evenly between them
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            long count = collector.getCollectionCount();
+            long time = collector.getCollectionTime();
+            long collections = count - gcCounts[i];
+            if (collections > 0) {
+                double pause = (time - gcTimes[i]) / (double) collections;
+                for (long c = 0; c < collections; c++) {
+                    gcPauseMillis.add(pause);
+                }
+            }
+            gcCounts[i] = count;
+            gcTimes[i] = time;
+        }
+    }
+    
+    private void finish(String outcome) {
+        cancel();
+        
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startedAt));
+        File file = new File(plugin.getDataFolder(), "loadtest-" + stamp + ".txt");
+        double seconds = (System.currentTimeMillis() - startedAt) / 1000.0;
+        long slowTicks = tickMillis.countAbove(50.0);
+        
+        StringBuilder report = new StringBuilder();
+        report.append("HungerGames load test ").append(stamp).append('\n');
+        report.append("Server: ").append(plugin.getServer().getVersion())
+            .append(" (").append(BotAdapter.serverVersion()).append(")\n");
+        report.append("Bots: ").append(botCount).append(", limit ").append(minutes).append(" min, seed ")
+            .append(seed).append('\n');
+        report.append("Outcome: ").append(outcome).append(" after ").append(String.format("%.1f", seconds))
+            .append("s, ").append(tickMillis.size()).append(" ticks\n");
+        report.append('\n');
+        report.append(String.format("%-24s %8s %8s %8s %8s %8s%n", "series", "count", "p50", "p95", "p99", "max"));
+        tickMillis.appendRow(report, "tick time (ms)");
+        gcPauseMillis.appendRow(report, "gc pause (ms)");
+        botMicros.appendRow(report, "bot ai (us)");
+        practiceMicros.appendRow(report, "practice bots (us)");
+        replayMicros.appendRow(report, "replay sample (us)");
+        report.append('\n');
+        report.append("Ticks over 50ms: ").append(slowTicks).append(String.format(" (%.1f%%)",
+            tickMillis.size() == 0 ? 0 : slowTicks * 100.0 / tickMillis.size())).append('\n');
+        report.append("GC time: ").append(String.format("%.0f", gcPauseMillis.sum())).append("ms over ")
+            .append(gcPauseMillis.size()).append(" collections\n");
+        report.append(String.format("Pathfinding: %.2fms avg search%n", plugin.getPathfinder().getAverageSearchMillis()));
+        
+        plugin.getIOManager().writeFile("loadtest-" + stamp, file, report.toString());
+        plugin.getLogger().info("Load test finished (" + outcome + "), report written to " + file.getName());
+        
+        Player player = plugin.getServer().getPlayer(requester);
+        if (player != null) {
+            player.sendMessage(ChatColor.GREEN + "Load test finished: " + outcome);
+            player.sendMessage(ChatColor.YELLOW + "Tick p50/p95/p99/max: " + ChatColor.WHITE +
+                String.format("%.1f/%.1f/%.1f/%.1f", tickMillis.percentile(50), tickMillis.percentile(95),
+                    tickMillis.percentile(99), tickMillis.max()) + "ms");
+            player.sendMessage(ChatColor.GRAY + "Full report: " + file.getName());
+        }
+    }
+    
+    /**
+     * A growable series of samples, sorted once when the report is written.
+     */
+    private static class Samples {
+        private double[] values = new double[1024];
+        private int size = 0;
+        private boolean sorted = true;
+        
+        void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            sorted = false;
+        }
+        
+        void clear() {
+            size = 0;
+            sorted = true;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        double sum() {
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+        
+        long countAbove(double threshold) {
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                if (values[i] > threshold) count++;
+            }
+            return count;
+        }
+        
+        /**
+         * Nearest-rank percentile, 0 when there are no samples.
+         */
+        double percentile(double percent) {
+            if (size == 0) return 0;
+            if (!sorted) {
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percent / 100.0 * size);
+            return values[Math.max(0, rank - 1)];
+        }
+        
+        double max() {
+            return percentile(100);
+        }
+        
+        void appendRow(StringBuilder report, String name) {
+            report.append(String.format("%-24s %8d %8.2f %8.2f %8.2f %8.2f%n", name, size,
+                percentile(50), percentile(95), percentile(99), max()));
+        }
+    }
+}
@@ -11,29 +11,39 @@ import org.bukkit.potion.PotionData;
 import org.bukkit.potion.PotionType;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class LootManager {
     private final HungerGames plugin;
     private final Map<String, List<WeightedItem>> lootTables;
-    private final Random random;
     
     public LootManager(HungerGames plugin) {
         this.plugin = plugin;
         this.lootTables = new HashMap<>();
-        this.random = new Random();
         loadLootTables();
     }
     
     private void loadLootTables() {
-        // Create default loot tables if they don't exist
         File lootFile = new File(plugin.getDataFolder(), "loot.yml");
-        if (!lootFile.exists()) {
-            plugin.saveResource("loot.yml", false);
-        }
-        
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(lootFile);
-        
+        // onEnable has already copied the default over if there wasn't one
+        plugin.getIOManager().read(() -> {
+            return new String(Files.readAllBytes(lootFile.toPath()), StandardCharsets.UTF_8);
+        }, contents -> {
+            YamlConfiguration config = new YamlConfiguration();
+            try {
+                config.loadFromString(contents);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to parse loot.yml: " + e.getMessage());
+                return;
+            }
+            parseLootTables(config);
+        });
+    }
+    
+    private void parseLootTables(YamlConfiguration config) {
         // Load each loot table
         for (String tableName : config.getKeys(false)) {
             ConfigurationSection tableSection = config.getConfigurationSection(tableName);
@@ -92,6 +102,7 @@ public class LootManager {
         List<WeightedItem> items = lootTables.get(tableName);
         if (items == null || items.isEmpty()) return null;
         
+        RandomGenerator random = plugin.getMatchRandom().stream("loot");
         int totalWeight = items.stream().mapToInt(item -> item.weight).sum();
         int randomWeight = random.nextInt(totalWeight);
         
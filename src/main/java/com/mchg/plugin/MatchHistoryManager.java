@@ -0,0 +1,127 @@
+package com.mchg.plugin;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+public class MatchHistoryManager {
+    private final HungerGames plugin;
+    private final File historyFolder;
+    private final BlockingQueue<String> pendingLines;
+    private MatchRecord current;
+    private long droppedRecords = 0;
+    
+    private static final int MAX_PENDING_RECORDS = 64;
+    private static final int CORNUCOPIA_RADIUS = 5;
+    static final String FILE_PREFIX = "matches-";
+    static final String FILE_SUFFIX = ".jsonl.gz";
+    
+    public MatchHistoryManager(HungerGames plugin) {
+        this.plugin = plugin;
+        this.historyFolder = new File(plugin.getDataFolder(), "history");
+        this.pendingLines = new ArrayBlockingQueue<>(MAX_PENDING_RECORDS);
+    }
+    
+    public void beginMatch(String id, World world, List<Player> players, Set<UUID> bots) {
+        current = new MatchRecord(id, world.getName(), world.getSeed(), players, bots);
+        plugin.getTickMonitor().resetWindow();
+    }
+    
+    public void recordElimination(Player victim, Player killer, int placement) {
+        if (current != null) {
+            current.recordElimination(victim.getUniqueId(), killer != null ? killer.getUniqueId() : null, placement);
+        }
+    }
+    
+    public void recordWinner(Player winner) {
+        if (current != null) {
+            current.recordWinner(winner.getUniqueId());
+        }
+    }
+    
+    public void recordChestOpen(Player player, int x, int z) {
+        if (current != null) {
+            boolean cornucopia = Math.abs(x) <= CORNUCOPIA_RADIUS && Math.abs(z) <= CORNUCOPIA_RADIUS;
+            current.recordChestOpen(player.getUniqueId(), cornucopia ? "cornucopia" : "regular");
+        }
+    }
+    
+    public void recordBorder(double size, long shrinkSeconds) {
+        if (current != null) {
+            current.recordBorder(size, shrinkSeconds);
+        }
+    }
+    
+    public int getKills(UUID uuid) {
+        return current != null ? current.getKills(uuid) : 0;
+    }
+    
+    public void endMatch() {
+        if (current == null) return;
+        
+        MatchRecord finished = current;
+        current = null;
+        TickMonitor ticks = plugin.getTickMonitor();
+        finished.finish(ticks.getWindowAverageMillis(), ticks.getWindowPeakMillis());
+        
+        String line;
+        try {
+            line = finished.toJson();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to serialize match history: " + e.getMessage());
+            return;
+        }
+        
+        // Never wait on the writer: if it has fallen this far behind, drop the record
+        if (!pendingLines.offer(line)) {
+            droppedRecords++;
+            plugin.getLogger().warning("Match history writer is behind, dropped a record");
+            return;
+        }
+        plugin.getIOManager().write("match-history", this::drainPending);
+    }
+    
+    private void drainPending() throws IOException {
+        if (pendingLines.isEmpty()) return;
+        if (!historyFolder.exists()) {
+            historyFolder.mkdirs();
+        }
+        
+        // Each drain appends a new gzip member; readers see one continuous stream
+        File file = new File(historyFolder, FILE_PREFIX + LocalDate.now() + FILE_SUFFIX);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, true)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = pendingLines.poll()) != null) {
+                out.write(line);
+                out.write('\n');
+            }
+        }
+    }
+    
+    public File getHistoryFolder() {
+        return historyFolder;
+    }
+    
+    public int getPendingRecords() {
+        return pendingLines.size();
+    }
+    
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+}
@@ -0,0 +1,177 @@
+package com.mchg.plugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Aggregates the daily match history files. Each file is streamed line by line so
+ * memory stays flat no matter how many matches a day holds, and files are folded in
+ * parallel before the per-file results are merged.
+ */
+public final class MatchHistoryReader {
+    private MatchHistoryReader() {
+    }
+    
+    public static Report aggregate(File folder, LocalDate from, LocalDate to, int parallelism)
+            throws InterruptedException, ExecutionException {
+        List<File> files = listFiles(folder, from, to);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            return pool.submit(() -> files.parallelStream()
+                .map(MatchHistoryReader::readFile)
+                .reduce(new Report(), Report::merge)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    static List<File> listFiles(File folder, LocalDate from, LocalDate to) {
+        List<File> result = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) ->
+            name.startsWith(MatchHistoryManager.FILE_PREFIX) && name.endsWith(MatchHistoryManager.FILE_SUFFIX));
+        if (files == null) return result;
+        
+        for (File file : files) {
+            String name = file.getName();
+            String date = name.substring(MatchHistoryManager.FILE_PREFIX.length(),
+                name.length() - MatchHistoryManager.FILE_SUFFIX.length());
+            try {
+                LocalDate day = LocalDate.parse(date);
+                if (!day.isBefore(from) && !day.isAfter(to)) {
+                    result.add(file);
+                }
+            } catch (DateTimeParseException e) {
+                // Not one of ours
+            }
+        }
+        return result;
+    }
+    
+    static Report readFile(File file) {
+        Report report = new Report();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file), 8192), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    report.add(JsonParser.parseString(line).getAsJsonObject());
+                } catch (RuntimeException e) {
+                    report.corruptRecords++;
+                }
+            }
+        } catch (IOException e) {
+            // A file still being appended to can end mid-member; keep what was read
+            report.corruptFiles++;
+        }
+        return report;
+    }
+    
+    public static class Report {
+        public int matches = 0;
+        public long totalDurationSeconds = 0;
+        public long totalParticipants = 0;
+        public long totalKills = 0;
+        public int botWins = 0;
+        public double tickAverageSum = 0;
+        public double tickPeak = 0;
+        public int corruptRecords = 0;
+        public int corruptFiles = 0;
+        public final Map<String, Integer> winsByName = new HashMap<>();
+        public final Map<String, Integer> killsByName = new HashMap<>();
+        public final Map<String, Integer> lootOpened = new HashMap<>();
+        public final Map<String, long[]> placementByName = new HashMap<>(); // name -> {sum, games}
+        
+        void add(JsonObject match) {
+            matches++;
+            totalDurationSeconds += match.get("duration").getAsLong();
+            
+            JsonElement winner = match.get("winner");
+            String winnerId = winner != null && !winner.isJsonNull() ? winner.getAsString() : null;
+            for (JsonElement element : match.getAsJsonArray("participants")) {
+                JsonObject participant = element.getAsJsonObject();
+                String name = participant.get("name").getAsString();
+                int kills = participant.get("kills").getAsInt();
+                int placement = participant.get("placement").getAsInt();
+                
+                totalParticipants++;
+                totalKills += kills;
+                if (kills > 0) {
+                    killsByName.merge(name, kills, Integer::sum);
+                }
+                if (placement > 0) {
+                    long[] entry = placementByName.computeIfAbsent(name, k -> new long[2]);
+                    entry[0] += placement;
+                    entry[1]++;
+                }
+                if (participant.get("uuid").getAsString().equals(winnerId)) {
+                    winsByName.merge(name, 1, Integer::sum);
+                    if (participant.get("bot").getAsBoolean()) {
+                        botWins++;
+                    }
+                }
+            }
+            
+            for (Map.Entry<String, JsonElement> entry : match.getAsJsonObject("loot").entrySet()) {
+                lootOpened.merge(entry.getKey(), entry.getValue().getAsInt(), Integer::sum);
+            }
+            
+            JsonObject tick = match.getAsJsonObject("tick");
+            tickAverageSum += tick.get("avg").getAsDouble();
+            tickPeak = Math.max(tickPeak, tick.get("peak").getAsDouble());
+        }
+        
+        Report merge(Report other) {
+            Report merged = new Report();
+            for (Report report : new Report[] {this, other}) {
+                merged.matches += report.matches;
+                merged.totalDurationSeconds += report.totalDurationSeconds;
+                merged.totalParticipants += report.totalParticipants;
+                merged.totalKills += report.totalKills;
+                merged.botWins += report.botWins;
+                merged.tickAverageSum += report.tickAverageSum;
+                merged.tickPeak = Math.max(merged.tickPeak, report.tickPeak);
+                merged.corruptRecords += report.corruptRecords;
+                merged.corruptFiles += report.corruptFiles;
+                report.winsByName.forEach((k, v) -> merged.winsByName.merge(k, v, Integer::sum));
+                report.killsByName.forEach((k, v) -> merged.killsByName.merge(k, v, Integer::sum));
+                report.lootOpened.forEach((k, v) -> merged.lootOpened.merge(k, v, Integer::sum));
+                report.placementByName.forEach((k, v) -> {
+                    long[] entry = merged.placementByName.computeIfAbsent(k, key -> new long[2]);
+                    entry[0] += v[0];
+                    entry[1] += v[1];
+                });
+            }
+            return merged;
+        }
+        
+        public double getAverageDurationSeconds() {
+            return matches == 0 ? 0 : totalDurationSeconds / (double) matches;
+        }
+        
+        public double getAverageParticipants() {
+            return matches == 0 ? 0 : totalParticipants / (double) matches;
+        }
+        
+        public double getAverageTickMillis() {
+            return matches == 0 ? 0 : tickAverageSum / matches;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mchg.plugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Every random choice a match makes comes from a named stream derived from
+ * one match seed, so each subsystem's sequence doesn't depend on how much
+ * the others drew. Normally the seed is new each match. In deterministic
+ * mode it comes from the config and bots think in a fixed order, so a
+ * bot-only match plays out the same way on every run and can be compared
+ * between builds.
+ *
+ * Streams aren't thread safe; each one is drawn from by one thread at a time.
+ */
+public class MatchRandom {
+    private final HungerGames plugin;
+    private final Map<String, SplittableRandom> streams = new ConcurrentHashMap<>();
+    private volatile boolean deterministic = false;
+    private long configuredSeed = 0;
+    private volatile long seed;
+    
+    public MatchRandom(HungerGames plugin) {
+        this.plugin = plugin;
+        reset();
+    }
+    
+    public void configure(boolean deterministic, long seed) {
+        this.deterministic = deterministic;
+        this.configuredSeed = seed;
+        reset();
+    }
+    
+    /**
+     * Starts the next match's streams. The new seed is the configured one in
+     * deterministic mode, otherwise fresh.
+     */
+    public void reset() {
+        seed = deterministic ? configuredSeed : ThreadLocalRandom.current().nextLong();
+        streams.clear();
+        if (deterministic) {
+            plugin.getLogger().info("Deterministic match, seed " + seed);
+        }
+    }
+    
+    /**
+     * The stream with this name for the current match. The same name gives
+     * the same sequence for the same seed.
+     */
+    public SplittableRandom stream(String name) {
+        return streams.computeIfAbsent(name, key -> new SplittableRandom(derive(seed, key)));
+    }
+    
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Fisher-Yates shuffle, for generators that aren't a {@link java.util.Random}.
+     */
+    public static <T> void shuffle(List<T> list, RandomGenerator random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            T swap = list.get(i);
+            list.set(i, list.get(j));
+            list.set(j, swap);
+        }
+    }
+    
+    private static long derive(long seed, String name) {
+        // FNV-1a over the name, then a final mix so similar names land far apart
+        long hash = seed ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
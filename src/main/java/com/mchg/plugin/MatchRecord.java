@@ -0,0 +1,186 @@
+package com.mchg.plugin;
+
+import com.google.gson.stream.JsonWriter;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Summary of one match, built up while the game runs and serialized to a single
+ * JSON line when it ends.
+ */
+class MatchRecord {
+    private final String id;
+    private final String worldName;
+    private final long worldSeed;
+    private final long startTime;
+    private long endTime;
+    private final Map<UUID, Participant> participants = new LinkedHashMap<>();
+    private final List<long[]> borderTimeline = new ArrayList<>();
+    private final List<Kill> kills = new ArrayList<>();
+    private final Map<String, Integer> lootOpened = new HashMap<>();
+    private UUID winner;
+    private double averageTickMillis;
+    private double peakTickMillis;
+    
+    MatchRecord(String id, String worldName, long worldSeed, List<Player> players, Set<UUID> bots) {
+        this.id = id;
+        this.worldName = worldName;
+        this.worldSeed = worldSeed;
+        this.startTime = System.currentTimeMillis();
+        for (Player player : players) {
+            participants.put(player.getUniqueId(),
+                new Participant(player.getName(), bots.contains(player.getUniqueId())));
+        }
+    }
+    
+    void recordElimination(UUID victim, UUID killer, int placement) {
+        Participant participant = participants.get(victim);
+        if (participant == null) return;
+        
+        participant.placement = placement;
+        participant.eliminatedAt = elapsedSeconds();
+        Participant killerParticipant = killer != null ? participants.get(killer) : null;
+        if (killerParticipant != null) {
+            killerParticipant.kills++;
+            kills.add(new Kill(killer, victim, participant.eliminatedAt));
+        } else {
+            kills.add(new Kill(null, victim, participant.eliminatedAt));
+        }
+    }
+    
+    void recordWinner(UUID uuid) {
+        Participant participant = participants.get(uuid);
+        if (participant == null) return;
+        
+        winner = uuid;
+        participant.placement = 1;
+    }
+    
+    void recordChestOpen(UUID uuid, String tier) {
+        Participant participant = participants.get(uuid);
+        if (participant == null) return;
+        
+        participant.chestsOpened++;
+        lootOpened.merge(tier, 1, Integer::sum);
+    }
+    
+    void recordBorder(double size, long shrinkSeconds) {
+        borderTimeline.add(new long[] {elapsedSeconds(), (long) size, shrinkSeconds});
+    }
+    
+    void finish(double averageTickMillis, double peakTickMillis) {
+        this.endTime = System.currentTimeMillis();
+        this.averageTickMillis = averageTickMillis;
+        this.peakTickMillis = peakTickMillis;
+    }
+    
+    private long elapsedSeconds() {
+        return (System.currentTimeMillis() - startTime) / 1000;
+    }
+    
+    String toJson() throws IOException {
+        StringWriter buffer = new StringWriter(1024);
+        try (JsonWriter json = new JsonWriter(buffer)) {
+            json.beginObject();
+            json.name("id").value(id);
+            json.name("world").value(worldName);
+            json.name("seed").value(worldSeed);
+            json.name("start").value(startTime);
+            json.name("end").value(endTime);
+            json.name("duration").value((endTime - startTime) / 1000);
+            json.name("winner").value(winner != null ? winner.toString() : null);
+            
+            json.name("participants").beginArray();
+            for (Map.Entry<UUID, Participant> entry : participants.entrySet()) {
+                Participant participant = entry.getValue();
+                json.beginObject();
+                json.name("uuid").value(entry.getKey().toString());
+                json.name("name").value(participant.name);
+                json.name("bot").value(participant.bot);
+                json.name("placement").value(participant.placement);
+                json.name("kills").value(participant.kills);
+                json.name("chests").value(participant.chestsOpened);
+                json.name("eliminated").value(participant.eliminatedAt);
+                json.endObject();
+            }
+            json.endArray();
+            
+            json.name("kills").beginArray();
+            for (Kill kill : kills) {
+                json.beginObject();
+                json.name("killer").value(kill.killer != null ? kill.killer.toString() : null);
+                json.name("victim").value(kill.victim.toString());
+                json.name("time").value(kill.time);
+                json.endObject();
+            }
+            json.endArray();
+            
+            json.name("border").beginArray();
+            for (long[] entry : borderTimeline) {
+                json.beginObject();
+                json.name("time").value(entry[0]);
+                json.name("size").value(entry[1]);
+                json.name("seconds").value(entry[2]);
+                json.endObject();
+            }
+            json.endArray();
+            
+            json.name("loot").beginObject();
+            for (Map.Entry<String, Integer> entry : lootOpened.entrySet()) {
+                json.name(entry.getKey()).value(entry.getValue());
+            }
+            json.endObject();
+            
+            json.name("tick").beginObject();
+            json.name("avg").value(averageTickMillis);
+            json.name("peak").value(peakTickMillis);
+            json.endObject();
+            json.endObject();
+        }
+        return buffer.toString();
+    }
+    
+    int getKills(UUID uuid) {
+        Participant participant = participants.get(uuid);
+        return participant != null ? participant.kills : 0;
+    }
+    
+    int getParticipantCount() {
+        return participants.size();
+    }
+    
+    private static class Participant {
+        final String name;
+        final boolean bot;
+        int placement = 0;
+        int kills = 0;
+        int chestsOpened = 0;
+        long eliminatedAt = -1;
+        
+        Participant(String name, boolean bot) {
+            this.name = name;
+            this.bot = bot;
+        }
+    }
+    
+    private static class Kill {
+        final UUID killer;
+        final UUID victim;
+        final long time;
+        
+        Kill(UUID killer, UUID victim, long time) {
+            this.killer = killer;
+            this.victim = victim;
+            this.time = time;
+        }
+    }
+}
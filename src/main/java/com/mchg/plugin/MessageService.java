@@ -0,0 +1,249 @@
+package com.mchg.plugin;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Delivers chat messages to an audience instead of the whole server. Messages
+ * are queued per recipient and flushed once at the end of the tick, so
+ * everything a player receives in one tick arrives as a single chat message.
+ * Legacy strings are converted to components once and cached. Feed messages
+ * such as joins and eliminations go through a per-player token bucket, and
+ * whatever it drops in a tick is summed up in one line; announcements of the
+ * game's progress are never dropped.
+ */
+public class MessageService {
+    public enum Audience {
+        PARTICIPANTS, // Alive players in the arena
+        SPECTATORS,   // Eliminated players still watching the arena
+        ARENA,        // Participants and spectators
+        LOBBY,        // Online players not in the arena
+        STAFF,        // Anyone with the admin permission
+        ALL
+    }
+    
+    private final HungerGames plugin;
+    private final Map<UUID, Outbox> outboxes = new LinkedHashMap<>();
+    private final Map<UUID, RateLimit> rateLimits = new HashMap<>();
+    private final Map<String, BaseComponent[]> componentCache;
+    private boolean flushScheduled = false;
+    
+    private long messagesQueued = 0;
+    private long messagesSent = 0;
+    private long messagesDropped = 0;
+    private long packetsSent = 0;
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+    
+    private static final int COMPONENT_CACHE_SIZE = 256;
+    private static final double RATE_BURST = 20;
+    private static final double RATE_PER_SECOND = 5;
+    private static final TextComponent NEWLINE = new TextComponent("\n");
+    
+    public MessageService(HungerGames plugin) {
+        this.plugin = plugin;
+        this.componentCache = new LinkedHashMap<String, BaseComponent[]>(COMPONENT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BaseComponent[]> eldest) {
+                return size() > COMPONENT_CACHE_SIZE;
+            }
+        };
+    }
+    
+    /**
+     * Sends an announcement, which the rate limit never drops.
+     */
+    public void send(Audience audience, String message) {
+        send(audience, message, false);
+    }
+    
+    /**
+     * Sends a feed message, which counts against each recipient's rate limit.
+     */
+    public void sendFeed(Audience audience, String message) {
+        send(audience, message, true);
+    }
+    
+    private synchronized void send(Audience audience, String message, boolean feed) {
+        if (!Bukkit.isPrimaryThread()) {
+            // Audiences come from player state that only the main thread may read, and outboxes are only flushed there
+            Bukkit.getScheduler().runTask(plugin, () -> send(audience, message, feed));
+            return;
+        }
+        
+        for (Player player : resolve(audience)) {
+            enqueue(player, message, feed);
+        }
+    }
+    
+    private List<Player> resolve(Audience audience) {
+        List<Player> recipients = new ArrayList<>();
+        Set<UUID> bots = plugin.getBotManager().getBotIds();
+        
+        switch (audience) {
+            case PARTICIPANTS:
+            case SPECTATORS:
+            case ARENA:
+                for (Map.Entry<Player, PlayerState> entry : plugin.getPlayerStates().entrySet()) {
+                    boolean alive = entry.getValue() == PlayerState.ALIVE;
+                    if ((audience == Audience.PARTICIPANTS && !alive) || (audience == Audience.SPECTATORS && alive)) {
+                        continue;
+                    }
+                    recipients.add(entry.getKey());
+                }
+                break;
+            case LOBBY:
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    if (!plugin.getPlayerStates().containsKey(player)) {
+                        recipients.add(player);
+                    }
+                }
+                break;
+            case STAFF:
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    if (player.hasPermission("hungergames.admin")) {
+                        recipients.add(player);
+                    }
+                }
+                break;
+            case ALL:
+                recipients.addAll(Bukkit.getOnlinePlayers());
+                break;
+        }
+        
+        recipients.removeIf(player -> !player.isOnline() || bots.contains(player.getUniqueId()));
+        return recipients;
+    }
+    
+    private void enqueue(Player player, String message, boolean feed) {
+        Outbox outbox = outboxes.computeIfAbsent(player.getUniqueId(), k -> new Outbox(player));
+        if (feed) {
+            outbox.feed.set(outbox.messages.size());
+        }
+        outbox.messages.add(message);
+        messagesQueued++;
+        
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+    
+    private synchronized void flush() {
+        flushScheduled = false;
+        long now = System.nanoTime();
+        List<BaseComponent> combined = new ArrayList<>();
+        
+        for (Outbox outbox : outboxes.values()) {
+            Player player = outbox.player;
+            if (!player.isOnline()) continue;
+            
+            RateLimit limit = rateLimits.computeIfAbsent(player.getUniqueId(), k -> new RateLimit(now));
+            combined.clear();
+            int hidden = 0;
+            for (int i = 0; i < outbox.messages.size(); i++) {
+                if (outbox.feed.get(i) && !limit.tryAcquire(now)) {
+                    messagesDropped++;
+                    hidden++;
+                    continue;
+                }
+                append(combined, outbox.messages.get(i));
+                messagesSent++;
+            }
+            if (hidden > 0) {
+                append(combined, ChatColor.GRAY + "(" + hidden + " more " + (hidden == 1 ? "message" : "messages") + " hidden)");
+            }
+            
+            if (!combined.isEmpty()) {
+                player.spigot().sendMessage(combined.toArray(new BaseComponent[0]));
+                packetsSent++;
+            }
+        }
+        outboxes.clear();
+    }
+    
+    private void append(List<BaseComponent> combined, String message) {
+        if (!combined.isEmpty()) {
+            combined.add(NEWLINE);
+        }
+        Collections.addAll(combined, toComponents(message));
+    }
+    
+    private BaseComponent[] toComponents(String message) {
+        BaseComponent[] components = componentCache.get(message);
+        if (components != null) {
+            cacheHits++;
+            return components;
+        }
+        cacheMisses++;
+        components = TextComponent.fromLegacyText(message);
+        componentCache.put(message, components);
+        return components;
+    }
+    
+    public synchronized void forget(Player player) {
+        rateLimits.remove(player.getUniqueId());
+        outboxes.remove(player.getUniqueId());
+    }
+    
+    public synchronized long getMessagesQueued() {
+        return messagesQueued;
+    }
+    
+    public synchronized long getMessagesSent() {
+        return messagesSent;
+    }
+    
+    public synchronized long getMessagesDropped() {
+        return messagesDropped;
+    }
+    
+    public synchronized long getPacketsSent() {
+        return packetsSent;
+    }
+    
+    public synchronized double getCacheHitRate() {
+        long total = cacheHits + cacheMisses;
+        return total == 0 ? 0 : cacheHits / (double) total;
+    }
+    
+    private static class Outbox {
+        final Player player;
+        final List<String> messages = new ArrayList<>(4);
+        final BitSet feed = new BitSet(); // Indices of messages that count against the rate limit
+        
+        Outbox(Player player) {
+            this.player = player;
+        }
+    }
+    
+    private static class RateLimit {
+        double tokens = RATE_BURST;
+        long lastRefill;
+        
+        RateLimit(long now) {
+            this.lastRefill = now;
+        }
+        
+        boolean tryAcquire(long now) {
+            tokens = Math.min(RATE_BURST, tokens + (now - lastRefill) / 1_000_000_000.0 * RATE_PER_SECOND);
+            lastRefill = now;
+            if (tokens < 1) return false;
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 2.5D A* over the arena heightmap for bots. Each column is one node standing
+ * on its highest block; moving between columns may step up one block or drop
+ * three, liquids are expensive and hazards are impassable. Chunk snapshots are
+ * taken on the main thread and searched on a worker thread, and finished paths
+ * are cached by start and goal cell until a block in their corridor changes.
+ */
+public class Pathfinder {
+    private final HungerGames plugin;
+    private final ExecutorService worker;
+    private final Map<Long, ChunkSnapshot> snapshots;
+    private final Map<Long, Path> cache;
+    private final Map<Long, Request> pending = new HashMap<>();
+    
+    private long requests = 0;
+    private long cacheHits = 0;
+    private long computed = 0;
+    private long failed = 0;
+    private long invalidations = 0;
+    private volatile long totalSearchNanos = 0;
+    
+    private static final int CELL_SHIFT = 2; // Requests within the same 4x4 cells share a path
+    private static final int SEARCH_MARGIN = 16;
+    private static final int MAX_SPAN = 256;
+    private static final int MAX_EXPANSIONS = 8000;
+    private static final int MAX_STEP_UP = 1;
+    private static final int MAX_DROP = 3;
+    private static final float LIQUID_COST = 8f;
+    private static final float CLIMB_COST = 0.5f;
+    private static final float DROP_COST = 0.2f;
+    private static final float DIAGONAL = 1.4142135f;
+    private static final int CACHE_SIZE = 256;
+    private static final int SNAPSHOT_CACHE_SIZE = 256;
+    private static final int IMPASSABLE = Integer.MIN_VALUE;
+    private static final int UNKNOWN = Integer.MAX_VALUE;
+    
+    public Pathfinder(HungerGames plugin) {
+        this.plugin = plugin;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HungerGames-Pathfinder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshots = new LinkedHashMap<Long, ChunkSnapshot>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ChunkSnapshot> eldest) {
+                return size() > SNAPSHOT_CACHE_SIZE;
+            }
+        };
+        this.cache = new LinkedHashMap<Long, Path>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Path> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+    
+    /**
+     * Finds a path between two points in a world. The callback runs on the main
+     * thread, immediately on a cache hit or in deterministic mode, with null if
+     * no path was found. Must be called from the main thread.
+     */
+    public void findPath(World world, Location from, Location to, Consumer<Path> callback) {
+        requests++;
+        int startX = from.getBlockX();
+        int startZ = from.getBlockZ();
+        int goalX = to.getBlockX();
+        int goalZ = to.getBlockZ();
+        long key = key(startX, startZ, goalX, goalZ);
+        
+        Path cached = cache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            callback.accept(cached);
+            return;
+        }
+        
+        // Someone already asked for this route; wait for the same search
+        Request request = pending.get(key);
+        if (request != null) {
+            request.callbacks.add(callback);
+            return;
+        }
+        
+        int minX = Math.min(startX, goalX) - SEARCH_MARGIN;
+        int maxX = Math.max(startX, goalX) + SEARCH_MARGIN;
+        int minZ = Math.min(startZ, goalZ) - SEARCH_MARGIN;
+        int maxZ = Math.max(startZ, goalZ) + SEARCH_MARGIN;
+        if (maxX - minX > MAX_SPAN || maxZ - minZ > MAX_SPAN) {
+            failed++;
+            callback.accept(null);
+            return;
+        }
+        
+        request = new Request(minX, maxX, minZ, maxZ);
+        request.callbacks.add(callback);
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                ChunkSnapshot snapshot = snapshot(world, cx, cz);
+                if (snapshot != null) {
+                    request.snapshots.put(chunkKey(cx, cz), snapshot);
+                }
+            }
+        }
+        pending.put(key, request);
+        
+        Request submitted = request;
+        if (plugin.getMatchRandom().isDeterministic()) {
+            // Search inline so paths arrive on the same tick every run
+            long start = System.nanoTime();
+            Path path = submitted.search(startX, startZ, goalX, goalZ);
+            totalSearchNanos += System.nanoTime() - start;
+            complete(key, submitted, path);
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                long start = System.nanoTime();
+                Path path = submitted.search(startX, startZ, goalX, goalZ);
+                totalSearchNanos += System.nanoTime() - start;
+                if (plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, () -> complete(key, submitted, path));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            callback.accept(null);
+        }
+    }
+    
+    private void complete(long key, Request request, Path path) {
+        if (pending.get(key) == request) {
+            pending.remove(key);
+        }
+        if (path != null) {
+            computed++;
+            // A block changed under a search in flight; use the result once but don't keep it
+            if (!request.stale) {
+                cache.put(key, path);
+            }
+        } else {
+            failed++;
+        }
+        for (Consumer<Path> callback : request.callbacks) {
+            try {
+                callback.accept(path);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to deliver bot path: " + e.getMessage());
+            }
+        }
+    }
+    
+    private ChunkSnapshot snapshot(World world, int cx, int cz) {
+        long chunkKey = chunkKey(cx, cz);
+        ChunkSnapshot snapshot = snapshots.get(chunkKey);
+        if (snapshot != null && snapshot.getWorldName().equals(world.getName())) {
+            return snapshot;
+        }
+        // Never load chunks for a path; unloaded ground is treated as a wall
+        if (!world.isChunkLoaded(cx, cz)) return null;
+        
+        snapshot = world.getChunkAt(cx, cz).getChunkSnapshot(true, false, false);
+        snapshots.put(chunkKey, snapshot);
+        return snapshot;
+    }
+    
+    /**
+     * Drops everything that was planned across a changed block: its chunk
+     * snapshot, any cached path whose corridor contains it, and any search
+     * still running over it.
+     */
+    public void invalidate(Block block) {
+        int x = block.getX();
+        int z = block.getZ();
+        snapshots.remove(chunkKey(x >> 4, z >> 4));
+        
+        Iterator<Path> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().covers(x, z)) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+        for (Request request : pending.values()) {
+            if (request.covers(x, z)) {
+                request.stale = true;
+            }
+        }
+    }
+    
+    /**
+     * Forgets a cached path, so the next request for its route searches again.
+     */
+    public void evict(Path path) {
+        cache.values().remove(path);
+    }
+    
+    public void clear() {
+        snapshots.clear();
+        cache.clear();
+        for (Request request : pending.values()) {
+            request.stale = true;
+        }
+    }
+    
+    public void shutdown() {
+        worker.shutdownNow();
+        clear();
+    }
+    
+    private static long key(int startX, int startZ, int goalX, int goalZ) {
+        return ((long) (startX >> CELL_SHIFT) & 0xFFFF) << 48 | ((long) (startZ >> CELL_SHIFT) & 0xFFFF) << 32 |
+            ((long) (goalX >> CELL_SHIFT) & 0xFFFF) << 16 | ((long) (goalZ >> CELL_SHIFT) & 0xFFFF);
+    }
+    
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+    
+    public long getRequests() {
+        return requests;
+    }
+    
+    public long getCacheHits() {
+        return cacheHits;
+    }
+    
+    public long getComputed() {
+        return computed;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public long getInvalidations() {
+        return invalidations;
+    }
+    
+    public double getAverageSearchMillis() {
+        long searches = computed + failed;
+        return searches == 0 ? 0 : totalSearchNanos / (double) searches / 1_000_000.0;
+    }
+    
+    /**
+     * Waypoints to walk, as block coordinates of the column to stand on. Only
+     * turns and height changes are kept, straight runs collapse to their ends.
+     */
+    public static class Path {
+        private final int[] xs;
+        private final int[] ys;
+        private final int[] zs;
+        private final int minX, maxX, minZ, maxZ;
+        
+        Path(int[] xs, int[] ys, int[] zs) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            int lowX = Integer.MAX_VALUE, highX = Integer.MIN_VALUE, lowZ = Integer.MAX_VALUE, highZ = Integer.MIN_VALUE;
+            for (int i = 0; i < xs.length; i++) {
+                lowX = Math.min(lowX, xs[i]);
+                highX = Math.max(highX, xs[i]);
+                lowZ = Math.min(lowZ, zs[i]);
+                highZ = Math.max(highZ, zs[i]);
+            }
+            // One block of slack so a change right beside the corridor still counts
+            this.minX = lowX - 1;
+            this.maxX = highX + 1;
+            this.minZ = lowZ - 1;
+            this.maxZ = highZ + 1;
+        }
+        
+        public int size() {
+            return xs.length;
+        }
+        
+        public int getX(int index) {
+            return xs[index];
+        }
+        
+        public int getY(int index) {
+            return ys[index];
+        }
+        
+        public int getZ(int index) {
+            return zs[index];
+        }
+        
+        boolean covers(int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+    }
+    
+    /**
+     * One search over a fixed area. Everything the worker reads is in here, so
+     * the world is never touched off the main thread.
+     */
+    private static class Request {
+        final int minX, maxX, minZ, maxZ;
+        final Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        final List<Consumer<Path>> callbacks = new ArrayList<>(1);
+        volatile boolean stale = false;
+        
+        Request(int minX, int maxX, int minZ, int maxZ) {
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+        
+        boolean covers(int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+        
+        Path search(int startX, int startZ, int goalX, int goalZ) {
+            int width = maxX - minX + 1;
+            int depth = maxZ - minZ + 1;
+            int nodes = width * depth;
+            
+            // Standing height per column, looked up lazily; UNKNOWN until first visited
+            int[] heights = new int[nodes];
+            float[] extraCost = new float[nodes];
+            Arrays.fill(heights, UNKNOWN);
+            float[] gScore = new float[nodes];
+            Arrays.fill(gScore, Float.MAX_VALUE);
+            int[] parents = new int[nodes];
+            boolean[] closed = new boolean[nodes];
+            NodeHeap open = new NodeHeap();
+            
+            int start = (startX - minX) * depth + (startZ - minZ);
+            int goal = (goalX - minX) * depth + (goalZ - minZ);
+            if (height(start, heights, extraCost, depth) == IMPASSABLE) return null;
+            // Aim for the goal column even if it is unwalkable; the closest reachable node wins
+            int best = start;
+            float bestHeuristic = heuristic(start, goal, depth);
+            
+            gScore[start] = 0;
+            parents[start] = -1;
+            open.push(start, bestHeuristic);
+            int expansions = 0;
+            
+            while (!open.isEmpty() && expansions++ < MAX_EXPANSIONS) {
+                int current = open.pop();
+                if (closed[current]) continue;
+                closed[current] = true;
+                if (current == goal) {
+                    best = goal;
+                    break;
+                }
+                
+                float h = heuristic(current, goal, depth);
+                if (h < bestHeuristic) {
+                    bestHeuristic = h;
+                    best = current;
+                }
+                
+                int cx = current / depth;
+                int cz = current % depth;
+                int currentHeight = heights[current];
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        if (dx == 0 && dz == 0) continue;
+                        int nx = cx + dx;
+                        int nz = cz + dz;
+                        if (nx < 0 || nx >= width || nz < 0 || nz >= depth) continue;
+                        
+                        int neighbour = nx * depth + nz;
+                        if (closed[neighbour]) continue;
+                        float step = stepCost(currentHeight, neighbour, heights, extraCost, depth);
+                        if (step < 0) continue;
+                        
+                        if (dx != 0 && dz != 0) {
+                            // No cutting corners past a wall or ledge
+                            if (stepCost(currentHeight, nx * depth + cz, heights, extraCost, depth) < 0 ||
+                                stepCost(currentHeight, cx * depth + nz, heights, extraCost, depth) < 0) continue;
+                            step += DIAGONAL - 1;
+                        }
+                        
+                        float tentative = gScore[current] + step;
+                        if (tentative < gScore[neighbour]) {
+                            gScore[neighbour] = tentative;
+                            parents[neighbour] = current;
+                            open.push(neighbour, tentative + heuristic(neighbour, goal, depth));
+                        }
+                    }
+                }
+            }
+            
+            if (best == start) return null;
+            return buildPath(best, parents, heights, depth);
+        }
+        
+        private float stepCost(int fromHeight, int node, int[] heights, float[] extraCost, int depth) {
+            int toHeight = height(node, heights, extraCost, depth);
+            if (toHeight == IMPASSABLE) return -1;
+            
+            int rise = toHeight - fromHeight;
+            if (rise > MAX_STEP_UP || -rise > MAX_DROP) return -1;
+            return 1 + extraCost[node] + (rise > 0 ? CLIMB_COST * rise : DROP_COST * -rise);
+        }
+        
+        private int height(int node, int[] heights, float[] extraCost, int depth) {
+            if (heights[node] != UNKNOWN) return heights[node];
+            
+            int x = minX + node / depth;
+            int z = minZ + node % depth;
+            ChunkSnapshot snapshot = snapshots.get(chunkKey(x >> 4, z >> 4));
+            int height = IMPASSABLE;
+            if (snapshot != null) {
+                int surface = snapshot.getHighestBlockYAt(x & 15, z & 15);
+                Material material = snapshot.getBlockType(x & 15, surface, z & 15);
+                if (material == Material.WATER) {
+                    height = surface + 1;
+                    extraCost[node] = LIQUID_COST;
+                } else if (isWalkable(material)) {
+                    height = surface + 1;
+                }
+            }
+            heights[node] = height;
+            return height;
+        }
+        
+        private static boolean isWalkable(Material material) {
+            switch (material) {
+                case LAVA:
+                case FIRE:
+                case SOUL_FIRE:
+                case CACTUS:
+                case MAGMA_BLOCK:
+                case SWEET_BERRY_BUSH:
+                case POWDER_SNOW:
+                    return false;
+                default:
+                    // Tree canopies show up as the surface; walking on them isn't a route
+                    return !material.name().endsWith("_LEAVES");
+            }
+        }
+        
+        private static float heuristic(int node, int goal, int depth) {
+            // Octile distance
+            int dx = Math.abs(node / depth - goal / depth);
+            int dz = Math.abs(node % depth - goal % depth);
+            return Math.max(dx, dz) + (DIAGONAL - 1) * Math.min(dx, dz);
+        }
+        
+        private Path buildPath(int end, int[] parents, int[] heights, int depth) {
+            int length = 0;
+            for (int node = end; node != -1; node = parents[node]) {
+                length++;
+            }
+            int[] chain = new int[length];
+            for (int node = end, i = length - 1; node != -1; node = parents[node], i--) {
+                chain[i] = node;
+            }
+            
+            // Keep a node only where the direction or height changes; the start node is where the bot already is
+            int[] xs = new int[length];
+            int[] ys = new int[length];
+            int[] zs = new int[length];
+            int count = 0;
+            for (int i = 1; i < length; i++) {
+                int node = chain[i];
+                boolean last = i == length - 1;
+                if (!last) {
+                    int following = chain[i + 1];
+                    int previous = chain[i - 1];
+                    boolean sameDirection = following - node == node - previous;
+                    boolean sameHeight = heights[following] == heights[node] && heights[node] == heights[previous];
+                    if (sameDirection && sameHeight) continue;
+                }
+                xs[count] = minX + node / depth;
+                ys[count] = heights[node];
+                zs[count] = minZ + node % depth;
+                count++;
+            }
+            return new Path(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count), Arrays.copyOf(zs, count));
+        }
+    }
+    
+    /**
+     * Binary min-heap of node indices keyed by f-score. Stale entries are left
+     * in place and skipped when popped.
+     */
+    private static class NodeHeap {
+        private int[] nodes = new int[256];
+        private float[] scores = new float[256];
+        private int size = 0;
+        
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (scores[parent] <= score) break;
+                nodes[i] = nodes[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+        
+        int pop() {
+            int top = nodes[0];
+            int node = nodes[--size];
+            float score = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && scores[child + 1] < scores[child]) child++;
+                if (scores[child] >= score) break;
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+            return top;
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mchg.plugin;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.BoundingBox;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A player that only exists in plugin memory: a practice bot, or an actor in
+ * a replay. There is no server entity behind it: clients are told about it
+ * with packets through a {@link BotAdapter}, and hits on a practice bot are
+ * found by {@link PracticeBotManager}'s own ray test.
+ */
+class PracticeBot {
+    static final double MAX_HEALTH = 20;
+    private static final double HALF_WIDTH = 0.3;
+    private static final double HEIGHT = 1.8;
+    private static final EquipmentSlot[] ARMOR_SLOTS = {
+        EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+    
+    final UUID uuid;
+    final String name;
+    final String texture;
+    final World world;
+    ItemStack weapon; // null for fists; replay actors switch it as the recording does
+    final ItemStack[] armor; // Head, chest, legs, feet; null for an empty slot
+    final double attackDamage;
+    final double armorPoints;
+    final Set<Player> viewers = new HashSet<>();
+    Object handle; // Whatever the adapter needs to draw the bot
+    
+    double x, y, z;
+    float yaw;
+    float pitch;
+    double velocityX, velocityZ;
+    double health = MAX_HEALTH;
+    int attackCooldown;
+    int noDamageTicks;
+    boolean moved;
+    
+    PracticeBot(UUID uuid, String name, String texture, World world, double x, double y, double z,
+                ItemStack weapon, ItemStack[] armor) {
+        this.uuid = uuid;
+        this.name = name;
+        this.texture = texture;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.weapon = weapon;
+        this.armor = armor;
+        this.attackDamage = BotEquipment.attackDamage(weapon);
+        double points = 0;
+        for (int i = 0; i < armor.length; i++) {
+            points += BotEquipment.armorScore(armor[i], ARMOR_SLOTS[i]);
+        }
+        this.armorPoints = points;
+    }
+    
+    BoundingBox boundingBox() {
+        return new BoundingBox(x - HALF_WIDTH, y, z - HALF_WIDTH, x + HALF_WIDTH, y + HEIGHT, z + HALF_WIDTH);
+    }
+}
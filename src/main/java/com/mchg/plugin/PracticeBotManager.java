@@ -0,0 +1,360 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.FluidCollisionMode;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Lightweight practice bots. Unlike {@link BotManager}'s tributes these are
+ * not server players: each one is a position, health and loadout in plugin
+ * memory, drawn for nearby players with packets, walking on the heightmap, and
+ * taking hits through a ray test against its box when a player swings. That
+ * keeps a couple of hundred of them cheap enough to fight at once.
+ */
+public class PracticeBotManager {
+    private final HungerGames plugin;
+    private final List<PracticeBot> bots = new ArrayList<>();
+    private final Random random = new Random();
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private BukkitRunnable task;
+    private int maxBots = 200;
+    private double viewRangeSquared = 48 * 48;
+    private long ticks = 0;
+    
+    private long lastTickNanos = 0;
+    private long viewerUpdates = 0;
+    private long hits = 0;
+    private int nextNumber = 1;
+    
+    private static final double SPAWN_RADIUS = 24;
+    private static final double CHASE_RANGE = 16;
+    private static final double ATTACK_RANGE = 2.5;
+    private static final double REACH = 3.0;
+    private static final double WALK_SPEED = 0.2; // Blocks per tick
+    private static final double STEP_HEIGHT = 1.1;
+    private static final double KNOCKBACK = 0.4;
+    private static final double FRICTION = 0.6;
+    private static final int ATTACK_COOLDOWN_TICKS = 20;
+    private static final int NO_DAMAGE_TICKS = 10;
+    private static final int VIEWER_REFRESH_TICKS = 10;
+    
+    private static final Material[] WEAPONS = {
+        null, Material.WOODEN_SWORD, Material.STONE_SWORD, Material.IRON_SWORD, Material.STONE_AXE
+    };
+    private static final Material[][] ARMOR = {
+        {Material.LEATHER_HELMET, Material.CHAINMAIL_HELMET, Material.IRON_HELMET},
+        {Material.LEATHER_CHESTPLATE, Material.CHAINMAIL_CHESTPLATE, Material.IRON_CHESTPLATE},
+        {Material.LEATHER_LEGGINGS, Material.CHAINMAIL_LEGGINGS, Material.IRON_LEGGINGS},
+        {Material.LEATHER_BOOTS, Material.CHAINMAIL_BOOTS, Material.IRON_BOOTS}
+    };
+    
+    public PracticeBotManager(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Sets how many practice bots may exist at once and how close a player
+     * has to be to see (and be chased by) one.
+     */
+    public void setLimits(int maxBots, int viewRange) {
+        this.maxBots = Math.max(0, maxBots);
+        this.viewRangeSquared = (double) viewRange * viewRange;
+    }
+    
+    /**
+     * Spawns practice bots on the ground around a location, each with a
+     * random weapon and armour.
+     *
+     * @return how many were spawned, which is fewer than asked for once the
+     *         limit is reached
+     */
+    public int spawn(Location around, int count) {
+        BotAdapter adapter = plugin.getBotAdapter();
+        World world = around.getWorld();
+        if (adapter == null || world == null) return 0;
+        
+        int spawned = 0;
+        while (spawned < count && bots.size() < maxBots) {
+            double x = around.getX() + (random.nextDouble() * 2 - 1) * SPAWN_RADIUS;
+            double z = around.getZ() + (random.nextDouble() * 2 - 1) * SPAWN_RADIUS;
+            double y = world.getHighestBlockYAt((int) Math.floor(x), (int) Math.floor(z)) + 1;
+            bots.add(new PracticeBot(UUID.randomUUID(), "Practice_" + nextNumber++, BotManager.randomSkin(random),
+                world, x, y, z, randomWeapon(), randomArmor()));
+            spawned++;
+        }
+        if (spawned > 0 && task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            };
+            task.runTaskTimer(plugin, 1L, 1L);
+        }
+        return spawned;
+    }
+    
+    public void clear() {
+        BotAdapter adapter = plugin.getBotAdapter();
+        for (PracticeBot bot : bots) {
+            try {
+                adapter.hide(bot.viewers, bot);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error hiding practice bot " + bot.name + ": " + e.getMessage());
+            }
+        }
+        bots.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    private void tick() {
+        long start = System.nanoTime();
+        BotAdapter adapter = plugin.getBotAdapter();
+        Iterator<PracticeBot> iterator = bots.iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            PracticeBot bot = iterator.next();
+            try {
+                // Viewer refreshes are staggered so they don't all land on one tick
+                if ((ticks + index++) % VIEWER_REFRESH_TICKS == 0) {
+                    if (Bukkit.getWorld(bot.world.getUID()) == null) {
+                        // The world went away, taking the bot with it
+                        iterator.remove();
+                        continue;
+                    }
+                    refreshViewers(adapter, bot);
+                }
+                simulate(adapter, bot);
+                if (bot.moved && !bot.viewers.isEmpty()) {
+                    adapter.move(bot.viewers, bot);
+                    viewerUpdates += bot.viewers.size();
+                }
+                bot.moved = false;
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error updating practice bot " + bot.name + ": " + e.getMessage());
+            }
+        }
+        ticks++;
+        lastTickNanos = System.nanoTime() - start;
+    }
+    
+    /**
+     * Shows the bot to players who came into range and hides it from those
+     * who left.
+     */
+    private void refreshViewers(BotAdapter adapter, PracticeBot bot) {
+        List<Player> left = new ArrayList<>();
+        Iterator<Player> iterator = bot.viewers.iterator();
+        while (iterator.hasNext()) {
+            Player viewer = iterator.next();
+            if (!viewer.isOnline() || viewer.getWorld() != bot.world || !inRange(viewer, bot)) {
+                iterator.remove();
+                if (viewer.isOnline()) {
+                    left.add(viewer);
+                }
+            }
+        }
+        
+        List<Player> entered = new ArrayList<>();
+        for (Player player : bot.world.getPlayers()) {
+            if (inRange(player, bot) && bot.viewers.add(player)) {
+                entered.add(player);
+            }
+        }
+        adapter.hide(left, bot);
+        adapter.show(entered, bot);
+        viewerUpdates += left.size() + entered.size();
+    }
+    
+    private boolean inRange(Player player, PracticeBot bot) {
+        player.getLocation(scratch);
+        double dx = scratch.getX() - bot.x;
+        double dz = scratch.getZ() - bot.z;
+        return dx * dx + dz * dz <= viewRangeSquared;
+    }
+    
+    /**
+     * One tick of a bot: knockback, then chasing and hitting the nearest
+     * player that can see it.
+     */
+    private void simulate(BotAdapter adapter, PracticeBot bot) {
+        if (bot.attackCooldown > 0) bot.attackCooldown--;
+        if (bot.noDamageTicks > 0) bot.noDamageTicks--;
+        
+        double moveX = bot.velocityX;
+        double moveZ = bot.velocityZ;
+        bot.velocityX = Math.abs(bot.velocityX) < 0.01 ? 0 : bot.velocityX * FRICTION;
+        bot.velocityZ = Math.abs(bot.velocityZ) < 0.01 ? 0 : bot.velocityZ * FRICTION;
+        
+        Player target = nearestTarget(bot);
+        if (target != null) {
+            target.getLocation(scratch);
+            double dx = scratch.getX() - bot.x;
+            double dz = scratch.getZ() - bot.z;
+            double distance = Math.sqrt(dx * dx + dz * dz);
+            float yaw = (float) Math.toDegrees(Math.atan2(-dx, dz));
+            if (yaw != bot.yaw) {
+                bot.yaw = yaw;
+                bot.moved = true;
+            }
+            
+            if (distance > ATTACK_RANGE) {
+                moveX += dx / distance * WALK_SPEED;
+                moveZ += dz / distance * WALK_SPEED;
+            } else if (bot.attackCooldown == 0 && Math.abs(scratch.getY() - bot.y) < 2) {
+                attack(adapter, bot, target, dx / Math.max(distance, 0.01), dz / Math.max(distance, 0.01));
+            }
+        }
+        if (moveX != 0 || moveZ != 0) {
+            step(bot, moveX, moveZ);
+        }
+    }
+    
+    private Player nearestTarget(PracticeBot bot) {
+        Player nearest = null;
+        double best = CHASE_RANGE * CHASE_RANGE;
+        for (Player viewer : bot.viewers) {
+            GameMode mode = viewer.getGameMode();
+            if ((mode != GameMode.SURVIVAL && mode != GameMode.ADVENTURE) || viewer.isDead()) continue;
+            
+            viewer.getLocation(scratch);
+            double dx = scratch.getX() - bot.x;
+            double dz = scratch.getZ() - bot.z;
+            double distance = dx * dx + dz * dz;
+            if (distance < best) {
+                best = distance;
+                nearest = viewer;
+            }
+        }
+        return nearest;
+    }
+    
+    /**
+     * Moves along the heightmap. Steps up at most a block, drops any
+     * distance, and never walks into chunks that aren't loaded.
+     */
+    private void step(PracticeBot bot, double dx, double dz) {
+        double x = bot.x + dx;
+        double z = bot.z + dz;
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
+        if (!bot.world.isChunkLoaded(blockX >> 4, blockZ >> 4)) return;
+        
+        double ground = bot.world.getHighestBlockYAt(blockX, blockZ) + 1;
+        if (ground - bot.y > STEP_HEIGHT) return;
+        
+        bot.x = x;
+        bot.y = ground;
+        bot.z = z;
+        bot.moved = true;
+    }
+    
+    private void attack(BotAdapter adapter, PracticeBot bot, Player target, double directionX, double directionZ) {
+        bot.attackCooldown = ATTACK_COOLDOWN_TICKS;
+        adapter.swing(bot.viewers, bot);
+        target.damage(bot.attackDamage);
+        target.setVelocity(target.getVelocity().add(new Vector(directionX * KNOCKBACK, KNOCKBACK * 0.75, directionZ * KNOCKBACK)));
+    }
+    
+    /**
+     * Hit detection for a player's swing: the closest practice bot the player
+     * can see whose box the look ray crosses within reach, unless a block is
+     * in the way.
+     */
+    public void handleSwing(Player attacker) {
+        if (bots.isEmpty()) return;
+        
+        Location eye = attacker.getEyeLocation();
+        Vector origin = eye.toVector();
+        Vector direction = eye.getDirection();
+        PracticeBot hit = null;
+        double best = REACH;
+        for (PracticeBot bot : bots) {
+            if (!bot.viewers.contains(attacker)) continue;
+            
+            RayTraceResult result = bot.boundingBox().rayTrace(origin, direction, best);
+            if (result == null) continue;
+            
+            double distance = result.getHitPosition().distance(origin);
+            if (distance < best) {
+                best = distance;
+                hit = bot;
+            }
+        }
+        if (hit == null || hit.noDamageTicks > 0) return;
+        if (attacker.getWorld().rayTraceBlocks(eye, direction, best, FluidCollisionMode.NEVER, true) != null) return;
+        
+        // Vanilla's charge scaling and armour reduction, without toughness
+        double charge = attacker.getAttackCooldown();
+        double damage = BotEquipment.attackDamage(attacker.getInventory().getItemInMainHand()) * (0.2 + charge * charge * 0.8);
+        damage *= 1 - Math.min(20, Math.max(hit.armorPoints / 5, hit.armorPoints - damage / 2)) / 25;
+        
+        hits++;
+        hit.health -= damage;
+        hit.noDamageTicks = NO_DAMAGE_TICKS;
+        double length = Math.max(0.01, Math.sqrt(direction.getX() * direction.getX() + direction.getZ() * direction.getZ()));
+        hit.velocityX += direction.getX() / length * KNOCKBACK;
+        hit.velocityZ += direction.getZ() / length * KNOCKBACK;
+        
+        BotAdapter adapter = plugin.getBotAdapter();
+        adapter.hurt(hit.viewers, hit);
+        if (hit.health <= 0) {
+            adapter.hide(hit.viewers, hit);
+            bots.remove(hit);
+            attacker.sendMessage(ChatColor.GREEN + "You defeated " + hit.name + "!");
+        }
+    }
+    
+    private ItemStack randomWeapon() {
+        Material type = WEAPONS[random.nextInt(WEAPONS.length)];
+        return type != null ? new ItemStack(type) : null;
+    }
+    
+    private ItemStack[] randomArmor() {
+        ItemStack[] armor = new ItemStack[ARMOR.length];
+        for (int i = 0; i < ARMOR.length; i++) {
+            if (random.nextBoolean()) {
+                armor[i] = new ItemStack(ARMOR[i][random.nextInt(ARMOR[i].length)]);
+            }
+        }
+        return armor;
+    }
+    
+    public int getCount() {
+        return bots.size();
+    }
+    
+    public int getMaxBots() {
+        return maxBots;
+    }
+    
+    public double getLastTickMicros() {
+        return lastTickNanos / 1000.0;
+    }
+    
+    public long getViewerUpdates() {
+        return viewerUpdates;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+}
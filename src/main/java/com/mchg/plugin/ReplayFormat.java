@@ -0,0 +1,78 @@
+package com.mchg.plugin;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the .hgr replay files shared by the recorder and the player.
+ *
+ * A file is the magic and version followed by a gzip stream holding the header
+ * (world, seed, start time, length, actor table) and then a flat list of records.
+ * Every record starts with an opcode byte. Player states are delta-encoded against
+ * the previous state of the same actor; a keyframe resets all baselines to zero so
+ * playback can seek to it without decoding anything before.
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x48475250; // "HGRP"
+    static final int VERSION = 1;
+    static final String FILE_EXTENSION = ".hgr";
+
+    static final byte OP_STATE = 0x01;
+    static final byte OP_KEYFRAME = 0x02;
+    static final byte OP_TICK = 0x03;
+    static final byte OP_MATERIAL = 0x04;
+    static final byte OP_DAMAGE = 0x10;
+    static final byte OP_DEATH = 0x11;
+    static final byte OP_CHEST_OPEN = 0x12;
+    static final byte OP_END = 0x7F;
+
+    static final int FLAG_X = 1;
+    static final int FLAG_Y = 1 << 1;
+    static final int FLAG_Z = 1 << 2;
+    static final int FLAG_YAW = 1 << 3;
+    static final int FLAG_PITCH = 1 << 4;
+    static final int FLAG_HEALTH = 1 << 5;
+    static final int FLAG_ITEM = 1 << 6;
+    static final int FLAG_ALL = 0x7F;
+
+    // Positions are stored in 1/32 block units, angles in 1/256 turns, health in half points
+    static final double POSITION_SCALE = 32.0;
+    static final float ANGLE_SCALE = 256.0f / 360.0f;
+
+    static final int KEYFRAME_INTERVAL_TICKS = 200;
+
+    private ReplayFormat() {
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IOException("VarInt too long");
+            }
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
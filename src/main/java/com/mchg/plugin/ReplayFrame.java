@@ -0,0 +1,81 @@
+package com.mchg.plugin;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoded changes for a single recorded tick. Values are absolute (already
+ * resolved from the deltas), in the fixed-point units of {@link ReplayFormat}.
+ */
+class ReplayFrame {
+    final int tick;
+    boolean full;
+    int count;
+    final int[] actor;
+    final int[] x;
+    final int[] y;
+    final int[] z;
+    final int[] yaw;
+    final int[] pitch;
+    final int[] health;
+    final Material[] item;
+    final List<Event> events = new ArrayList<>(0);
+    
+    ReplayFrame(int tick, int actorCount) {
+        this.tick = tick;
+        this.actor = new int[actorCount];
+        this.x = new int[actorCount];
+        this.y = new int[actorCount];
+        this.z = new int[actorCount];
+        this.yaw = new int[actorCount];
+        this.pitch = new int[actorCount];
+        this.health = new int[actorCount];
+        this.item = new Material[actorCount];
+    }
+    
+    void add(int index, int x, int y, int z, int yaw, int pitch, int health, Material item) {
+        // An actor appears at most once per tick in the stream, but keep the last write just in case
+        int slot = count;
+        for (int i = 0; i < count; i++) {
+            if (actor[i] == index) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot == count) {
+            count++;
+        }
+        this.actor[slot] = index;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.z[slot] = z;
+        this.yaw[slot] = yaw;
+        this.pitch[slot] = pitch;
+        this.health[slot] = health;
+        this.item[slot] = item;
+    }
+    
+    boolean isEmpty() {
+        return count == 0 && events.isEmpty() && !full;
+    }
+    
+    static class Event {
+        final byte type;
+        final int actor;
+        final int other;
+        final int a;
+        final int b;
+        final int c;
+        
+        Event(byte type, int actor, int other, int a, int b, int c) {
+            this.type = type;
+            this.actor = actor;
+            this.other = other;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.mchg.plugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+public class ReplayManager {
+    private final HungerGames plugin;
+    private final File replayFolder;
+    private ReplayRecording recording;
+    private BukkitRunnable sampleTask;
+    private double lastSampleMicros = 0;
+    private long lastRecordingBytes = 0;
+    
+    private final Map<String, ReplaySession> sessions = new HashMap<>();
+    private final Map<UUID, ReplaySession> viewerSessions = new HashMap<>();
+    
+    public ReplayManager(HungerGames plugin) {
+        this.plugin = plugin;
+        this.replayFolder = new File(plugin.getDataFolder(), "replays");
+    }
+    
+    public void startRecording(String id, World world, List<Player> participants) {
+        stopRecording();
+        
+        recording = new ReplayRecording(id, world, participants);
+        
+        sampleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (recording == null) {
+                    cancel();
+                    return;
+                }
+                try {
+                    recording.sample();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Replay sampling failed, recording stopped: " + e.getMessage());
+                    recording = null;
+                    cancel();
+                }
+            }
+        };
+        sampleTask.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    public void stopRecording() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (recording == null) return;
+        
+        ReplayRecording finished = recording;
+        recording = null;
+        lastSampleMicros = finished.getAverageSampleMicros();
+        lastRecordingBytes = finished.getBufferedBytes();
+        
+        File file = new File(replayFolder, finished.getId() + ReplayFormat.FILE_EXTENSION);
+        plugin.getIOManager().submit(() -> writeRecording(finished, file));
+        plugin.getLogger().info("Saved replay " + finished.getId() + " (" + finished.getTicks() + " ticks, " +
+            lastRecordingBytes / 1024 + " KB before compression)");
+    }
+    
+    private void writeRecording(ReplayRecording finished, File file) throws IOException {
+        if (!replayFolder.exists()) {
+            replayFolder.mkdirs();
+        }
+        try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(file))) {
+            DataOutputStream header = new DataOutputStream(fileOut);
+            header.writeInt(ReplayFormat.MAGIC);
+            header.writeByte(ReplayFormat.VERSION);
+            header.flush();
+            
+            GZIPOutputStream gzip = new GZIPOutputStream(fileOut, 8192);
+            DataOutputStream out = new DataOutputStream(gzip);
+            finished.writeTo(out);
+            out.flush();
+            gzip.finish();
+        }
+    }
+    
+    public void recordDamage(Player victim, Player attacker, double amount, EntityDamageEvent.DamageCause cause) {
+        if (recording != null) {
+            recording.recordDamage(victim, attacker, amount, cause.ordinal());
+        }
+    }
+    
+    public void recordDeath(Player victim, Player killer) {
+        if (recording != null) {
+            recording.recordDeath(victim, killer);
+        }
+    }
+    
+    public void recordChestOpen(Player player, int x, int y, int z) {
+        if (recording != null) {
+            recording.recordChestOpen(player, x, y, z);
+        }
+    }
+    
+    public void listReplays(Player player) {
+        plugin.getIOManager().read(() -> {
+            String[] files = replayFolder.list((dir, name) -> name.endsWith(ReplayFormat.FILE_EXTENSION));
+            List<String> ids = new ArrayList<>();
+            if (files != null) {
+                for (String name : files) {
+                    ids.add(name.substring(0, name.length() - ReplayFormat.FILE_EXTENSION.length()));
+                }
+            }
+            Collections.sort(ids, Collections.reverseOrder());
+            return ids;
+        }, ids -> {
+            if (!player.isOnline()) return;
+            if (ids.isEmpty()) {
+                player.sendMessage(ChatColor.RED + "No replays recorded yet!");
+                return;
+            }
+            player.sendMessage(ChatColor.GOLD + "=== Replays ===");
+            for (String id : ids.subList(0, Math.min(10, ids.size()))) {
+                player.sendMessage(ChatColor.YELLOW + id);
+            }
+        });
+    }
+    
+    public void startPlayback(Player viewer, String id) {
+        if (plugin.getBotAdapter() == null) {
+            // Recorded players are drawn as packet-only players, which needs the version adapter
+            viewer.sendMessage(ChatColor.RED + "Replays aren't supported on this server version!");
+            return;
+        }
+        if (plugin.getPlayers().contains(viewer)) {
+            viewer.sendMessage(ChatColor.RED + "You can't watch a replay while in a game!");
+            return;
+        }
+        if (viewerSessions.containsKey(viewer.getUniqueId())) {
+            viewer.sendMessage(ChatColor.RED + "You are already watching a replay! Use /hg replay stop first.");
+            return;
+        }
+        
+        if (!id.matches("[A-Za-z0-9_-]+")) {
+            viewer.sendMessage(ChatColor.RED + "Invalid replay id!");
+            return;
+        }
+        
+        ReplaySession existing = sessions.get(id);
+        if (existing != null) {
+            existing.addViewer(viewer);
+            viewerSessions.put(viewer.getUniqueId(), existing);
+            return;
+        }
+        
+        File file = new File(replayFolder, id + ReplayFormat.FILE_EXTENSION);
+        viewer.sendMessage(ChatColor.GOLD + "Loading replay " + id + "...");
+        plugin.getIOManager().read(() -> file.exists() ? ReplayReader.open(file) : null, reader -> {
+            if (reader == null) {
+                viewer.sendMessage(ChatColor.RED + "Replay " + id + " not found!");
+                return;
+            }
+            if (!viewer.isOnline() || sessions.containsKey(id)) {
+                plugin.getIOManager().submit(reader::close);
+                if (viewer.isOnline()) {
+                    startPlayback(viewer, id);
+                }
+                return;
+            }
+            
+            World world = plugin.getWorldManager().createReplayWorld("hg_replay_" + id, reader.getWorldSeed());
+            if (world == null) {
+                plugin.getIOManager().submit(reader::close);
+                viewer.sendMessage(ChatColor.RED + "Failed to create replay world!");
+                return;
+            }
+            
+            ReplaySession session = new ReplaySession(plugin, id, reader, world);
+            sessions.put(id, session);
+            session.addViewer(viewer);
+            viewerSessions.put(viewer.getUniqueId(), session);
+            session.start();
+        });
+    }
+    
+    public void stopPlayback(Player viewer) {
+        ReplaySession session = viewerSessions.remove(viewer.getUniqueId());
+        if (session == null) return;
+        
+        session.removeViewer(viewer);
+        if (!session.hasViewers()) {
+            closeSession(session);
+        }
+    }
+    
+    void closeSession(ReplaySession session) {
+        sessions.remove(session.getId());
+        viewerSessions.values().removeIf(s -> s == session);
+        session.close();
+    }
+    
+    public void closeAllSessions() {
+        for (ReplaySession session : new ArrayList<>(sessions.values())) {
+            closeSession(session);
+        }
+    }
+    
+    public ReplaySession getSession(Player viewer) {
+        return viewerSessions.get(viewer.getUniqueId());
+    }
+    
+    public boolean isRecording() {
+        return recording != null;
+    }
+    
+    public double getSampleMicros() {
+        return recording != null ? recording.getAverageSampleMicros() : lastSampleMicros;
+    }
+    
+    public long getRecordingBytes() {
+        return recording != null ? recording.getBufferedBytes() : lastRecordingBytes;
+    }
+    
+    public File getReplayFolder() {
+        return replayFolder;
+    }
+}
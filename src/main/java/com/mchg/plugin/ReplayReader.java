@@ -0,0 +1,263 @@
+package com.mchg.plugin;
+
+import org.bukkit.Material;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static com.mchg.plugin.ReplayFormat.*;
+
+/**
+ * Streaming decoder for .hgr files. Only the current absolute state of each actor is
+ * kept in memory; frames are produced a chunk at a time and seeking backwards reopens
+ * the file instead of holding the inflated stream. Not thread-safe - it is only ever
+ * driven from the I/O thread.
+ */
+class ReplayReader implements Closeable {
+    private final File file;
+    private DataInputStream in;
+    
+    private String worldName;
+    private long worldSeed;
+    private long startTime;
+    private int lengthTicks;
+    private UUID[] actorIds;
+    private String[] actorNames;
+    
+    private final List<Material> materials = new ArrayList<>();
+    private int[] x;
+    private int[] y;
+    private int[] z;
+    private int[] yaw;
+    private int[] pitch;
+    private int[] health;
+    private int[] item;
+    private boolean[] alive;
+    
+    private int currentTick;
+    private ReplayFrame pending;
+    private boolean ended;
+    
+    private ReplayReader(File file) {
+        this.file = file;
+    }
+    
+    static ReplayReader open(File file) throws IOException {
+        ReplayReader reader = new ReplayReader(file);
+        reader.reopen();
+        return reader;
+    }
+    
+    private void reopen() throws IOException {
+        close();
+        InputStream fileIn = new BufferedInputStream(new FileInputStream(file));
+        DataInputStream header = new DataInputStream(fileIn);
+        if (header.readInt() != MAGIC) {
+            fileIn.close();
+            throw new IOException("Not a replay file: " + file.getName());
+        }
+        int version = header.readUnsignedByte();
+        if (version != VERSION) {
+            fileIn.close();
+            throw new IOException("Unsupported replay version " + version);
+        }
+        
+        in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(fileIn, 8192), 16384));
+        worldName = in.readUTF();
+        worldSeed = in.readLong();
+        startTime = in.readLong();
+        lengthTicks = in.readInt();
+        int count = in.readInt();
+        actorIds = new UUID[count];
+        actorNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            actorIds[i] = new UUID(in.readLong(), in.readLong());
+            actorNames[i] = in.readUTF();
+        }
+        
+        materials.clear();
+        materials.add(Material.AIR);
+        x = new int[count];
+        y = new int[count];
+        z = new int[count];
+        yaw = new int[count];
+        pitch = new int[count];
+        health = new int[count];
+        item = new int[count];
+        alive = new boolean[count];
+        Arrays.fill(alive, true);
+        currentTick = 0;
+        pending = new ReplayFrame(0, count);
+        ended = false;
+    }
+    
+    /**
+     * Decodes up to maxFrames frames into out. Returns false once the end of the
+     * recording has been reached.
+     */
+    boolean readFrames(int maxFrames, List<ReplayFrame> out) throws IOException {
+        int target = out.size() + maxFrames;
+        while (!ended && out.size() < target) {
+            readRecord(out);
+        }
+        return !ended;
+    }
+    
+    /**
+     * Positions the stream at the given tick and returns a frame carrying the full
+     * state of every actor at that point.
+     */
+    ReplayFrame seek(int tick) throws IOException {
+        if (tick < currentTick) {
+            reopen();
+        }
+        List<ReplayFrame> discard = new ArrayList<>();
+        while (!ended && currentTick < tick) {
+            readRecord(discard);
+            discard.clear();
+        }
+        
+        ReplayFrame full = new ReplayFrame(Math.min(tick, currentTick), actorIds.length);
+        full.full = true;
+        for (int i = 0; i < actorIds.length; i++) {
+            if (alive[i]) {
+                full.add(i, x[i], y[i], z[i], yaw[i], pitch[i], health[i], materials.get(item[i]));
+            }
+        }
+        return full;
+    }
+    
+    private void readRecord(List<ReplayFrame> out) throws IOException {
+        byte op;
+        try {
+            op = in.readByte();
+        } catch (EOFException e) {
+            op = OP_END;
+        }
+        
+        switch (op) {
+            case OP_TICK:
+                emit(out);
+                currentTick += readVarInt(in);
+                pending = new ReplayFrame(currentTick, actorIds.length);
+                break;
+            case OP_KEYFRAME:
+                emit(out);
+                currentTick = readVarInt(in);
+                pending = new ReplayFrame(currentTick, actorIds.length);
+                Arrays.fill(x, 0);
+                Arrays.fill(y, 0);
+                Arrays.fill(z, 0);
+                Arrays.fill(yaw, 0);
+                Arrays.fill(pitch, 0);
+                Arrays.fill(health, 0);
+                Arrays.fill(item, 0);
+                break;
+            case OP_MATERIAL: {
+                int id = readVarInt(in);
+                byte[] name = new byte[readVarInt(in)];
+                in.readFully(name);
+                Material material = Material.matchMaterial(new String(name, StandardCharsets.UTF_8));
+                while (materials.size() <= id) {
+                    materials.add(Material.AIR);
+                }
+                materials.set(id, material != null ? material : Material.AIR);
+                break;
+            }
+            case OP_STATE: {
+                int i = readVarInt(in);
+                int flags = in.readUnsignedByte();
+                if ((flags & FLAG_X) != 0) x[i] += unzigzag(readVarInt(in));
+                if ((flags & FLAG_Y) != 0) y[i] += unzigzag(readVarInt(in));
+                if ((flags & FLAG_Z) != 0) z[i] += unzigzag(readVarInt(in));
+                if ((flags & FLAG_YAW) != 0) yaw[i] = in.readUnsignedByte();
+                if ((flags & FLAG_PITCH) != 0) pitch[i] = in.readUnsignedByte();
+                if ((flags & FLAG_HEALTH) != 0) health[i] += unzigzag(readVarInt(in));
+                if ((flags & FLAG_ITEM) != 0) item[i] = readVarInt(in);
+                pending.add(i, x[i], y[i], z[i], yaw[i], pitch[i], health[i],
+                    item[i] < materials.size() ? materials.get(item[i]) : Material.AIR);
+                break;
+            }
+            case OP_DAMAGE: {
+                int victim = readVarInt(in);
+                int attacker = readVarInt(in) - 1;
+                int amount = readVarInt(in);
+                readVarInt(in); // damage cause
+                pending.events.add(new ReplayFrame.Event(OP_DAMAGE, victim, attacker, amount, 0, 0));
+                break;
+            }
+            case OP_DEATH: {
+                int victim = readVarInt(in);
+                int killer = readVarInt(in) - 1;
+                alive[victim] = false;
+                pending.events.add(new ReplayFrame.Event(OP_DEATH, victim, killer, 0, 0, 0));
+                break;
+            }
+            case OP_CHEST_OPEN: {
+                int actor = readVarInt(in);
+                int chestX = unzigzag(readVarInt(in));
+                int chestY = unzigzag(readVarInt(in));
+                int chestZ = unzigzag(readVarInt(in));
+                pending.events.add(new ReplayFrame.Event(OP_CHEST_OPEN, actor, -1, chestX, chestY, chestZ));
+                break;
+            }
+            case OP_END:
+                emit(out);
+                ended = true;
+                break;
+            default:
+                throw new IOException("Corrupt replay, unknown record " + op);
+        }
+    }
+    
+    private void emit(List<ReplayFrame> out) {
+        if (pending != null && !pending.isEmpty()) {
+            out.add(pending);
+        }
+        pending = null;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+    
+    String getWorldName() {
+        return worldName;
+    }
+    
+    long getWorldSeed() {
+        return worldSeed;
+    }
+    
+    long getStartTime() {
+        return startTime;
+    }
+    
+    int getLengthTicks() {
+        return lengthTicks;
+    }
+    
+    UUID[] getActorIds() {
+        return actorIds;
+    }
+    
+    String[] getActorNames() {
+        return actorNames;
+    }
+}
@@ -0,0 +1,285 @@
+package com.mchg.plugin;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.mchg.plugin.ReplayFormat.*;
+
+/**
+ * One arena's recording. Records are appended to a chain of direct buffers so a
+ * 20 minute match never touches the Java heap beyond the per-actor baselines.
+ */
+class ReplayRecording {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_BYTES = 64;
+
+    private final String id;
+    private final String worldName;
+    private final long worldSeed;
+    private final long startTime;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+
+    private final Player[] actors;
+    private final UUID[] actorIds;
+    private final String[] actorNames;
+    private final Map<UUID, Integer> actorIndex = new HashMap<>();
+    private final boolean[] alive;
+    private final int[] lastX;
+    private final int[] lastY;
+    private final int[] lastZ;
+    private final int[] lastYaw;
+    private final int[] lastPitch;
+    private final int[] lastHealth;
+    private final int[] lastItem;
+
+    private final int[] materialIds = new int[Material.values().length];
+    private int nextMaterialId = 1;
+
+    private final Location scratch;
+    private int tick = 0;
+    private int lastWrittenTick = 0;
+    private int lastKeyframeTick = -KEYFRAME_INTERVAL_TICKS;
+    private long sampleNanos = 0;
+
+    ReplayRecording(String id, World world, List<Player> participants) {
+        this.id = id;
+        this.worldName = world.getName();
+        this.worldSeed = world.getSeed();
+        this.startTime = System.currentTimeMillis();
+        this.scratch = new Location(world, 0, 0, 0);
+        
+        int count = participants.size();
+        this.actors = participants.toArray(new Player[0]);
+        this.actorIds = new UUID[count];
+        this.actorNames = new String[count];
+        this.alive = new boolean[count];
+        this.lastX = new int[count];
+        this.lastY = new int[count];
+        this.lastZ = new int[count];
+        this.lastYaw = new int[count];
+        this.lastPitch = new int[count];
+        this.lastHealth = new int[count];
+        this.lastItem = new int[count];
+        for (int i = 0; i < count; i++) {
+            actorIds[i] = actors[i].getUniqueId();
+            actorNames[i] = actors[i].getName();
+            actorIndex.put(actorIds[i], i);
+            alive[i] = true;
+        }
+        this.current = allocateChunk();
+    }
+
+    void sample() {
+        long start = System.nanoTime();
+        tick++;
+        
+        boolean keyframe = tick - lastKeyframeTick >= KEYFRAME_INTERVAL_TICKS;
+        if (keyframe) {
+            ensure(MAX_RECORD_BYTES);
+            current.put(OP_KEYFRAME);
+            writeVarInt(current, tick);
+            lastWrittenTick = tick;
+            lastKeyframeTick = tick;
+            
+            // The reader zeroes every actor at a keyframe, so do the same here even for actors
+            // skipped this tick; whoever comes back later then writes deltas against zero too
+            Arrays.fill(lastX, 0);
+            Arrays.fill(lastY, 0);
+            Arrays.fill(lastZ, 0);
+            Arrays.fill(lastYaw, 0);
+            Arrays.fill(lastPitch, 0);
+            Arrays.fill(lastHealth, 0);
+            Arrays.fill(lastItem, 0);
+        }
+        
+        for (int i = 0; i < actors.length; i++) {
+            Player player = actors[i];
+            if (!alive[i] || !player.isOnline()) continue;
+            
+            player.getLocation(scratch);
+            int x = (int) Math.round(scratch.getX() * POSITION_SCALE);
+            int y = (int) Math.round(scratch.getY() * POSITION_SCALE);
+            int z = (int) Math.round(scratch.getZ() * POSITION_SCALE);
+            int yaw = (int) (scratch.getYaw() * ANGLE_SCALE) & 0xFF;
+            int pitch = (int) (scratch.getPitch() * ANGLE_SCALE) & 0xFF;
+            int health = (int) Math.round(player.getHealth() * 2);
+            int item = materialId(player.getInventory().getItemInMainHand().getType());
+            
+            int flags;
+            if (keyframe) {
+                // Baselines are zero after a keyframe so every field is absolute
+                flags = FLAG_ALL;
+            } else {
+                flags = 0;
+                if (x != lastX[i]) flags |= FLAG_X;
+                if (y != lastY[i]) flags |= FLAG_Y;
+                if (z != lastZ[i]) flags |= FLAG_Z;
+                if (yaw != lastYaw[i]) flags |= FLAG_YAW;
+                if (pitch != lastPitch[i]) flags |= FLAG_PITCH;
+                if (health != lastHealth[i]) flags |= FLAG_HEALTH;
+                if (item != lastItem[i]) flags |= FLAG_ITEM;
+                if (flags == 0) continue;
+            }
+            
+            beginRecord();
+            current.put(OP_STATE);
+            writeVarInt(current, i);
+            current.put((byte) flags);
+            if ((flags & FLAG_X) != 0) writeVarInt(current, zigzag(x - lastX[i]));
+            if ((flags & FLAG_Y) != 0) writeVarInt(current, zigzag(y - lastY[i]));
+            if ((flags & FLAG_Z) != 0) writeVarInt(current, zigzag(z - lastZ[i]));
+            if ((flags & FLAG_YAW) != 0) current.put((byte) yaw);
+            if ((flags & FLAG_PITCH) != 0) current.put((byte) pitch);
+            if ((flags & FLAG_HEALTH) != 0) writeVarInt(current, zigzag(health - lastHealth[i]));
+            if ((flags & FLAG_ITEM) != 0) writeVarInt(current, item);
+            
+            lastX[i] = x;
+            lastY[i] = y;
+            lastZ[i] = z;
+            lastYaw[i] = yaw;
+            lastPitch[i] = pitch;
+            lastHealth[i] = health;
+            lastItem[i] = item;
+        }
+        
+        sampleNanos += System.nanoTime() - start;
+    }
+
+    void recordDamage(Player victim, Player attacker, double amount, int cause) {
+        Integer victimIndex = actorIndex.get(victim.getUniqueId());
+        if (victimIndex == null) return;
+        
+        beginRecord();
+        current.put(OP_DAMAGE);
+        writeVarInt(current, victimIndex);
+        writeVarInt(current, optionalActor(attacker));
+        writeVarInt(current, (int) Math.round(amount * 10));
+        writeVarInt(current, cause);
+    }
+
+    void recordDeath(Player victim, Player killer) {
+        Integer victimIndex = actorIndex.get(victim.getUniqueId());
+        if (victimIndex == null) return;
+        
+        alive[victimIndex] = false;
+        beginRecord();
+        current.put(OP_DEATH);
+        writeVarInt(current, victimIndex);
+        writeVarInt(current, optionalActor(killer));
+    }
+
+    void recordChestOpen(Player player, int x, int y, int z) {
+        Integer index = actorIndex.get(player.getUniqueId());
+        if (index == null) return;
+        
+        beginRecord();
+        current.put(OP_CHEST_OPEN);
+        writeVarInt(current, index);
+        writeVarInt(current, zigzag(x));
+        writeVarInt(current, zigzag(y));
+        writeVarInt(current, zigzag(z));
+    }
+
+    private int optionalActor(Player player) {
+        if (player == null) return 0;
+        Integer index = actorIndex.get(player.getUniqueId());
+        return index == null ? 0 : index + 1;
+    }
+
+    private int materialId(Material material) {
+        if (material == Material.AIR) return 0;
+        
+        int id = materialIds[material.ordinal()];
+        if (id == 0) {
+            id = nextMaterialId++;
+            materialIds[material.ordinal()] = id;
+            byte[] name = material.name().getBytes(StandardCharsets.UTF_8);
+            ensure(MAX_RECORD_BYTES + name.length);
+            current.put(OP_MATERIAL);
+            writeVarInt(current, id);
+            writeVarInt(current, name.length);
+            current.put(name);
+        }
+        return id;
+    }
+
+    private void beginRecord() {
+        ensure(MAX_RECORD_BYTES);
+        if (tick != lastWrittenTick) {
+            current.put(OP_TICK);
+            writeVarInt(current, tick - lastWrittenTick);
+            lastWrittenTick = tick;
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (current.remaining() < bytes) {
+            current = allocateChunk();
+        }
+    }
+
+    private ByteBuffer allocateChunk() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        chunks.add(buffer);
+        return buffer;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeUTF(worldName);
+        out.writeLong(worldSeed);
+        out.writeLong(startTime);
+        out.writeInt(tick);
+        out.writeInt(actors.length);
+        for (int i = 0; i < actors.length; i++) {
+            out.writeLong(actorIds[i].getMostSignificantBits());
+            out.writeLong(actorIds[i].getLeastSignificantBits());
+            out.writeUTF(actorNames[i]);
+        }
+        
+        byte[] copy = new byte[8192];
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer data = chunk.duplicate();
+            data.flip();
+            while (data.hasRemaining()) {
+                int length = Math.min(copy.length, data.remaining());
+                data.get(copy, 0, length);
+                out.write(copy, 0, length);
+            }
+        }
+        out.writeByte(OP_END);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    int getTicks() {
+        return tick;
+    }
+
+    long getBufferedBytes() {
+        long total = 0;
+        for (ByteBuffer chunk : chunks) {
+            total += chunk.position();
+        }
+        return total;
+    }
+
+    double getAverageSampleMicros() {
+        return tick == 0 ? 0 : sampleNanos / (double) tick / 1000.0;
+    }
+}
@@ -0,0 +1,392 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plays one recording back in a throwaway copy of its arena. Frames are decoded on
+ * the I/O thread a chunk at a time and applied here on the main thread to
+ * packet-only players standing in for the recorded ones, drawn for the viewers
+ * through the same {@link BotAdapter} as practice bots.
+ */
+class ReplaySession {
+    private static final int FRAMES_PER_CHUNK = 200;
+    private static final int LOW_WATERMARK = 100;
+    private static final double MIN_SPEED = 0.5;
+    private static final double MAX_SPEED = 8.0;
+    
+    private final HungerGames plugin;
+    private final String id;
+    private final ReplayReader reader;
+    private final World world;
+    private final String[] names;
+    private final BotAdapter adapter;
+    private final PracticeBot[] actors;
+    private final int[] lastHealth;
+    private final Material[] lastItem;
+    private final boolean[] visible;
+    private final int lengthTicks;
+    
+    private final Map<UUID, Player> viewers = new LinkedHashMap<>();
+    private final Map<UUID, GameMode> previousModes = new HashMap<>();
+    private final Map<UUID, Integer> trackedActors = new HashMap<>();
+    
+    // Bumping generation and clearing the buffer, and the I/O thread's check-then-add, both hold this lock
+    private final ConcurrentLinkedQueue<ReplayFrame> buffered = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean filling = new AtomicBoolean(false);
+    private volatile int generation = 0;
+    private volatile boolean exhausted = false;
+    
+    private double cursor = 0;
+    private double speed = 1.0;
+    private boolean paused = false;
+    private boolean finishedNotified = false;
+    private int tickCounter = 0;
+    private BukkitRunnable task;
+    
+    ReplaySession(HungerGames plugin, String id, ReplayReader reader, World world) {
+        this.plugin = plugin;
+        this.id = id;
+        this.reader = reader;
+        this.world = world;
+        this.names = reader.getActorNames();
+        this.adapter = plugin.getBotAdapter();
+        this.lengthTicks = reader.getLengthTicks();
+        this.actors = new PracticeBot[names.length];
+        this.lastHealth = new int[names.length];
+        this.lastItem = new Material[names.length];
+        this.visible = new boolean[names.length];
+    }
+    
+    void start() {
+        requestFill();
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    tick();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Replay " + id + " playback failed: " + e.getMessage());
+                    plugin.getReplayManager().closeSession(ReplaySession.this);
+                }
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    private void tick() {
+        if (!paused) {
+            cursor += speed;
+        }
+        
+        ReplayFrame frame;
+        while ((frame = buffered.peek()) != null && frame.tick <= cursor) {
+            buffered.poll();
+            apply(frame);
+        }
+        
+        if (buffered.size() < LOW_WATERMARK && !exhausted) {
+            requestFill();
+        }
+        
+        if (exhausted && buffered.isEmpty() && !finishedNotified) {
+            finishedNotified = true;
+            paused = true;
+            sendToViewers(ChatColor.GOLD + "Replay finished. Use /hg replay seek <seconds> or /hg replay stop");
+        }
+        
+        if (++tickCounter % 10 == 0) {
+            updateTrackers();
+        }
+    }
+    
+    private void requestFill() {
+        if (!filling.compareAndSet(false, true)) return;
+        
+        int fillGeneration = generation;
+        plugin.getIOManager().submit(() -> {
+            try {
+                List<ReplayFrame> frames = new ArrayList<>(FRAMES_PER_CHUNK);
+                boolean more = reader.readFrames(FRAMES_PER_CHUNK, frames);
+                synchronized (buffered) {
+                    if (fillGeneration == generation) {
+                        buffered.addAll(frames);
+                        if (!more) {
+                            exhausted = true;
+                        }
+                    }
+                }
+            } finally {
+                filling.set(false);
+            }
+        });
+    }
+    
+    private void apply(ReplayFrame frame) {
+        if (frame.full) {
+            // After a seek: anything not in the snapshot was already eliminated
+            boolean[] present = new boolean[actors.length];
+            for (int i = 0; i < frame.count; i++) {
+                present[frame.actor[i]] = true;
+            }
+            for (int i = 0; i < actors.length; i++) {
+                if (!present[i]) {
+                    setVisible(i, false);
+                }
+            }
+        }
+        
+        for (int i = 0; i < frame.count; i++) {
+            int index = frame.actor[i];
+            PracticeBot actor = actors[index];
+            if (actor == null) {
+                // A fresh id, so the stand-in never clashes with the real player if they're watching
+                actor = new PracticeBot(UUID.randomUUID(), names[index], BotManager.randomSkin(ThreadLocalRandom.current()),
+                    world, 0, 0, 0, null, new ItemStack[4]);
+                actors[index] = actor;
+            }
+            actor.x = frame.x[i] / ReplayFormat.POSITION_SCALE;
+            actor.y = frame.y[i] / ReplayFormat.POSITION_SCALE;
+            actor.z = frame.z[i] / ReplayFormat.POSITION_SCALE;
+            actor.yaw = frame.yaw[i] / ReplayFormat.ANGLE_SCALE;
+            actor.pitch = (byte) frame.pitch[i] / ReplayFormat.ANGLE_SCALE;
+            lastHealth[index] = frame.health[i];
+            
+            boolean equipmentChanged = frame.item[i] != lastItem[index];
+            if (equipmentChanged) {
+                lastItem[index] = frame.item[i];
+                actor.weapon = frame.item[i] == Material.AIR ? null : new ItemStack(frame.item[i]);
+            }
+            
+            if (!visible[index]) {
+                // show sends the position and equipment as they are now
+                setVisible(index, true);
+            } else {
+                adapter.move(actor.viewers, actor);
+                if (equipmentChanged) {
+                    adapter.equip(actor.viewers, actor);
+                }
+            }
+        }
+        
+        for (ReplayFrame.Event event : frame.events) {
+            switch (event.type) {
+                case ReplayFormat.OP_DAMAGE:
+                    if (visible[event.actor]) {
+                        adapter.hurt(actors[event.actor].viewers, actors[event.actor]);
+                    }
+                    if (event.other >= 0 && visible[event.other]) {
+                        adapter.swing(actors[event.other].viewers, actors[event.other]);
+                    }
+                    break;
+                case ReplayFormat.OP_DEATH:
+                    setVisible(event.actor, false);
+                    if (event.other >= 0) {
+                        sendToViewers(ChatColor.RED + names[event.actor] + " was eliminated by " + names[event.other]);
+                    } else {
+                        sendToViewers(ChatColor.RED + names[event.actor] + " was eliminated");
+                    }
+                    break;
+                case ReplayFormat.OP_CHEST_OPEN:
+                    world.spawnParticle(Particle.VILLAGER_HAPPY, event.a + 0.5, event.b + 1.0, event.c + 0.5, 8, 0.3, 0.3, 0.3);
+                    break;
+            }
+        }
+    }
+    
+    private void setVisible(int index, boolean show) {
+        PracticeBot actor = actors[index];
+        if (visible[index] == show || actor == null) return;
+        visible[index] = show;
+        if (show) {
+            actor.viewers.addAll(viewers.values());
+            adapter.show(actor.viewers, actor);
+        } else {
+            adapter.hide(actor.viewers, actor);
+            actor.viewers.clear();
+        }
+    }
+    
+    private void updateTrackers() {
+        for (Map.Entry<UUID, Integer> entry : trackedActors.entrySet()) {
+            Player viewer = viewers.get(entry.getKey());
+            PracticeBot actor = actors[entry.getValue()];
+            if (viewer == null || actor == null || !visible[entry.getValue()]) continue;
+            
+            viewer.setCompassTarget(new Location(world, actor.x, actor.y, actor.z));
+            String message = ChatColor.GREEN + "Tracking: " + names[entry.getValue()] + " " + 
+                ChatColor.RED + (lastHealth[entry.getValue()] / 2.0) + "❤" +
+                ChatColor.GRAY + " - " + ChatColor.YELLOW + formatTime((int) cursor) + "/" + formatTime(lengthTicks) +
+                ChatColor.GRAY + " @ " + speed + "x" + (paused ? " (paused)" : "");
+            viewer.spigot().sendMessage(
+                net.md_5.bungee.api.ChatMessageType.ACTION_BAR,
+                net.md_5.bungee.api.chat.TextComponent.fromLegacyText(message));
+        }
+    }
+    
+    void addViewer(Player viewer) {
+        viewers.put(viewer.getUniqueId(), viewer);
+        previousModes.put(viewer.getUniqueId(), viewer.getGameMode());
+        plugin.getGameManager().savePlayerState(viewer);
+        viewer.teleport(new Location(world, 0.5, world.getHighestBlockYAt(0, 0) + 10, 0.5));
+        viewer.setGameMode(GameMode.SPECTATOR);
+        plugin.getSpectatorManager().giveSpectatorItems(viewer);
+        
+        // Joining mid-replay: draw whoever is on screen for just this viewer
+        Collection<Player> only = Collections.singletonList(viewer);
+        for (int i = 0; i < actors.length; i++) {
+            if (visible[i] && actors[i].viewers.add(viewer)) {
+                adapter.show(only, actors[i]);
+            }
+        }
+        viewer.sendMessage(ChatColor.GREEN + "Watching replay " + id + " (" + formatTime(lengthTicks) + ", " + names.length + " players)");
+    }
+    
+    void removeViewer(Player viewer) {
+        UUID uuid = viewer.getUniqueId();
+        if (viewers.remove(uuid) == null) return;
+        trackedActors.remove(uuid);
+        Collection<Player> only = Collections.singletonList(viewer);
+        for (PracticeBot actor : actors) {
+            if (actor != null && actor.viewers.remove(viewer) && viewer.isOnline()) {
+                adapter.hide(only, actor);
+            }
+        }
+        
+        GameMode previous = previousModes.remove(uuid);
+        if (viewer.isOnline()) {
+            viewer.getInventory().clear();
+            plugin.getGameManager().restorePlayerState(viewer);
+            if (viewer.getWorld().equals(world)) {
+                viewer.teleport(Bukkit.getWorlds().get(0).getSpawnLocation());
+            }
+            viewer.setGameMode(previous != null ? previous : GameMode.SURVIVAL);
+        } else {
+            plugin.getGameManager().handlePlayerQuit(viewer);
+        }
+    }
+    
+    void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Player viewer : new ArrayList<>(viewers.values())) {
+            removeViewer(viewer);
+        }
+        synchronized (buffered) {
+            generation++;
+            buffered.clear();
+        }
+        plugin.getIOManager().submit(reader::close);
+        plugin.getWorldManager().deleteWorld(world);
+    }
+    
+    void setPaused(boolean paused) {
+        this.paused = paused;
+        sendToViewers(ChatColor.YELLOW + "Replay " + (paused ? "paused" : "resumed") + " at " + formatTime((int) cursor));
+    }
+    
+    void setSpeed(double speed) {
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        sendToViewers(ChatColor.YELLOW + "Replay speed set to " + this.speed + "x");
+    }
+    
+    void seek(int tick) {
+        int target = Math.max(0, Math.min(lengthTicks, tick));
+        int seekGeneration;
+        synchronized (buffered) {
+            seekGeneration = ++generation;
+            buffered.clear();
+            exhausted = false;
+        }
+        finishedNotified = false;
+        cursor = target;
+        
+        plugin.getIOManager().submit(() -> {
+            ReplayFrame full = reader.seek(target);
+            synchronized (buffered) {
+                if (seekGeneration == generation) {
+                    buffered.add(full);
+                }
+            }
+        });
+        requestFill();
+        sendToViewers(ChatColor.YELLOW + "Jumped to " + formatTime(target));
+    }
+    
+    void trackNextActor(Player viewer) {
+        int next = nextVisibleActor(trackedActors.getOrDefault(viewer.getUniqueId(), -1));
+        if (next < 0) {
+            viewer.sendMessage(ChatColor.RED + "No players to track!");
+            return;
+        }
+        trackedActors.put(viewer.getUniqueId(), next);
+        viewer.sendMessage(ChatColor.GREEN + "Now tracking: " + names[next]);
+    }
+    
+    void teleportToNextActor(Player viewer) {
+        int next = nextVisibleActor(trackedActors.getOrDefault(viewer.getUniqueId(), -1));
+        if (next < 0) {
+            viewer.sendMessage(ChatColor.RED + "No players to teleport to!");
+            return;
+        }
+        trackedActors.put(viewer.getUniqueId(), next);
+        PracticeBot actor = actors[next];
+        viewer.teleport(new Location(world, actor.x, actor.y, actor.z, actor.yaw, actor.pitch));
+        viewer.sendMessage(ChatColor.GREEN + "Teleported to: " + names[next]);
+    }
+    
+    private int nextVisibleActor(int current) {
+        for (int step = 1; step <= actors.length; step++) {
+            int candidate = (current + step) % actors.length;
+            if (candidate >= 0 && actors[candidate] != null && visible[candidate]) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+    
+    private void sendToViewers(String message) {
+        for (Player viewer : viewers.values()) {
+            viewer.sendMessage(message);
+        }
+    }
+    
+    private static String formatTime(int ticks) {
+        int seconds = ticks / 20;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    boolean hasViewers() {
+        return !viewers.isEmpty();
+    }
+    
+    int getCurrentTick() {
+        return (int) cursor;
+    }
+}
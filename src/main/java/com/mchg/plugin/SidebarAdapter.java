@@ -0,0 +1,57 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * The server-version-specific half of sidebars: scoreboard packets sent to
+ * one viewer at a time, so no player needs a server-side scoreboard of their
+ * own. The objective, its line entries and a team per line only exist on the
+ * viewer's client. Building a line update is kept apart from sending it, so a
+ * line everyone shares is built once and sent to every viewer as-is.
+ */
+public interface SidebarAdapter {
+    /**
+     * Shows an empty sidebar on the viewer's client, with each entry in the
+     * team for its line.
+     */
+    void create(Player viewer, String title, String[] entries);
+    
+    /**
+     * Builds the update that sets a line's text. It can be sent to any
+     * number of viewers.
+     */
+    Object encodeLine(int index, String text);
+    
+    void sendLine(Player viewer, Object line);
+    
+    /**
+     * Puts a line's entry on the sidebar at the given score.
+     */
+    void showLine(Player viewer, String entry, int score);
+    
+    void hideLine(Player viewer, String entry);
+    
+    /**
+     * Takes the sidebar and the teams for its lines off the viewer's client.
+     */
+    void remove(Player viewer, int lines);
+    
+    /**
+     * The adapter for the running server, or null if there isn't one for its
+     * version or it can't link against the server's classes.
+     */
+    static SidebarAdapter forServer() {
+        try {
+            switch (BotAdapter.serverVersion()) {
+                case "v1_20_R3":
+                    return new SidebarAdapter_v1_20_R3();
+                default:
+                    return null;
+            }
+        } catch (LinkageError e) {
+            Bukkit.getLogger().warning("[HungerGames] Sidebar adapter failed to load: " + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mchg.plugin;
+
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundResetScorePacket;
+import net.minecraft.network.protocol.game.ClientboundSetDisplayObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
+import net.minecraft.world.scores.DisplaySlot;
+import net.minecraft.world.scores.Objective;
+import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.Scoreboard;
+import net.minecraft.world.scores.criteria.ObjectiveCriteria;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_20_R3.util.CraftChatMessage;
+import org.bukkit.entity.Player;
+
+/**
+ * Sidebars on 1.20.4. The objective and teams belong to a detached
+ * scoreboard that only exists to build packets from; it is never attached to
+ * the server, so nothing in it is tracked or sent anywhere else.
+ */
+class SidebarAdapter_v1_20_R3 implements SidebarAdapter {
+    private static final String OBJECTIVE = "hg_sidebar";
+    private static final String TEAM_PREFIX = "hg_line";
+    
+    private final Scoreboard scoreboard = new Scoreboard();
+    
+    @Override
+    public void create(Player viewer, String title, String[] entries) {
+        Objective objective = objective(title);
+        send(viewer, new ClientboundSetObjectivePacket(objective, ClientboundSetObjectivePacket.METHOD_ADD));
+        send(viewer, new ClientboundSetDisplayObjectivePacket(DisplaySlot.SIDEBAR, objective));
+        for (int i = 0; i < entries.length; i++) {
+            PlayerTeam team = new PlayerTeam(scoreboard, TEAM_PREFIX + i);
+            team.getPlayers().add(entries[i]);
+            send(viewer, ClientboundSetPlayerTeamPacket.createAddOrModifyPacket(team, true));
+        }
+    }
+    
+    @Override
+    public Object encodeLine(int index, String text) {
+        PlayerTeam team = new PlayerTeam(scoreboard, TEAM_PREFIX + index);
+        team.setPlayerPrefix(CraftChatMessage.fromStringOrEmpty(text));
+        return ClientboundSetPlayerTeamPacket.createAddOrModifyPacket(team, false);
+    }
+    
+    @Override
+    public void sendLine(Player viewer, Object line) {
+        send(viewer, (Packet<?>) line);
+    }
+    
+    @Override
+    public void showLine(Player viewer, String entry, int score) {
+        send(viewer, new ClientboundSetScorePacket(entry, OBJECTIVE, score, null, null));
+    }
+    
+    @Override
+    public void hideLine(Player viewer, String entry) {
+        send(viewer, new ClientboundResetScorePacket(entry, OBJECTIVE));
+    }
+    
+    @Override
+    public void remove(Player viewer, int lines) {
+        send(viewer, new ClientboundSetObjectivePacket(objective(""), ClientboundSetObjectivePacket.METHOD_REMOVE));
+        for (int i = 0; i < lines; i++) {
+            send(viewer, ClientboundSetPlayerTeamPacket.createRemovePacket(new PlayerTeam(scoreboard, TEAM_PREFIX + i)));
+        }
+    }
+    
+    private Objective objective(String title) {
+        return new Objective(scoreboard, OBJECTIVE, ObjectiveCriteria.DUMMY, CraftChatMessage.fromStringOrEmpty(title),
+            ObjectiveCriteria.RenderType.INTEGER, false, null);
+    }
+    
+    private static void send(Player viewer, Packet<?> packet) {
+        ((CraftPlayer) viewer).getHandle().connection.send(packet);
+    }
+}
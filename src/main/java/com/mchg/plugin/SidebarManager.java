@@ -0,0 +1,187 @@
+package com.mchg.plugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Gives every game player their own sidebar. Lines everyone shares, like the
+ * alive count and border size, are built and encoded once per change and sent
+ * as-is to each viewer; only the personal lines are built per viewer. Each
+ * viewer is refreshed at most once per {@link #VIEWER_INTERVAL_TICKS}, with
+ * viewers spread across the interval so neither the work nor the packets land
+ * on a single tick.
+ */
+public class SidebarManager {
+    private final HungerGames plugin;
+    private final SidebarAdapter adapter;
+    private final Map<UUID, Viewer> viewers = new HashMap<>();
+    private final List<String> sharedLines = new ArrayList<>();
+    private Object[] sharedEncoded; // The adapter's updates for the shared lines, in the same order
+    private final List<String> lineBuffer = new ArrayList<>(SidebarRenderer.MAX_LINES);
+    private boolean dirty = true;
+    private int lastBorderSize = -1;
+    private int staggerOffset = 0;
+    
+    private long renders = 0;
+    private long lineUpdates = 0;
+    
+    private static final int VIEWER_INTERVAL_TICKS = 10;
+    private static final String TITLE = ChatColor.GOLD + "Hunger Games";
+    
+    public SidebarManager(HungerGames plugin) {
+        this.plugin = plugin;
+        this.adapter = SidebarAdapter.forServer();
+        if (adapter == null) {
+            plugin.getLogger().warning("Packet sidebars are not supported on this server version (" +
+                BotAdapter.serverVersion() + "), each player gets their own scoreboard");
+        }
+    }
+    
+    /**
+     * Flags the shared lines and viewer list for a rebuild on the next tick. Call
+     * this whenever something shown to everyone changes.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+    
+    public void tick() {
+        try {
+            if (plugin.getGameState() == GameState.WAITING) {
+                if (!viewers.isEmpty()) {
+                    clear();
+                }
+                return;
+            }
+            
+            World gameWorld = plugin.getGameWorld();
+            if (plugin.getGameState() == GameState.ACTIVE && gameWorld != null) {
+                int borderSize = (int) gameWorld.getWorldBorder().getSize();
+                if (borderSize != lastBorderSize) {
+                    lastBorderSize = borderSize;
+                    dirty = true;
+                }
+            }
+            
+            if (dirty) {
+                dirty = false;
+                syncViewers();
+                buildSharedLines(gameWorld);
+            }
+            
+            long tick = plugin.getTickMonitor().getTick();
+            for (Viewer viewer : viewers.values()) {
+                // Personal lines drift as players move, so they are refreshed on every slot; the diff keeps it cheap
+                if (tick < viewer.nextRenderTick) continue;
+                viewer.nextRenderTick = tick + VIEWER_INTERVAL_TICKS;
+                render(viewer, gameWorld);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to update scoreboard: " + e.getMessage());
+        }
+    }
+    
+    private void buildSharedLines(World gameWorld) {
+        int aliveCount = plugin.getAlivePlayers().size();
+        int totalPlayers = plugin.getPlayers().size();
+        
+        sharedLines.clear();
+        sharedLines.add(ChatColor.GREEN + "Players Alive: " + ChatColor.WHITE + aliveCount);
+        sharedLines.add(ChatColor.RED + "Players Dead: " + ChatColor.WHITE + (totalPlayers - aliveCount));
+        if (plugin.getGameState() == GameState.ACTIVE && gameWorld != null) {
+            sharedLines.add(ChatColor.YELLOW + "Border: " + ChatColor.WHITE + lastBorderSize);
+        }
+        
+        sharedEncoded = null;
+        if (adapter != null) {
+            sharedEncoded = new Object[sharedLines.size()];
+            for (int i = 0; i < sharedEncoded.length; i++) {
+                sharedEncoded[i] = adapter.encodeLine(i, sharedLines.get(i));
+            }
+        }
+    }
+    
+    private void render(Viewer viewer, World gameWorld) {
+        Player player = viewer.renderer.getViewer();
+        
+        lineBuffer.clear();
+        lineBuffer.addAll(sharedLines);
+        lineBuffer.add(" ");
+        lineBuffer.add(ChatColor.AQUA + "Kills: " + ChatColor.WHITE +
+            plugin.getMatchHistoryManager().getKills(player.getUniqueId()));
+        if (plugin.getPlayerStates().get(player) == PlayerState.ALIVE) {
+            int nearest = (int) plugin.getSpatialGrid().nearestEnemyDistance(player);
+            lineBuffer.add(ChatColor.AQUA + "Nearest: " + ChatColor.WHITE + (nearest < 0 ? "-" : nearest + "m"));
+        }
+        if (gameWorld != null) {
+            lineBuffer.add(ChatColor.AQUA + "Arena: " + ChatColor.WHITE + gameWorld.getName());
+        }
+        
+        renders++;
+        lineUpdates += viewer.renderer.render(lineBuffer, sharedEncoded);
+    }
+    
+    private void syncViewers() {
+        Set<UUID> current = new HashSet<>();
+        long tick = plugin.getTickMonitor().getTick();
+        for (Player player : plugin.getPlayers()) {
+            if (!player.isOnline()) continue;
+            
+            current.add(player.getUniqueId());
+            if (!viewers.containsKey(player.getUniqueId())) {
+                Viewer viewer = new Viewer(new SidebarRenderer(player, TITLE, adapter));
+                viewer.nextRenderTick = tick + (staggerOffset++ % VIEWER_INTERVAL_TICKS);
+                viewers.put(player.getUniqueId(), viewer);
+            }
+        }
+        
+        Iterator<Map.Entry<UUID, Viewer>> iterator = viewers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Viewer> entry = iterator.next();
+            if (!current.contains(entry.getKey())) {
+                entry.getValue().renderer.destroy();
+                iterator.remove();
+            }
+        }
+    }
+    
+    public void clear() {
+        for (Viewer viewer : viewers.values()) {
+            viewer.renderer.destroy();
+        }
+        viewers.clear();
+        lastBorderSize = -1;
+        dirty = true;
+    }
+    
+    public int getViewerCount() {
+        return viewers.size();
+    }
+    
+    public long getRenders() {
+        return renders;
+    }
+    
+    public long getLineUpdates() {
+        return lineUpdates;
+    }
+    
+    private static class Viewer {
+        final SidebarRenderer renderer;
+        long nextRenderTick = 0;
+        
+        Viewer(SidebarRenderer renderer) {
+            this.renderer = renderer;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.List;
+
+/**
+ * One viewer's sidebar, sending only what changed. Each line is a fixed,
+ * invisible entry whose text lives in a team prefix, so changing a line is a
+ * single team update instead of removing and re-adding a score. The last
+ * rendered lines are kept and compared on every render. With a
+ * {@link SidebarAdapter} the objective and teams only exist on the viewer's
+ * client; on server versions without one, the viewer gets a scoreboard of
+ * their own instead.
+ */
+public class SidebarRenderer {
+    static final int MAX_LINES = 15;
+    private static final String[] ENTRIES = new String[MAX_LINES];
+    
+    static {
+        ChatColor[] colors = ChatColor.values();
+        for (int i = 0; i < MAX_LINES; i++) {
+            // Color codes render as nothing, so every line gets a unique blank entry
+            ENTRIES[i] = colors[i].toString() + ChatColor.RESET;
+        }
+    }
+    
+    private final Player viewer;
+    private final SidebarAdapter adapter;
+    // Only used without an adapter
+    private final Scoreboard scoreboard;
+    private final Objective objective;
+    private final Team[] teams;
+    
+    private final String[] lastLines = new String[MAX_LINES];
+    private int lastCount = 0;
+    
+    public SidebarRenderer(Player viewer, String title, SidebarAdapter adapter) {
+        this.viewer = viewer;
+        this.adapter = adapter;
+        if (adapter != null) {
+            this.scoreboard = null;
+            this.objective = null;
+            this.teams = null;
+            adapter.create(viewer, title, ENTRIES);
+            return;
+        }
+        
+        this.scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
+        this.objective = scoreboard.registerNewObjective("hgStats", "dummy", title);
+        this.objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+        this.teams = new Team[MAX_LINES];
+        for (int i = 0; i < MAX_LINES; i++) {
+            teams[i] = scoreboard.registerNewTeam("hgLine" + i);
+            teams[i].addEntry(ENTRIES[i]);
+        }
+        viewer.setScoreboard(scoreboard);
+    }
+    
+    /**
+     * Renders the given lines top to bottom. Lines equal to the last render are
+     * skipped; lines past {@link #MAX_LINES} are dropped. Where encoded holds
+     * an update the adapter already built for a line, it is sent as-is.
+     *
+     * @return the number of lines that had to be sent
+     */
+    public int render(List<String> lines, Object[] encoded) {
+        int count = Math.min(lines.size(), MAX_LINES);
+        int updates = 0;
+        
+        for (int i = 0; i < count; i++) {
+            String line = lines.get(i);
+            if (line.equals(lastLines[i])) continue;
+            
+            if (adapter == null) {
+                teams[i].setPrefix(line);
+            } else if (encoded != null && i < encoded.length && encoded[i] != null) {
+                adapter.sendLine(viewer, encoded[i]);
+            } else {
+                adapter.sendLine(viewer, adapter.encodeLine(i, line));
+            }
+            lastLines[i] = line;
+            updates++;
+        }
+        
+        // Each slot keeps the same score, so growing or shrinking only touches the slots involved
+        for (int i = lastCount; i < count; i++) {
+            if (adapter != null) {
+                adapter.showLine(viewer, ENTRIES[i], MAX_LINES - i);
+            } else {
+                objective.getScore(ENTRIES[i]).setScore(MAX_LINES - i);
+            }
+        }
+        for (int i = count; i < lastCount; i++) {
+            if (adapter != null) {
+                adapter.hideLine(viewer, ENTRIES[i]);
+            } else {
+                scoreboard.resetScores(ENTRIES[i]);
+            }
+            lastLines[i] = null;
+        }
+        lastCount = count;
+        return updates;
+    }
+    
+    public void destroy() {
+        if (!viewer.isOnline()) return;
+        
+        if (adapter != null) {
+            adapter.remove(viewer, MAX_LINES);
+        } else if (viewer.getScoreboard() == scoreboard) {
+            viewer.setScoreboard(Bukkit.getScoreboardManager().getMainScoreboard());
+        }
+    }
+    
+    public Player getViewer() {
+        return viewer;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mchg.plugin;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+
+/**
+ * Uniform grid of alive tributes in the game world, used for nearest-tribute
+ * queries. Positions are copied into a {@link TributeIndex} at most once per
+ * tick, on the first query of that tick, so bots, sidebars and spectator
+ * tools share one pass over the players. The index is never changed once
+ * built, so bot workers search the same one through their arena snapshot.
+ */
+public class SpatialGrid {
+    private final HungerGames plugin;
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private TributeIndex index = TributeIndex.EMPTY;
+    private long builtTick = -1;
+    
+    private long rebuilds = 0;
+    private long queries = 0;
+    
+    public SpatialGrid(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Distance from a tribute to the nearest other alive tribute, or -1 if there
+     * is none.
+     */
+    public double nearestEnemyDistance(Player player) {
+        TributeIndex tributes = index();
+        queries++;
+        int self = tributes.indexOf(player);
+        if (self < 0) return -1;
+        
+        double x = tributes.xs[self];
+        double z = tributes.zs[self];
+        int best = tributes.nearest(x, z, self, Double.MAX_VALUE);
+        return best < 0 ? -1 : Math.sqrt(tributes.distanceSquared(best, x, z));
+    }
+    
+    /**
+     * Nearest alive tribute to a point in the game world, or null if there are
+     * none.
+     */
+    public Player nearest(double x, double z) {
+        TributeIndex tributes = index();
+        queries++;
+        int best = tributes.nearest(x, z, -1, Double.MAX_VALUE);
+        return best < 0 ? null : tributes.players[best];
+    }
+    
+    /**
+     * This tick's index, rebuilt if it hasn't been built this tick yet.
+     */
+    TributeIndex index() {
+        long tick = plugin.getTickMonitor().getTick();
+        if (tick == builtTick) return index;
+        builtTick = tick;
+        rebuilds++;
+        
+        World world = plugin.getGameWorld();
+        if (world == null) {
+            index = TributeIndex.EMPTY;
+            return index;
+        }
+        
+        // Fresh arrays every time: workers may still be reading the last index
+        Map<Player, PlayerState> states = plugin.getPlayerStates();
+        Player[] players = new Player[states.size()];
+        double[] xs = new double[players.length];
+        double[] ys = new double[players.length];
+        double[] zs = new double[players.length];
+        int count = 0;
+        for (Map.Entry<Player, PlayerState> entry : states.entrySet()) {
+            Player player = entry.getKey();
+            if (entry.getValue() != PlayerState.ALIVE || !player.isOnline() || player.getWorld() != world) continue;
+            
+            player.getLocation(scratch);
+            players[count] = player;
+            xs[count] = scratch.getX();
+            ys[count] = scratch.getY();
+            zs[count] = scratch.getZ();
+            count++;
+        }
+        index = new TributeIndex(players, xs, ys, zs, count);
+        return index;
+    }
+    
+    public int getSize() {
+        return index.count;
+    }
+    
+    public long getRebuilds() {
+        return rebuilds;
+    }
+    
+    public long getQueries() {
+        return queries;
+    }
+}
@@ -1,41 +1,49 @@
 package com.mchg.plugin;
 
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 
 public class SpectatorManager {
     private final HungerGames plugin;
-    private final Map<UUID, UUID> spectatorTargets; // Spectator UUID -> Target UUID
+    private final Map<UUID, TrackerSubscription> spectatorTargets; // Spectator UUID -> subscription
+    private final Map<UUID, TrackerGroup> trackerGroups; // Target UUID -> spectators tracking it
+    private BukkitRunnable trackerTask;
+    private final SpectatorMenu menu;
     private final Map<UUID, Location> deathLocations; // Player UUID -> Death Location
     
-    private static final ItemStack PLAYER_TRACKER = createItem(Material.COMPASS, ChatColor.GREEN + "Player Tracker");
-    private static final ItemStack TELEPORTER = createItem(Material.ENDER_PEARL, ChatColor.AQUA + "Quick Teleport");
-    private static final ItemStack NIGHT_VISION = createItem(Material.ENDER_EYE, ChatColor.GOLD + "Toggle Night Vision");
-    private static final ItemStack SPEED_TOGGLE = createItem(Material.FEATHER, ChatColor.YELLOW + "Toggle Speed");
+    private final ItemStack playerTracker;
+    private final ItemStack teleporter;
+    private final ItemStack nightVision;
+    private final ItemStack speedToggle;
+    
+    private static final int ACTION_BAR_REFRESH_RUNS = 4; // Client fades the action bar after ~3 seconds
     
     public SpectatorManager(HungerGames plugin) {
         this.plugin = plugin;
         this.spectatorTargets = new HashMap<>();
         this.deathLocations = new HashMap<>();
-        startTrackerUpdater();
-    }
-    
-    private static ItemStack createItem(Material material, String name) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            meta.setDisplayName(name);
-            item.setItemMeta(meta);
-        }
-        return item;
+        this.trackerGroups = new HashMap<>();
+        this.menu = new SpectatorMenu(plugin);
+        
+        ItemRegistry items = plugin.getItemRegistry();
+        this.playerTracker = items.register(ItemRegistry.SPECTATOR_TRACKER, Material.COMPASS, 
+            ChatColor.GREEN + "Player Tracker", (player, item) -> useTracker(player));
+        this.teleporter = items.register(ItemRegistry.SPECTATOR_TELEPORTER, Material.ENDER_PEARL, 
+            ChatColor.AQUA + "Quick Teleport", (player, item) -> useTeleporter(player));
+        this.nightVision = items.register(ItemRegistry.SPECTATOR_NIGHT_VISION, Material.ENDER_EYE, 
+            ChatColor.GOLD + "Toggle Night Vision", (player, item) -> toggleNightVision(player));
+        this.speedToggle = items.register(ItemRegistry.SPECTATOR_SPEED, Material.FEATHER, 
+            ChatColor.YELLOW + "Toggle Speed", (player, item) -> toggleSpectatorSpeed(player));
     }
     
     public void setSpectator(Player player) {
@@ -53,46 +61,40 @@ public class SpectatorManager {
         }.runTaskLater(plugin, 5L);
     }
     
-    private void giveSpectatorItems(Player player) {
+    void giveSpectatorItems(Player player) {
         player.getInventory().clear();
-        player.getInventory().setItem(0, PLAYER_TRACKER.clone());
-        player.getInventory().setItem(1, TELEPORTER.clone());
-        player.getInventory().setItem(2, NIGHT_VISION.clone());
-        player.getInventory().setItem(3, SPEED_TOGGLE.clone());
+        player.getInventory().setItem(0, playerTracker.clone());
+        player.getInventory().setItem(1, teleporter.clone());
+        player.getInventory().setItem(2, nightVision.clone());
+        player.getInventory().setItem(3, speedToggle.clone());
     }
     
     public void handleSpectatorInteract(Player spectator, ItemStack item) {
-        if (item == null || !spectator.getGameMode().equals(GameMode.SPECTATOR)) return;
-        
-        String itemName = item.getItemMeta() != null ? item.getItemMeta().getDisplayName() : "";
+        if (item == null || spectator.getGameMode() != GameMode.SPECTATOR) return;
         
-        switch (itemName) {
-            case "Player Tracker":
-                openPlayerSelector(spectator);
-                break;
-            case "Quick Teleport":
-                teleportToNextPlayer(spectator);
-                break;
-            case "Toggle Night Vision":
-                toggleNightVision(spectator);
-                break;
-            case "Toggle Speed":
-                toggleSpectatorSpeed(spectator);
-                break;
+        plugin.getItemRegistry().dispatch(spectator, item);
+    }
+    
+    private void useTracker(Player spectator) {
+        ReplaySession replay = plugin.getReplayManager().getSession(spectator);
+        if (replay != null) {
+            replay.trackNextActor(spectator);
+        } else {
+            openPlayerSelector(spectator);
         }
     }
     
-    private void openPlayerSelector(Player spectator) {
-        List<Player> alivePlayers = plugin.getAlivePlayers();
-        if (alivePlayers.isEmpty()) {
-            spectator.sendMessage(ChatColor.RED + "No players to track!");
-            return;
+    private void useTeleporter(Player spectator) {
+        ReplaySession replay = plugin.getReplayManager().getSession(spectator);
+        if (replay != null) {
+            replay.teleportToNextActor(spectator);
+        } else {
+            teleportToNextPlayer(spectator);
         }
-        
-        // TODO: Implement a proper GUI menu for player selection
-        Player target = alivePlayers.get(new Random().nextInt(alivePlayers.size()));
-        spectatorTargets.put(spectator.getUniqueId(), target.getUniqueId());
-        spectator.sendMessage(ChatColor.GREEN + "Now tracking: " + target.getName());
+    }
+    
+    private void openPlayerSelector(Player spectator) {
+        menu.open(spectator);
     }
     
     private void teleportToNextPlayer(Player spectator) {
@@ -102,7 +104,8 @@ public class SpectatorManager {
             return;
         }
         
-        UUID currentTarget = spectatorTargets.get(spectator.getUniqueId());
+        TrackerSubscription subscription = spectatorTargets.get(spectator.getUniqueId());
+        UUID currentTarget = subscription != null ? subscription.group.target.getUniqueId() : null;
         int currentIndex = -1;
         
         if (currentTarget != null) {
@@ -114,11 +117,18 @@ public class SpectatorManager {
             }
         }
         
-        int nextIndex = (currentIndex + 1) % alivePlayers.size();
-        Player nextTarget = alivePlayers.get(nextIndex);
+        // Without a target yet, start with the tribute closest to the spectator
+        Player nextTarget = null;
+        if (currentTarget == null && spectator.getWorld() == plugin.getGameWorld()) {
+            Location location = spectator.getLocation();
+            nextTarget = plugin.getSpatialGrid().nearest(location.getX(), location.getZ());
+        }
+        if (nextTarget == null) {
+            nextTarget = alivePlayers.get((currentIndex + 1) % alivePlayers.size());
+        }
         
         spectator.teleport(nextTarget.getLocation());
-        spectatorTargets.put(spectator.getUniqueId(), nextTarget.getUniqueId());
+        setSpectatorTarget(spectator, nextTarget);
         spectator.sendMessage(ChatColor.GREEN + "Teleported to: " + nextTarget.getName());
     }
     
@@ -147,40 +157,155 @@ public class SpectatorManager {
         }
     }
     
+    /**
+     * Points a spectator's tracker at a target, replacing any previous one. The
+     * update task only runs while at least one tracker is active.
+     */
+    public void setSpectatorTarget(Player spectator, Player target) {
+        removeSubscription(spectator.getUniqueId());
+        
+        TrackerGroup group = trackerGroups.computeIfAbsent(target.getUniqueId(), k -> new TrackerGroup(target));
+        TrackerSubscription subscription = new TrackerSubscription(spectator, group);
+        group.subscribers.add(subscription);
+        spectatorTargets.put(spectator.getUniqueId(), subscription);
+        
+        if (trackerTask == null) {
+            startTrackerUpdater();
+        }
+    }
+    
+    /**
+     * Drops every tracker the player is part of, as spectator or as target.
+     * Called when a player quits or is eliminated.
+     */
+    public void invalidateTracking(Player player) {
+        removeSubscription(player.getUniqueId());
+        
+        TrackerGroup group = trackerGroups.remove(player.getUniqueId());
+        if (group != null) {
+            for (TrackerSubscription subscription : group.subscribers) {
+                spectatorTargets.remove(subscription.spectator.getUniqueId());
+                if (subscription.spectator.isOnline()) {
+                    subscription.spectator.sendMessage(ChatColor.YELLOW + "Your tracked player is gone, pick a new one!");
+                }
+            }
+        }
+        stopTrackerUpdaterIfIdle();
+    }
+    
+    private void removeSubscription(UUID spectatorId) {
+        TrackerSubscription subscription = spectatorTargets.remove(spectatorId);
+        if (subscription == null) return;
+        
+        TrackerGroup group = subscription.group;
+        group.subscribers.remove(subscription);
+        if (group.subscribers.isEmpty()) {
+            trackerGroups.remove(group.target.getUniqueId());
+        }
+        stopTrackerUpdaterIfIdle();
+    }
+    
     private void startTrackerUpdater() {
-        new BukkitRunnable() {
+        trackerTask = new BukkitRunnable() {
+            int run = 0;
+            
             @Override
             public void run() {
-                for (Map.Entry<UUID, UUID> entry : spectatorTargets.entrySet()) {
-                    Player spectator = plugin.getServer().getPlayer(entry.getKey());
-                    Player target = plugin.getServer().getPlayer(entry.getValue());
+                run++;
+                for (TrackerGroup group : trackerGroups.values()) {
+                    // One location fetch per target, shared by everyone watching it
+                    Location targetLocation = group.target.getLocation();
+                    boolean targetMoved = group.lastBlockX != targetLocation.getBlockX() || 
+                        group.lastBlockY != targetLocation.getBlockY() || 
+                        group.lastBlockZ != targetLocation.getBlockZ();
+                    group.lastBlockX = targetLocation.getBlockX();
+                    group.lastBlockY = targetLocation.getBlockY();
+                    group.lastBlockZ = targetLocation.getBlockZ();
                     
-                    if (spectator != null && target != null && 
-                        spectator.isOnline() && target.isOnline() &&
-                        spectator.getInventory().contains(PLAYER_TRACKER)) {
+                    for (TrackerSubscription subscription : group.subscribers) {
+                        Player spectator = subscription.spectator;
+                        if (spectator.getGameMode() != GameMode.SPECTATOR || 
+                            spectator.getWorld() != targetLocation.getWorld()) continue;
                         
-                        spectator.setCompassTarget(target.getLocation());
+                        if (targetMoved || subscription.lastBucket < 0) {
+                            spectator.setCompassTarget(targetLocation);
+                        }
                         
-                        // Update action bar with distance
-                        double distance = spectator.getLocation().distance(target.getLocation());
-                        String message = ChatColor.GREEN + "Tracking: " + target.getName() + 
-                            ChatColor.GRAY + " - Distance: " + 
-                            ChatColor.YELLOW + String.format("%.1f", distance) + "m";
-                        spectator.spigot().sendMessage(
-                            net.md_5.bungee.api.ChatMessageType.ACTION_BAR,
-                            net.md_5.bungee.api.chat.TextComponent.fromLegacyText(message));
+                        // Refresh the action bar when the bucket changes, or before the client fades it out
+                        int bucket = distanceBucket(spectator.getLocation().distanceSquared(targetLocation));
+                        if (bucket == subscription.lastBucket && run - subscription.lastSentRun < ACTION_BAR_REFRESH_RUNS) {
+                            continue;
+                        }
+                        subscription.lastBucket = bucket;
+                        subscription.lastSentRun = run;
+                        spectator.spigot().sendMessage(ChatMessageType.ACTION_BAR, group.getText(bucket));
                     }
                 }
             }
-        }.runTaskTimer(plugin, 0L, 10L); // Update every half second
+        };
+        trackerTask.runTaskTimer(plugin, 0L, 10L); // Update every half second
+    }
+    
+    private void stopTrackerUpdaterIfIdle() {
+        if (trackerTask != null && spectatorTargets.isEmpty()) {
+            trackerTask.cancel();
+            trackerTask = null;
+        }
+    }
+    
+    private static int distanceBucket(double distanceSquared) {
+        // Whole metres up close, then coarser steps; far away the exact number is just noise
+        int distance = (int) Math.sqrt(distanceSquared);
+        if (distance < 20) return distance;
+        if (distance < 100) return distance - distance % 5;
+        return distance - distance % 25;
     }
     
     public Location getDeathLocation(Player player) {
         return deathLocations.get(player.getUniqueId());
     }
     
+    public SpectatorMenu getMenu() {
+        return menu;
+    }
+    
     public void clearSpectatorData() {
+        menu.clear();
         spectatorTargets.clear();
+        trackerGroups.clear();
         deathLocations.clear();
+        stopTrackerUpdaterIfIdle();
+    }
+    
+    private static class TrackerGroup {
+        final Player target;
+        final List<TrackerSubscription> subscribers = new ArrayList<>();
+        final Map<Integer, BaseComponent[]> textByBucket = new HashMap<>();
+        int lastBlockX = Integer.MIN_VALUE;
+        int lastBlockY = Integer.MIN_VALUE;
+        int lastBlockZ = Integer.MIN_VALUE;
+        
+        TrackerGroup(Player target) {
+            this.target = target;
+        }
+        
+        BaseComponent[] getText(int bucket) {
+            return textByBucket.computeIfAbsent(bucket, k -> TextComponent.fromLegacyText(
+                ChatColor.GREEN + "Tracking: " + target.getName() + 
+                ChatColor.GRAY + " - Distance: " + 
+                ChatColor.YELLOW + (k >= 20 ? "~" : "") + k + "m"));
+        }
+    }
+    
+    private static class TrackerSubscription {
+        final Player spectator;
+        final TrackerGroup group;
+        int lastBucket = -1;
+        int lastSentRun = 0;
+        
+        TrackerSubscription(Player spectator, TrackerGroup group) {
+            this.spectator = spectator;
+            this.group = group;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,306 @@
+package com.mchg.plugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Paged chest menu listing alive tributes for spectators. There is one model
+ * per arena: each tribute owns a fixed slot and only that slot is rewritten
+ * when their health, kills or distance changes. Every spectator opens the same
+ * inventories, so an update reaches all viewers without rebuilding anything.
+ */
+public class SpectatorMenu {
+    private final HungerGames plugin;
+    private final List<Page> pages = new ArrayList<>();
+    private final List<Player> tributes = new ArrayList<>(); // Index is the tribute's position in the menu
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Set<UUID> dirty = new HashSet<>();
+    private BukkitRunnable distanceTask;
+    private boolean flushScheduled = false;
+    
+    private static final int HEADS_PER_PAGE = 45;
+    private static final int PREVIOUS_SLOT = 45;
+    private static final int INFO_SLOT = 49;
+    private static final int NEXT_SLOT = 53;
+    private static final int DISTANCE_REFRESH_TICKS = 40;
+    private static final int DISTANCE_STEP = 5;
+    
+    public SpectatorMenu(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Builds the menu from the current alive players. Called once when the
+     * game starts; after that the model is only patched.
+     */
+    public void build() {
+        clear();
+        for (Player player : plugin.getAlivePlayers()) {
+            addTribute(player);
+        }
+        updatePageInfo();
+    }
+    
+    public void open(Player spectator) {
+        if (tributes.isEmpty()) {
+            spectator.sendMessage(ChatColor.RED + "No players to track!");
+            return;
+        }
+        spectator.openInventory(pages.get(0).inventory);
+        
+        if (distanceTask == null) {
+            startDistanceUpdater();
+        }
+    }
+    
+    /**
+     * Queues a tribute's head for a refresh on the next tick, once the change
+     * that triggered it (damage, healing, a kill) has been applied. Several
+     * changes in the same tick collapse into one update.
+     */
+    public void markDirty(Player player) {
+        if (!entries.containsKey(player.getUniqueId()) || !dirty.add(player.getUniqueId())) return;
+        
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::flushDirty);
+        }
+    }
+    
+    private void flushDirty() {
+        flushScheduled = false;
+        for (UUID uuid : dirty) {
+            Entry entry = entries.get(uuid);
+            if (entry != null) {
+                refresh(entry, false);
+            }
+        }
+        dirty.clear();
+    }
+    
+    /**
+     * Removes an eliminated tribute. The last tribute moves into the freed slot,
+     * so only two slots change no matter how many tributes are listed.
+     */
+    public void removeTribute(Player player) {
+        Entry removed = entries.remove(player.getUniqueId());
+        if (removed == null) return;
+        
+        int lastIndex = tributes.size() - 1;
+        Player last = tributes.remove(lastIndex);
+        if (removed.index != lastIndex) {
+            Entry moved = entries.get(last.getUniqueId());
+            tributes.set(removed.index, last);
+            moved.index = removed.index;
+            setSlot(moved.index, moved.item);
+        }
+        setSlot(lastIndex, null);
+        
+        // Drop the last page once it is empty, sending anyone on it back a page
+        int pageCount = Math.max(1, (tributes.size() + HEADS_PER_PAGE - 1) / HEADS_PER_PAGE);
+        while (pages.size() > pageCount) {
+            Page page = pages.remove(pages.size() - 1);
+            for (HumanEntity viewer : new ArrayList<>(page.inventory.getViewers())) {
+                viewer.openInventory(pages.get(pages.size() - 1).inventory);
+            }
+        }
+        updatePageInfo();
+    }
+    
+    /**
+     * Handles a click inside one of the menu's pages. The event is always
+     * cancelled by the caller.
+     */
+    public void handleClick(Player spectator, Page page, int slot) {
+        if (slot == PREVIOUS_SLOT && page.index > 0) {
+            spectator.openInventory(pages.get(page.index - 1).inventory);
+            return;
+        }
+        if (slot == NEXT_SLOT && page.index + 1 < pages.size()) {
+            spectator.openInventory(pages.get(page.index + 1).inventory);
+            return;
+        }
+        if (slot < 0 || slot >= HEADS_PER_PAGE) return;
+        
+        int index = page.index * HEADS_PER_PAGE + slot;
+        if (index >= tributes.size()) return;
+        
+        Player target = tributes.get(index);
+        if (!target.isOnline()) return;
+        
+        spectator.closeInventory();
+        plugin.getSpectatorManager().setSpectatorTarget(spectator, target);
+        if (spectator.getWorld() == target.getWorld()) {
+            // Ride along with the target's camera rather than teleporting after them
+            spectator.setSpectatorTarget(target);
+        }
+        spectator.sendMessage(ChatColor.GREEN + "Now spectating: " + target.getName());
+    }
+    
+    private void addTribute(Player player) {
+        Entry entry = new Entry(tributes.size());
+        tributes.add(player);
+        entries.put(player.getUniqueId(), entry);
+        
+        entry.item = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta meta = (SkullMeta) entry.item.getItemMeta();
+        if (meta != null) {
+            meta.setOwningPlayer(player);
+            meta.setDisplayName(ChatColor.YELLOW + player.getName());
+            entry.item.setItemMeta(meta);
+        }
+        refresh(entry, true);
+    }
+    
+    private void refresh(Entry entry, boolean force) {
+        Player player = tributes.get(entry.index);
+        int health = (int) Math.ceil(player.getHealth());
+        int kills = plugin.getMatchHistoryManager().getKills(player.getUniqueId());
+        int distance = distanceFromCenter(player);
+        if (!force && health == entry.health && kills == entry.kills && distance == entry.distance) return;
+        
+        entry.health = health;
+        entry.kills = kills;
+        entry.distance = distance;
+        ItemMeta meta = entry.item.getItemMeta();
+        if (meta != null) {
+            meta.setLore(Arrays.asList(
+                ChatColor.RED + "Health: " + ChatColor.WHITE + health + "/20",
+                ChatColor.AQUA + "Kills: " + ChatColor.WHITE + kills,
+                ChatColor.GRAY + "Distance from center: " + ChatColor.WHITE + "~" + distance + "m",
+                "",
+                ChatColor.GREEN + "Click to spectate"));
+            entry.item.setItemMeta(meta);
+        }
+        setSlot(entry.index, entry.item);
+    }
+    
+    private int distanceFromCenter(Player player) {
+        World world = plugin.getGameWorld();
+        if (world == null || player.getWorld() != world) return 0;
+        
+        Location center = world.getWorldBorder().getCenter();
+        double dx = player.getLocation().getX() - center.getX();
+        double dz = player.getLocation().getZ() - center.getZ();
+        int distance = (int) Math.sqrt(dx * dx + dz * dz);
+        return distance - distance % DISTANCE_STEP;
+    }
+    
+    private void setSlot(int index, ItemStack item) {
+        int pageIndex = index / HEADS_PER_PAGE;
+        while (pages.size() <= pageIndex) {
+            pages.add(new Page(pages.size()));
+        }
+        pages.get(pageIndex).inventory.setItem(index % HEADS_PER_PAGE, item);
+    }
+    
+    private void updatePageInfo() {
+        for (Page page : pages) {
+            page.inventory.setItem(PREVIOUS_SLOT, page.index > 0 ?
+                createItem(Material.ARROW, ChatColor.YELLOW + "Previous Page") : null);
+            page.inventory.setItem(NEXT_SLOT, page.index + 1 < pages.size() ?
+                createItem(Material.ARROW, ChatColor.YELLOW + "Next Page") : null);
+            page.inventory.setItem(INFO_SLOT, createItem(Material.PAPER,
+                ChatColor.GOLD + "Page " + (page.index + 1) + "/" + pages.size() +
+                ChatColor.GRAY + " (" + tributes.size() + " alive)"));
+        }
+    }
+    
+    private void startDistanceUpdater() {
+        distanceTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                // Distances drift constantly; only refresh them while somebody is looking
+                boolean viewed = false;
+                for (Page page : pages) {
+                    if (!page.inventory.getViewers().isEmpty()) {
+                        viewed = true;
+                        break;
+                    }
+                }
+                if (!viewed) {
+                    cancel();
+                    distanceTask = null;
+                    return;
+                }
+                for (Entry entry : entries.values()) {
+                    refresh(entry, false);
+                }
+            }
+        };
+        distanceTask.runTaskTimer(plugin, DISTANCE_REFRESH_TICKS, DISTANCE_REFRESH_TICKS);
+    }
+    
+    public void clear() {
+        if (distanceTask != null) {
+            distanceTask.cancel();
+            distanceTask = null;
+        }
+        for (Page page : pages) {
+            for (HumanEntity viewer : new ArrayList<>(page.inventory.getViewers())) {
+                viewer.closeInventory();
+            }
+        }
+        pages.clear();
+        tributes.clear();
+        entries.clear();
+        dirty.clear();
+    }
+    
+    private static ItemStack createItem(Material material, String name) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(name);
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+    
+    private static class Entry {
+        int index;
+        ItemStack item;
+        int health = -1;
+        int kills = -1;
+        int distance = -1;
+        
+        Entry(int index) {
+            this.index = index;
+        }
+    }
+    
+    public static class Page implements InventoryHolder {
+        private final int index;
+        private final Inventory inventory;
+        
+        Page(int index) {
+            this.index = index;
+            this.inventory = Bukkit.createInventory(this, 54, ChatColor.DARK_GREEN + "Spectate a Tribute");
+        }
+        
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+}
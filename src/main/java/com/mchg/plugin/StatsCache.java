@@ -0,0 +1,270 @@
+package com.mchg.plugin;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded cache in front of the per-player stats files. Entries are kept in
+ * access order and the least recently used unpinned entry is evicted once the
+ * cache is full. Online and participating players are pinned so their stats are
+ * never dropped while they can still change. Only touched from the main thread;
+ * file reads and writes go through the I/O service.
+ */
+public class StatsCache {
+    private final HungerGames plugin;
+    private final File statsFolder;
+    private final LinkedHashMap<UUID, Entry> entries;
+    private final Set<UUID> pinned = new HashSet<>();
+    private int capacity;
+    
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long loads = 0;
+    private long totalLoadNanos = 0;
+    private long maxLoadNanos = 0;
+    
+    private static final int DEFAULT_CAPACITY = 500;
+    
+    public StatsCache(HungerGames plugin) {
+        this.plugin = plugin;
+        this.statsFolder = new File(plugin.getDataFolder(), "stats");
+        this.entries = new LinkedHashMap<>(64, 0.75f, true);
+        this.capacity = DEFAULT_CAPACITY;
+    }
+    
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        evictOverflow();
+    }
+    
+    /**
+     * Returns the stats for a player. A miss hands back an empty record right
+     * away and loads the stored values in the background; anything recorded in
+     * the meantime is added on top once the load completes.
+     */
+    public GameManager.PlayerStats get(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry != null) {
+            hits++;
+            if (entry.failed) {
+                // Try the file again; until it loads, changes wait in the entry like any unfinished load
+                entry.failed = false;
+                entry.loaded = false;
+                load(uuid, entry);
+            }
+            return entry.stats;
+        }
+        
+        misses++;
+        entry = new Entry();
+        entries.put(uuid, entry);
+        load(uuid, entry);
+        evictOverflow();
+        return entry.stats;
+    }
+    
+    public void pin(UUID uuid) {
+        pinned.add(uuid);
+        get(uuid);
+    }
+    
+    public void unpin(UUID uuid) {
+        if (pinned.remove(uuid)) {
+            evictOverflow();
+        }
+    }
+    
+    public void markDirty(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null || isTransient(uuid)) return;
+        
+        // Until the stored values are merged in, the record only holds a partial count
+        if (!entry.loaded || entry.failed) {
+            entry.dirty = true;
+            return;
+        }
+        save(uuid, entry);
+    }
+    
+    private void load(UUID uuid, Entry entry) {
+        if (isTransient(uuid)) {
+            entry.loaded = true;
+            return;
+        }
+        
+        File file = getStatsFile(uuid);
+        long start = System.nanoTime();
+        plugin.getIOManager().read(() -> readStored(uuid, file),
+            stored -> {
+                long elapsed = System.nanoTime() - start;
+                loads++;
+                totalLoadNanos += elapsed;
+                maxLoadNanos = Math.max(maxLoadNanos, elapsed);
+                
+                entry.loaded = true;
+                if (stored != null) {
+                    entry.stats.kills += stored.getInt("kills");
+                    entry.stats.deaths += stored.getInt("deaths");
+                    entry.stats.wins += stored.getInt("wins");
+                    entry.stats.gamesPlayed += stored.getInt("games-played");
+                }
+                if (entry.dirty) {
+                    save(uuid, entry);
+                }
+            },
+            e -> {
+                // Saving now would replace stats we couldn't read; the entry can still be evicted,
+                // and the next access tries the file again
+                plugin.getLogger().warning("Failed to read stats for " + uuid + ": " + e.getMessage());
+                entry.loaded = true;
+                entry.failed = true;
+            });
+    }
+    
+    /**
+     * Reads and parses a stats file on the I/O thread. A file that doesn't
+     * parse is moved aside to a .broken copy and treated as empty, so it's
+     * kept for recovery instead of being overwritten by the next save.
+     */
+    private YamlConfiguration readStored(UUID uuid, File file) throws IOException {
+        if (!file.exists()) return null;
+        
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            File broken = new File(statsFolder, uuid + ".yml.broken");
+            Files.move(file.toPath(), broken.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().warning("Stats for " + uuid + " were unreadable and have been moved to " + broken.getName() + ": " + e.getMessage());
+            return null;
+        }
+        return config;
+    }
+    
+    private void save(UUID uuid, Entry entry) {
+        entry.dirty = false;
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("kills", entry.stats.kills);
+        config.set("deaths", entry.stats.deaths);
+        config.set("wins", entry.stats.wins);
+        config.set("games-played", entry.stats.gamesPlayed);
+        
+        // Keyed per player so a burst of updates collapses into one write
+        plugin.getIOManager().writeFile("stats-" + uuid, getStatsFile(uuid), config.saveToString());
+    }
+    
+    private void evictOverflow() {
+        if (entries.size() <= capacity) return;
+        
+        // Participants stay cached even if they dropped offline mid-game
+        Set<UUID> participants = new HashSet<>();
+        for (Player player : plugin.getPlayers()) {
+            participants.add(player.getUniqueId());
+        }
+        
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            Map.Entry<UUID, Entry> eldest = iterator.next();
+            UUID uuid = eldest.getKey();
+            if (pinned.contains(uuid) || participants.contains(uuid) || !eldest.getValue().loaded) {
+                continue;
+            }
+            iterator.remove();
+            evictions++;
+        }
+    }
+    
+    /**
+     * Persists changes still held back by an unfinished load. The load callback
+     * will not run once the plugin is disabled, so the pending counts are added
+     * to the stored values directly on the I/O thread. Called before the I/O
+     * service drains.
+     */
+    public void flush() {
+        for (Map.Entry<UUID, Entry> entry : entries.entrySet()) {
+            if (!entry.getValue().dirty || (entry.getValue().loaded && !entry.getValue().failed)) continue;
+            
+            File file = getStatsFile(entry.getKey());
+            GameManager.PlayerStats pending = entry.getValue().stats;
+            int kills = pending.kills;
+            int deaths = pending.deaths;
+            int wins = pending.wins;
+            int gamesPlayed = pending.gamesPlayed;
+            plugin.getIOManager().submit(() -> {
+                YamlConfiguration config = new YamlConfiguration();
+                if (file.exists()) {
+                    try {
+                        config.loadFromString(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+                    } catch (InvalidConfigurationException e) {
+                        throw new IOException(e);
+                    }
+                }
+                config.set("kills", config.getInt("kills") + kills);
+                config.set("deaths", config.getInt("deaths") + deaths);
+                config.set("wins", config.getInt("wins") + wins);
+                config.set("games-played", config.getInt("games-played") + gamesPlayed);
+                file.getParentFile().mkdirs();
+                Files.write(file.toPath(), config.saveToString().getBytes(StandardCharsets.UTF_8));
+            });
+        }
+    }
+    
+    private boolean isTransient(UUID uuid) {
+        // A bot's id only lasts while the pool keeps it, never past a restart, so persisting it would only leave junk files
+        return plugin.getBotManager() != null && plugin.getBotManager().getBotIds().contains(uuid);
+    }
+    
+    private File getStatsFile(UUID uuid) {
+        return new File(statsFolder, uuid + ".yml");
+    }
+    
+    public int getSize() {
+        return entries.size();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int getPinnedCount() {
+        return pinned.size();
+    }
+    
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits / (double) total;
+    }
+    
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    public double getAverageLoadMillis() {
+        return loads == 0 ? 0 : totalLoadNanos / (double) loads / 1_000_000.0;
+    }
+    
+    public double getMaxLoadMillis() {
+        return maxLoadNanos / 1_000_000.0;
+    }
+    
+    private static class Entry {
+        final GameManager.PlayerStats stats = new GameManager.PlayerStats();
+        boolean loaded = false;
+        boolean dirty = false;
+        boolean failed = false; // The file couldn't be read, so nothing is saved until it can
+    }
+}
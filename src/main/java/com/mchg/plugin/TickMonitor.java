@@ -0,0 +1,87 @@
+package com.mchg.plugin;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+public class TickMonitor {
+    private final HungerGames plugin;
+    private BukkitRunnable task;
+    private long tick = 0;
+    private long lastTickNanos = 0;
+    private long lastDurationNanos = 0;
+    private boolean serverTimings = true; // Off once the adapter fails to link
+    
+    // Window covering the current match
+    private long windowTicks = 0;
+    private long windowTotalNanos = 0;
+    private long windowPeakNanos = 0;
+    
+    public TickMonitor(HungerGames plugin) {
+        this.plugin = plugin;
+    }
+    
+    public void start() {
+        if (task != null) return;
+        
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long now = System.nanoTime();
+                if (lastTickNanos != 0) {
+                    // Without an adapter the time between runs is the closest we get, idle wait included
+                    long duration = now - lastTickNanos;
+                    BotAdapter adapter = plugin.getBotAdapter();
+                    if (adapter != null && serverTimings) {
+                        try {
+                            duration = adapter.lastTickNanos();
+                        } catch (LinkageError e) {
+                            serverTimings = false;
+                            plugin.getLogger().warning("Server tick timings are unavailable, measuring between ticks instead: " + e);
+                        }
+                    }
+                    lastDurationNanos = duration;
+                    windowTicks++;
+                    windowTotalNanos += duration;
+                    if (duration > windowPeakNanos) {
+                        windowPeakNanos = duration;
+                    }
+                }
+                lastTickNanos = now;
+                tick++;
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    public void resetWindow() {
+        windowTicks = 0;
+        windowTotalNanos = 0;
+        windowPeakNanos = 0;
+    }
+    
+    public long getTick() {
+        return tick;
+    }
+    
+    /**
+     * How long the last finished tick took. This is the server's own timing
+     * when there is a bot adapter, otherwise the time since the tick before.
+     */
+    public double getLastTickMillis() {
+        return lastDurationNanos / 1_000_000.0;
+    }
+    
+    public double getWindowAverageMillis() {
+        return windowTicks == 0 ? 0 : windowTotalNanos / (double) windowTicks / 1_000_000.0;
+    }
+    
+    public double getWindowPeakMillis() {
+        return windowPeakNanos / 1_000_000.0;
+    }
+}
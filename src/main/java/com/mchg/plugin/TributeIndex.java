@@ -0,0 +1,166 @@
+package com.mchg.plugin;
+
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Alive tributes' positions bucketed into 16-block cells, built by
+ * {@link SpatialGrid} once per tick. It never changes after construction, so
+ * the same index answers main-thread queries and is carried to the bot
+ * workers inside an {@link ArenaSnapshot}. The cells are an open-addressed
+ * table from packed cell coordinates to a chain of tributes through
+ * {@link #next}; searches only visit the cells around the query point and
+ * compare squared distances.
+ */
+class TributeIndex {
+    static final TributeIndex EMPTY = new TributeIndex(new Player[0], new double[0], new double[0], new double[0], 0);
+    
+    private static final int CELL_SHIFT = 4; // 16-block cells
+    private static final double CELL_SIZE = 1 << CELL_SHIFT;
+    private static final long NO_CELL = Long.MIN_VALUE;
+    
+    final int count;
+    final Player[] players;
+    final double[] xs;
+    final double[] ys;
+    final double[] zs;
+    private final Map<Player, Integer> indexByPlayer;
+    
+    private final int[] next; // Next tribute in the same cell, or -1
+    private final long[] cellKeys;
+    private final int[] cellHeads;
+    private final int minCellX, maxCellX, minCellZ, maxCellZ;
+    
+    /**
+     * Indexes the first count entries. The arrays are kept, not copied, and
+     * must not be changed afterwards.
+     */
+    TributeIndex(Player[] players, double[] xs, double[] ys, double[] zs, int count) {
+        this.count = count;
+        this.players = players;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.indexByPlayer = new IdentityHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            indexByPlayer.put(players[i], i);
+        }
+        
+        // Keep the table at most half full
+        int capacity = 16;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        this.next = new int[count];
+        this.cellKeys = new long[capacity];
+        this.cellHeads = new int[capacity];
+        Arrays.fill(cellKeys, NO_CELL);
+        
+        int lowX = Integer.MAX_VALUE, highX = Integer.MIN_VALUE;
+        int lowZ = Integer.MAX_VALUE, highZ = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int cx = cell(xs[i]);
+            int cz = cell(zs[i]);
+            lowX = Math.min(lowX, cx);
+            highX = Math.max(highX, cx);
+            lowZ = Math.min(lowZ, cz);
+            highZ = Math.max(highZ, cz);
+            
+            long key = pack(cx, cz);
+            int slot = slot(key);
+            while (cellKeys[slot] != NO_CELL && cellKeys[slot] != key) {
+                slot = (slot + 1) & (cellKeys.length - 1);
+            }
+            if (cellKeys[slot] == NO_CELL) {
+                cellKeys[slot] = key;
+                next[i] = -1;
+            } else {
+                next[i] = cellHeads[slot];
+            }
+            cellHeads[slot] = i;
+        }
+        this.minCellX = lowX;
+        this.maxCellX = highX;
+        this.minCellZ = lowZ;
+        this.maxCellZ = highZ;
+    }
+    
+    /**
+     * Index of a tribute in the arrays, or -1 if they weren't alive in the
+     * arena when the index was built.
+     */
+    int indexOf(Player player) {
+        Integer index = indexByPlayer.get(player);
+        return index != null ? index : -1;
+    }
+    
+    /**
+     * Index of the tribute nearest to a point, closer than the square root of
+     * maxDistanceSquared, searching outward ring by ring from the point's
+     * cell; -1 if there is none. Pass an index as excluded to leave that
+     * tribute out.
+     */
+    int nearest(double x, double z, int excluded, double maxDistanceSquared) {
+        if (count == 0) return -1;
+        
+        int best = -1;
+        double bestDistance = maxDistanceSquared;
+        int originX = cell(x);
+        int originZ = cell(z);
+        int maxRing = Math.max(Math.max(originX - minCellX, maxCellX - originX), Math.max(originZ - minCellZ, maxCellZ - originZ));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Anything in this ring or beyond is at least ring - 1 cells away
+            double reach = Math.max(0, ring - 1) * CELL_SIZE;
+            if (reach * reach > bestDistance) break;
+            
+            for (int cx = originX - ring; cx <= originX + ring; cx++) {
+                boolean edgeColumn = cx == originX - ring || cx == originX + ring;
+                for (int cz = originZ - ring; cz <= originZ + ring; cz += edgeColumn ? 1 : 2 * ring) {
+                    for (int i = head(cx, cz); i >= 0; i = next[i]) {
+                        if (i == excluded) continue;
+                        
+                        double distance = distanceSquared(i, x, z);
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = i;
+                        }
+                    }
+                    if (ring == 0) break;
+                }
+            }
+        }
+        return best;
+    }
+    
+    double distanceSquared(int index, double x, double z) {
+        double dx = xs[index] - x;
+        double dz = zs[index] - z;
+        return dx * dx + dz * dz;
+    }
+    
+    private int head(int cx, int cz) {
+        long key = pack(cx, cz);
+        int slot = slot(key);
+        while (cellKeys[slot] != NO_CELL) {
+            if (cellKeys[slot] == key) return cellHeads[slot];
+            slot = (slot + 1) & (cellKeys.length - 1);
+        }
+        return -1;
+    }
+    
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (cellKeys.length - 1);
+    }
+    
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+    
+    private static long pack(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -3,6 +3,8 @@ package com.mchg.plugin;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.Material;
 import org.bukkit.generator.ChunkGenerator;
@@ -10,6 +12,7 @@ import org.bukkit.generator.WorldInfo;
 import org.bukkit.util.noise.SimplexOctaveGenerator;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.concurrent.ThreadLocalRandom;
 import java.io.File;
 import java.io.IOException;
@@ -24,6 +27,7 @@ public class WorldManager {
     private World gameWorld;
     private final List<ItemStack> possibleItems;
     private final List<Location> spawnPlatforms = new ArrayList<>();
+    private final ChestIndex chestIndex = new ChestIndex();
     private static final int SPAWN_PLATFORM_RADIUS = 50; // Distance from center
     private static final int MAX_SPAWN_PLATFORMS = 24;
     
@@ -47,6 +51,7 @@ public class WorldManager {
             creator.environment(World.Environment.NORMAL);
             creator.type(WorldType.NORMAL);
             creator.generateStructures(false);  // Disable structures for cleaner arena
+            creator.seed(plugin.getMatchRandom().stream("world").nextLong());
             
             try {
                 if (gameWorld != null) {
@@ -69,17 +74,7 @@ public class WorldManager {
                 
                 if (gameWorld != null) {
                     // Basic world setup
-                    gameWorld.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
-                    gameWorld.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
-                    gameWorld.setGameRule(GameRule.DO_MOB_SPAWNING, false);
-                    gameWorld.setGameRule(GameRule.DO_FIRE_TICK, false);
-                    gameWorld.setGameRule(GameRule.ANNOUNCE_ADVANCEMENTS, false);
-                    gameWorld.setGameRule(GameRule.DISABLE_RAIDS, true);
-                    gameWorld.setGameRule(GameRule.DO_PATROL_SPAWNING, false);
-                    gameWorld.setGameRule(GameRule.DO_TRADER_SPAWNING, false);
-                    gameWorld.setDifficulty(Difficulty.NORMAL);
-                    gameWorld.setTime(6000);
-                    gameWorld.setStorm(false);
+                    applyArenaRules(gameWorld);
                     
                     // Set up world border
                     WorldBorder border = gameWorld.getWorldBorder();
@@ -96,7 +91,7 @@ public class WorldManager {
                         return null;
                     }
                     
-                    generateCornucopia();
+                    generateCornucopia(gameWorld);
                     populateChests();
                     generateSpawnPlatforms();
                     
@@ -112,6 +107,60 @@ public class WorldManager {
         }
     }
     
+    private void applyArenaRules(World world) {
+        world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+        world.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
+        world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+        world.setGameRule(GameRule.DO_FIRE_TICK, false);
+        world.setGameRule(GameRule.ANNOUNCE_ADVANCEMENTS, false);
+        world.setGameRule(GameRule.DISABLE_RAIDS, true);
+        world.setGameRule(GameRule.DO_PATROL_SPAWNING, false);
+        world.setGameRule(GameRule.DO_TRADER_SPAWNING, false);
+        world.setDifficulty(Difficulty.NORMAL);
+        world.setTime(6000);
+        world.setStorm(false);
+    }
+    
+    public World createReplayWorld(String worldName, long seed) {
+        // Same seed and generator settings as the recorded arena, so the terrain matches
+        WorldCreator creator = new WorldCreator(worldName);
+        creator.environment(World.Environment.NORMAL);
+        creator.type(WorldType.NORMAL);
+        creator.generateStructures(false);
+        creator.seed(seed);
+        
+        try {
+            World world = creator.createWorld();
+            if (world != null) {
+                applyArenaRules(world);
+                world.setGameRule(GameRule.DO_ENTITY_DROPS, false);
+                generateCornucopia(world);
+            }
+            return world;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to create replay world: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public void deleteWorld(World world) {
+        if (world == null) return;
+        
+        try {
+            World defaultWorld = Bukkit.getWorlds().get(0);
+            for (Player player : world.getPlayers()) {
+                player.teleport(defaultWorld.getSpawnLocation());
+            }
+            String worldName = world.getName();
+            if (Bukkit.unloadWorld(world, false)) {
+                File worldFolder = new File(Bukkit.getWorldContainer(), worldName);
+                plugin.getIOManager().submit(() -> deleteWorldFolder(worldFolder));
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error during world deletion: " + e.getMessage());
+        }
+    }
+    
     private boolean ensureChunkLoaded(int x, int z) {
         for (int attempt = 0; attempt < CHUNK_LOAD_RETRIES; attempt++) {
             try {
@@ -144,18 +193,18 @@ public class WorldManager {
                below.getType().isSolid();
     }
     
-    private void generateCornucopia() {
-        if (gameWorld == null) return;
+    private void generateCornucopia(World world) {
+        if (world == null) return;
         
         // Create central platform
         for (int x = -10; x <= 10; x++) {
             for (int z = -10; z <= 10; z++) {
-                Location loc = new Location(gameWorld, x, 64, z);
+                Location loc = new Location(world, x, 64, z);
                 if (x*x + z*z <= 100) { // Circular platform
                     loc.getBlock().setType(Material.STONE_BRICKS);
                     // Clear space above
                     for (int y = 65; y <= 70; y++) {
-                        new Location(gameWorld, x, y, z).getBlock().setType(Material.AIR);
+                        new Location(world, x, y, z).getBlock().setType(Material.AIR);
                     }
                 }
             }
@@ -166,7 +215,7 @@ public class WorldManager {
             for (int z = -3; z <= 3; z++) {
                 for (int y = 0; y <= 3; y++) {
                     if (x*x + z*z <= 9) {
-                        Location loc = new Location(gameWorld, x, 65+y, z);
+                        Location loc = new Location(world, x, 65+y, z);
                         if (y == 0) {
                             loc.getBlock().setType(Material.GOLD_BLOCK);
                         } else if (y == 3) {
@@ -184,28 +233,29 @@ public class WorldManager {
         }
         
         // Place central chests
-        placeChest(new Location(gameWorld, 0, 65, 0));
-        placeChest(new Location(gameWorld, 2, 65, 0));
-        placeChest(new Location(gameWorld, -2, 65, 0));
-        placeChest(new Location(gameWorld, 0, 65, 2));
-        placeChest(new Location(gameWorld, 0, 65, -2));
+        placeChest(new Location(world, 0, 65, 0));
+        placeChest(new Location(world, 2, 65, 0));
+        placeChest(new Location(world, -2, 65, 0));
+        placeChest(new Location(world, 0, 65, 2));
+        placeChest(new Location(world, 0, 65, -2));
     }
     
     private void populateChests() {
         if (gameWorld == null) return;
         
+        RandomGenerator random = plugin.getMatchRandom().stream("chests");
+        
         // Populate cornucopia chests with high-tier loot
         for (int x = -5; x <= 5; x++) {
             for (int z = -5; z <= 5; z++) {
                 Block block = gameWorld.getBlockAt(x, 65, z);
                 if (block.getType() == Material.CHEST) {
-                    fillChest((Chest) block.getState(), true);
+                    fillChest((Chest) block.getState(), true, random);
                 }
             }
         }
         
         // Generate and populate random chests around the map
-        Random random = new Random();
         for (int i = 0; i < 20; i++) {
             int x = random.nextInt(201) - 100;
             int z = random.nextInt(201) - 100;
@@ -215,27 +265,30 @@ public class WorldManager {
             placeChest(chestLoc);
             Block block = chestLoc.getBlock();
             if (block.getType() == Material.CHEST) {
-                fillChest((Chest) block.getState(), false);
+                fillChest((Chest) block.getState(), false, random);
             }
         }
     }
     
     private void placeChest(Location location) {
         location.getBlock().setType(Material.CHEST);
+        // Replay worlds get a cornucopia too, but bots only look for chests in the arena
+        if (location.getWorld() == gameWorld) {
+            chestIndex.add(location.getBlock());
+        }
     }
     
-    private void fillChest(Chest chest, boolean isHighTier) {
-        Random random = new Random();
+    private void fillChest(Chest chest, boolean isHighTier, RandomGenerator random) {
         int itemCount = isHighTier ? 
             random.nextInt(5) + 3 : // 3-7 items for high-tier
             random.nextInt(4) + 1;  // 1-4 items for normal chests
         
         List<Integer> slots = new ArrayList<>();
         for (int i = 0; i < 27; i++) slots.add(i);
-        Collections.shuffle(slots);
+        MatchRandom.shuffle(slots, random);
         
         for (int i = 0; i < itemCount; i++) {
-            ItemStack item = getRandomItem(isHighTier);
+            ItemStack item = getRandomItem(isHighTier, random);
             if (item != null) {
                 chest.getInventory().setItem(slots.get(i), item);
             }
@@ -283,15 +336,14 @@ public class WorldManager {
         return items;
     }
     
-    private ItemStack getRandomItem(boolean isHighTier) {
-        Random random = new Random();
+    private ItemStack getRandomItem(boolean isHighTier, RandomGenerator random) {
         ItemStack item = possibleItems.get(random.nextInt(possibleItems.size()));
         
         if (isHighTier) {
             // Higher chance of better items
             if (item.getType().name().contains("WOODEN") || 
                 item.getType().name().contains("LEATHER")) {
-                return getRandomItem(true); // Reroll for better item
+                return getRandomItem(true, random); // Reroll for better item
             }
         }
         
@@ -302,6 +354,10 @@ public class WorldManager {
         return gameWorld;
     }
     
+    public ChestIndex getChestIndex() {
+        return chestIndex;
+    }
+    
     public void deleteGameWorld() {
         synchronized (worldLock) {
             if (gameWorld != null) {
@@ -321,34 +377,18 @@ public class WorldManager {
                         .filter(entity -> !(entity instanceof Player))
                         .forEach(Entity::remove);
                     
+                    // No point saving chunks of a world that is about to be deleted
                     for (Chunk chunk : gameWorld.getLoadedChunks()) {
-                        chunk.unload(true);
+                        chunk.unload(false);
                     }
                     
-                    // Unload and delete world
+                    // Unload on the main thread, delete the folder on the I/O thread
                     if (Bukkit.unloadWorld(gameWorld, false)) {
                         gameWorld = null;
+                        chestIndex.clear();
                         
-                        // Delete world folder with retries
                         File worldFolder = new File(Bukkit.getWorldContainer(), worldName);
-                        int maxRetries = 5;
-                        for (int i = 0; i < maxRetries; i++) {
-                            try {
-                                if (worldFolder.exists()) {
-                                    FileUtils.deleteDirectory(worldFolder);
-                                }
-                                if (!worldFolder.exists()) {
-                                    break;
-                                }
-                                if (i < maxRetries - 1) {
-                                    Thread.sleep(1000);
-                                }
-                            } catch (Exception e) {
-                                if (i == maxRetries - 1) {
-                                    plugin.getLogger().severe("Failed to delete world folder after " + maxRetries + " attempts: " + e.getMessage());
-                                }
-                            }
-                        }
+                        plugin.getIOManager().submit(() -> deleteWorldFolder(worldFolder));
                     }
                 } catch (Exception e) {
                     plugin.getLogger().severe("Error during world deletion: " + e.getMessage());
@@ -357,6 +397,31 @@ public class WorldManager {
         }
     }
     
+    private void deleteWorldFolder(File worldFolder) {
+        // Delete world folder with retries
+        int maxRetries = 5;
+        for (int i = 0; i < maxRetries; i++) {
+            try {
+                if (worldFolder.exists()) {
+                    FileUtils.deleteDirectory(worldFolder);
+                }
+                if (!worldFolder.exists()) {
+                    break;
+                }
+                if (i < maxRetries - 1) {
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (i == maxRetries - 1) {
+                    plugin.getLogger().severe("Failed to delete world folder after " + maxRetries + " attempts: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
     private void generateSpawnPlatforms() {
         if (gameWorld == null) return;
         spawnPlatforms.clear();